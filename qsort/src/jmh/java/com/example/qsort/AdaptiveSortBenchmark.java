@@ -0,0 +1,69 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Compares {@link AdaptiveSort} with the quick sorts on presorted and random inputs. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AdaptiveSortBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"nearlySorted", "random", "sawtooth"})
+    public String distribution;
+
+    @Param({"4"})
+    public int threads;
+
+    private Integer[] source;
+    private Integer[] array;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.integers(distribution, size);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Integer[] adaptive() {
+        AdaptiveSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] adaptiveParallel() {
+        AdaptiveSort.sort(array, pool);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] quickSort() {
+        SingleThreadQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] quickSortParallel() {
+        ParallelQuickSort.quickSort(array, pool);
+        return array;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.qsort;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/** Input generators shared by the benchmarks. All of them are deterministic for a given size. */
+class BenchmarkData {
+    static final int SEED = 209;
+
+    static Integer[] randomIntegers(int size) {
+        return new Random(SEED).ints(size).boxed().toArray(Integer[]::new);
+    }
+
+    /**
+     * Integers with the given distribution: {@code random}, {@code sorted}, {@code reversed}, {@code organPipe}
+     * (increasing, then decreasing), {@code fewUnique} (random out of 16 distinct values), {@code nearlySorted}
+     * (sorted, then a random batch of a tenth of the size appended) or {@code sawtooth} (increasing runs of 1000).
+     */
+    static Integer[] integers(String distribution, int size) {
+        IntStream values;
+        switch (distribution) {
+            case "random":
+                return randomIntegers(size);
+            case "sorted":
+                values = IntStream.range(0, size);
+                break;
+            case "reversed":
+                values = IntStream.range(0, size).map(i -> size - i);
+                break;
+            case "organPipe":
+                values = IntStream.range(0, size).map(i -> Math.min(i, size - i));
+                break;
+            case "fewUnique":
+                values = new Random(SEED).ints(size, 0, 16);
+                break;
+            case "nearlySorted":
+                var random = new Random(SEED);
+                values = IntStream.range(0, size).map(i -> i < size * 9 / 10 ? i : random.nextInt(size));
+                break;
+            case "sawtooth":
+                values = IntStream.range(0, size).map(i -> i % 1000);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution " + distribution);
+        }
+        return values.boxed().toArray(Integer[]::new);
+    }
+
+    /**
+     * Strings of {@code prefixLength} 'a' followed by the zero-padded {@link #integers} with the given
+     * distribution, so the strings are ordered in the same way as the integers.
+     */
+    static String[] strings(String distribution, int size, int prefixLength) {
+        var prefix = "a".repeat(prefixLength);
+        return Arrays.stream(integers(distribution, size))
+                .map(i -> prefix + String.format("%010d", (long) i - Integer.MIN_VALUE))
+                .toArray(String[]::new);
+    }
+
+    /** Strings of a long prefix of 'a' followed by a random integer */
+    static String[] prefixedStrings(int count, int prefixLength) {
+        var prefix = "a".repeat(prefixLength);
+        return Stream.generate(new Random(SEED)::nextInt).map(i -> prefix + i).limit(count).toArray(String[]::new);
+    }
+}
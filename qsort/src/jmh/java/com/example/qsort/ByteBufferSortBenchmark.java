@@ -0,0 +1,86 @@
+package com.example.qsort;
+
+import com.example.qsort.ByteBufferSort.KeyType;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-place {@link ByteBufferSort} of records in a direct buffer with copying the records on-heap,
+ * sorting them there by the key and copying them back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ByteBufferSortBenchmark {
+    private static final int KEY_OFFSET = 0;
+
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"16", "100"})
+    public int recordSize;
+
+    @Param({"4"})
+    public int threads;
+
+    private byte[] source;
+    private ByteBuffer buffer;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = new byte[records * recordSize];
+        new Random(BenchmarkData.SEED).nextBytes(source);
+        buffer = ByteBuffer.allocateDirect(source.length);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        buffer.clear();
+        buffer.put(source).flip();
+    }
+
+    @Benchmark
+    public ByteBuffer inPlace() {
+        ByteBufferSort.sort(buffer, recordSize, KeyType.LONG, KEY_OFFSET, Long.BYTES);
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer inPlaceParallel() {
+        ByteBufferSort.sort(buffer, recordSize, KeyType.LONG, KEY_OFFSET, Long.BYTES, pool);
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer copySortCopy() {
+        var records = new byte[buffer.remaining()];
+        buffer.get(records);
+        var keys = new long[this.records];
+        var wrapped = ByteBuffer.wrap(records);
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = wrapped.getLong(i * recordSize + KEY_OFFSET);
+        }
+        var positions = KeySortUtils.positions(keys.length);
+        pool.invoke(new KeySortUtils.SortAction(keys, positions, 0, keys.length));
+        buffer.clear();
+        for (int position : positions) {
+            buffer.put(records, position * recordSize, recordSize);
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the quick sorts on inputs which are bad for naive pivot selection. Tune the insertion sort bound with
+ * {@code -jvmArgsAppend -Dcom.example.qsort.insertionSortBound=N}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class DistributionBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"random", "sorted", "reversed", "organPipe", "fewUnique"})
+    public String distribution;
+
+    @Param({"4"})
+    public int threads;
+
+    private Integer[] source;
+    private Integer[] array;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.integers(distribution, size);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Integer[] singleThread() {
+        SingleThreadQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] forkJoin() {
+        ParallelQuickSort.quickSort(array, pool);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] arraysSort() {
+        Arrays.sort(array);
+        return array;
+    }
+}
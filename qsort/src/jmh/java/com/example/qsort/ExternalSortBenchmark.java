@@ -0,0 +1,92 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ExternalSort}: {@code inputMegabytes} is the sorted input and {@code ioMegabytes}
+ * all bytes read and written, both reported per second. Use {@code -p fileSize} and {@code -p chunkSize} to get
+ * more merge passes, and {@code -jvmArgsAppend -Djava.io.tmpdir=...} to choose the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ExternalSortBenchmark {
+    private static final int RECORD_SIZE = 100;
+    private static final int KEY_OFFSET = 0;
+
+    /** Size of the input in megabytes */
+    @Param({"256"})
+    public int fileSize;
+
+    /** Size of a chunk in megabytes */
+    @Param({"16", "64"})
+    public int chunkSize;
+
+    @Param({"4"})
+    public int threads;
+
+    private Path directory;
+    private Path input;
+    private Path output;
+    private ForkJoinPool pool;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Megabytes {
+        public double inputMegabytes;
+        public double ioMegabytes;
+    }
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("external-sort-benchmark");
+        input = directory.resolve("input.bin");
+        output = directory.resolve("output.bin");
+        pool = new ForkJoinPool(threads);
+        var random = new Random(BenchmarkData.SEED);
+        var record = new byte[RECORD_SIZE];
+        try (var channel = Files.newByteChannel(input, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            var buffer = ByteBuffer.allocate((1 << 20) / RECORD_SIZE * RECORD_SIZE);
+            long records = (long) fileSize * (1 << 20) / RECORD_SIZE;
+            for (long i = 0; i < records; ++i) {
+                random.nextBytes(record);
+                buffer.put(record);
+                if (!buffer.hasRemaining() || i == records - 1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public ExternalSort.Report externalSort(Megabytes megabytes) throws IOException {
+        var report = ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET, chunkSize << 20, pool, directory);
+        megabytes.inputMegabytes += Files.size(input) / (double) (1 << 20);
+        megabytes.ioMegabytes += (report.getBytesRead() + report.getBytesWritten()) / (double) (1 << 20);
+        return report;
+    }
+}
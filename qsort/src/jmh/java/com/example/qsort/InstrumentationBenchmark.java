@@ -0,0 +1,54 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the instrumentation of the quick sort: without a listener, with {@link SortListener#NONE},
+ * which should cost nothing, and with {@link SortStatistics}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class InstrumentationBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    private Integer[] source;
+    private Integer[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.randomIntegers(size);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Integer[] plain() {
+        SingleThreadQuickSort.quickSort(array, Comparator.naturalOrder());
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] noListener() {
+        SingleThreadQuickSort.quickSort(array, Comparator.naturalOrder(), SortListener.NONE);
+        return array;
+    }
+
+    @Benchmark
+    public SortStatistics statistics() {
+        var statistics = new SortStatistics();
+        SingleThreadQuickSort.quickSort(array, Comparator.naturalOrder(), statistics);
+        return statistics;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting records by an int field: with a key extractor, with a comparator, and by wrapping every record
+ * into a {@link Comparable} adapter first, as callers had to before the key and comparator overloads.
+ * The parallel sorts run in the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class KeySortBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    private Record[] source;
+    private Record[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        var random = new Random(BenchmarkData.SEED);
+        source = new Record[size];
+        for (int i = 0; i < size; ++i) {
+            source[i] = new Record(random.nextInt(), "record " + i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Record[] singleThreadIntKey() {
+        SingleThreadQuickSort.quickSortByIntKey(array, Record::getId);
+        return array;
+    }
+
+    @Benchmark
+    public Record[] parallelIntKey() {
+        ParallelQuickSort.quickSortByIntKey(array, Record::getId);
+        return array;
+    }
+
+    @Benchmark
+    public Record[] parallelComparator() {
+        ParallelQuickSort.quickSort(array, Comparator.comparingInt(Record::getId));
+        return array;
+    }
+
+    @Benchmark
+    public Record[] parallelWrapper() {
+        var wrappers = new RecordWrapper[array.length];
+        for (int i = 0; i < array.length; ++i) {
+            wrappers[i] = new RecordWrapper(array[i]);
+        }
+        ParallelQuickSort.quickSort(wrappers);
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = wrappers[i].record;
+        }
+        return array;
+    }
+
+    @Benchmark
+    public Record[] arraysParallelSortComparator() {
+        Arrays.parallelSort(array, Comparator.comparingInt(Record::getId));
+        return array;
+    }
+
+    private static class Record {
+        private final int id;
+        private final String payload;
+
+        private Record(int id, String payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+
+        private int getId() {
+            return id;
+        }
+    }
+
+    private static class RecordWrapper implements Comparable<RecordWrapper> {
+        private final Record record;
+
+        private RecordWrapper(Record record) {
+            this.record = record;
+        }
+
+        @Override
+        public int compareTo(RecordWrapper other) {
+            return Integer.compare(record.id, other.record.id);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the thread pool and fork-join modes of {@link ParallelQuickSort} with {@link Arrays#parallelSort}.
+ * Run with {@code -p size=100000000} for the largest arrays, the default sizes keep the suite short.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ParallelQuickSortBenchmark {
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"4"})
+    public int threads;
+
+    private Integer[] source;
+    private Integer[] array;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.randomIntegers(size);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Integer[] threadPool() {
+        ParallelQuickSort.quickSort(array, threads);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] forkJoin() {
+        ParallelQuickSort.quickSort(array, pool);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] arraysParallelSort() {
+        // uses the common pool, so run with -Djava.util.concurrent.ForkJoinPool.common.parallelism to match threads
+        Arrays.parallelSort(array);
+        return array;
+    }
+}
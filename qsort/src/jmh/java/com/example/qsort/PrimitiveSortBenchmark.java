@@ -0,0 +1,129 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Primitive sorts of {@link SingleThreadQuickSort} and {@link ParallelQuickSort} against {@link Arrays}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class PrimitiveSortBenchmark {
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"int", "long", "double"})
+    public String type;
+
+    @Param({"4"})
+    public int threads;
+
+    private int[] intSource;
+    private long[] longSource;
+    private double[] doubleSource;
+    private int[] intArray;
+    private long[] longArray;
+    private double[] doubleArray;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        var random = new Random(BenchmarkData.SEED);
+        switch (type) {
+            case "int":
+                intSource = random.ints(size).toArray();
+                break;
+            case "long":
+                longSource = random.longs(size).toArray();
+                break;
+            default:
+                doubleSource = random.doubles(size).toArray();
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        switch (type) {
+            case "int":
+                intArray = Arrays.copyOf(intSource, size);
+                break;
+            case "long":
+                longArray = Arrays.copyOf(longSource, size);
+                break;
+            default:
+                doubleArray = Arrays.copyOf(doubleSource, size);
+        }
+    }
+
+    @Benchmark
+    public Object singleThread() {
+        switch (type) {
+            case "int":
+                SingleThreadQuickSort.quickSort(intArray);
+                return intArray;
+            case "long":
+                SingleThreadQuickSort.quickSort(longArray);
+                return longArray;
+            default:
+                SingleThreadQuickSort.quickSort(doubleArray);
+                return doubleArray;
+        }
+    }
+
+    @Benchmark
+    public Object parallel() {
+        switch (type) {
+            case "int":
+                ParallelQuickSort.quickSort(intArray, pool);
+                return intArray;
+            case "long":
+                ParallelQuickSort.quickSort(longArray, pool);
+                return longArray;
+            default:
+                ParallelQuickSort.quickSort(doubleArray, pool);
+                return doubleArray;
+        }
+    }
+
+    @Benchmark
+    public Object arraysSort() {
+        switch (type) {
+            case "int":
+                Arrays.sort(intArray);
+                return intArray;
+            case "long":
+                Arrays.sort(longArray);
+                return longArray;
+            default:
+                Arrays.sort(doubleArray);
+                return doubleArray;
+        }
+    }
+
+    @Benchmark
+    public Object arraysParallelSort() {
+        switch (type) {
+            case "int":
+                Arrays.parallelSort(intArray);
+                return intArray;
+            case "long":
+                Arrays.parallelSort(longArray);
+                return longArray;
+            default:
+                Arrays.parallelSort(doubleArray);
+                return doubleArray;
+        }
+    }
+}
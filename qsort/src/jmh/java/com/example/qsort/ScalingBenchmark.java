@@ -0,0 +1,52 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the fork-join {@link ParallelQuickSort} with the number of threads. The top partitions are parallel,
+ * so the speedup should not stop at a few threads. Run with {@code -p size=100000000 -jvmArgsAppend -Xmx16g}
+ * on a machine with enough cores for the full picture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ScalingBenchmark {
+    @Param({"10000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    private Integer[] source;
+    private Integer[] array;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.randomIntegers(size);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Integer[] forkJoin() {
+        ParallelQuickSort.quickSort(array, pool);
+        return array;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Compares {@link QuickSelect} with sorting the whole array when only the {@code k} smallest elements are needed. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SelectionBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    /** Number of the smallest elements needed, {@code half} meaning the median */
+    @Param({"10", "1000", "half"})
+    public String k;
+
+    @Param({"4"})
+    public int threads;
+
+    private Integer[] source;
+    private Integer[] array;
+    private int count;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.randomIntegers(size);
+        count = k.equals("half") ? size / 2 : Integer.parseInt(k);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public Integer select() {
+        QuickSelect.select(array, count);
+        return array[count];
+    }
+
+    @Benchmark
+    public Integer parallelSelect() {
+        QuickSelect.select(array, count, pool);
+        return array[count];
+    }
+
+    @Benchmark
+    public Integer[] partialSort() {
+        QuickSelect.partialSort(array, count);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] parallelPartialSort() {
+        QuickSelect.partialSort(array, count, pool);
+        return array;
+    }
+
+    @Benchmark
+    public Object topK() {
+        return QuickSelect.topK(Arrays.asList(array), count);
+    }
+
+    @Benchmark
+    public Integer[] fullSort() {
+        SingleThreadQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public Integer[] parallelFullSort() {
+        ParallelQuickSort.quickSort(array, pool);
+        return array;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The main benchmark suite of the quick sorts, over the input size, number of threads, distribution of the input
+ * and type of the elements. With one thread {@link SingleThreadQuickSort} is measured, otherwise the modes of
+ * {@link ParallelQuickSort}.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhInclude=SortBenchmark}, results are written as JSON to
+ * {@code build/reports/jmh/results.json}. The default sizes keep the suite short, for the largest inputs run the jar
+ * with e.g. {@code -p size=100000000 -p elementType=Integer -jvmArgsAppend -Xmx32g}.
+ *
+ * <p>Each invocation copies the input into a reused array before sorting it: a per-invocation setup would dominate
+ * the smallest inputs. The copy is measured alone by {@link #copy()}, to be subtracted from the sorts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SortBenchmark {
+    private static final int STRING_PREFIX_LENGTH = 16;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"random", "sorted", "reversed", "organPipe", "fewUnique"})
+    public String distribution;
+
+    @Param({"Integer", "String"})
+    public String elementType;
+
+    private Comparable<Object>[] source;
+    private Comparable<Object>[] array;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void generate() {
+        switch (elementType) {
+            case "Integer":
+                source = (Comparable<Object>[]) (Comparable<?>[]) BenchmarkData.integers(distribution, size);
+                break;
+            case "String":
+                source = (Comparable<Object>[]) (Comparable<?>[]) BenchmarkData.strings(distribution, size,
+                                                                                      STRING_PREFIX_LENGTH);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown element type " + elementType);
+        }
+        array = Arrays.copyOf(source, source.length);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object[] copy() {
+        System.arraycopy(source, 0, array, 0, source.length);
+        return array;
+    }
+
+    @Benchmark
+    public Object[] quickSort() {
+        copy();
+        if (threads == 1) {
+            SingleThreadQuickSort.quickSort(array);
+        } else {
+            ParallelQuickSort.quickSort(array, pool);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public Object[] threadPoolQuickSort() {
+        copy();
+        ParallelQuickSort.quickSort(array, threads);
+        return array;
+    }
+
+    @Benchmark
+    public Object[] arraysSort() {
+        copy();
+        if (threads == 1) {
+            Arrays.sort(array);
+        } else {
+            // uses the common pool, so run with -Djava.util.concurrent.ForkJoinPool.common.parallelism to match
+            Arrays.parallelSort(array);
+        }
+        return array;
+    }
+}
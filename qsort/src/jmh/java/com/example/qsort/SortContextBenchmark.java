@@ -0,0 +1,84 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of sorting many mid-sized arrays from several caller threads at once, with a shared
+ * {@link SortContext} and with the static sorts, which create a thread pool or allocate a buffer on each call.
+ * Change the number of callers with {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Threads(4)
+public class SortContextBenchmark {
+    @Param({"10000"})
+    public int size;
+
+    @Param({"4"})
+    public int parallelism;
+
+    private Integer[] source;
+    private SortContext context;
+    private ForkJoinPool pool;
+
+    @State(Scope.Thread)
+    public static class CallerArray {
+        private Integer[] array;
+
+        @Setup(Level.Invocation)
+        public void copy(SortContextBenchmark benchmark) {
+            array = Arrays.copyOf(benchmark.source, benchmark.source.length);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.randomIntegers(size);
+        context = new SortContext(parallelism);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        context.close();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Integer[] contextQuickSort(CallerArray caller) {
+        context.quickSort(caller.array);
+        return caller.array;
+    }
+
+    @Benchmark
+    public Integer[] contextMergeSort(CallerArray caller) {
+        context.mergeSort(caller.array);
+        return caller.array;
+    }
+
+    @Benchmark
+    public Integer[] threadPoolPerCall(CallerArray caller) {
+        ParallelQuickSort.quickSort(caller.array, parallelism);
+        return caller.array;
+    }
+
+    @Benchmark
+    public Integer[] forkJoinQuickSort(CallerArray caller) {
+        ParallelQuickSort.quickSort(caller.array, pool);
+        return caller.array;
+    }
+
+    @Benchmark
+    public Integer[] forkJoinMergeSort(CallerArray caller) {
+        ParallelMergeSort.mergeSort(caller.array, pool);
+        return caller.array;
+    }
+}
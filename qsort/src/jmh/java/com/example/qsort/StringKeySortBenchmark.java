@@ -0,0 +1,62 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts of many strings with a shared prefix followed by a random integer, as in the original workload of
+ * the quick sort, by {@link StringQuickSort} and by the general sorts. The prefix is shorter than the 100k chars
+ * of {@link StringSortBenchmark} so that 10^7 strings fit in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class StringKeySortBenchmark {
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"100"})
+    public int prefixLength;
+
+    private String[] source;
+    private String[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.prefixedStrings(size, prefixLength);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public String[] stringQuickSort() {
+        StringQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] forkJoinQuickSort() {
+        ParallelQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] radixSort() {
+        StringRadixSort.radixSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] arraysParallelSort() {
+        Arrays.parallelSort(array);
+        return array;
+    }
+}
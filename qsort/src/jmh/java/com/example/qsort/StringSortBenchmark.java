@@ -0,0 +1,80 @@
+package com.example.qsort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts of strings with a shared 100k-char prefix, where every comparison has to read the whole prefix.
+ * Note that each string is a separate copy of the prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class StringSortBenchmark {
+    @Param({"2560"})
+    public int size;
+
+    @Param({"100000"})
+    public int prefixLength;
+
+    private String[] source;
+    private String[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        source = BenchmarkData.prefixedStrings(size, prefixLength);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        array = Arrays.copyOf(source, source.length);
+    }
+
+    @Benchmark
+    public String[] singleThreadQuickSort() {
+        SingleThreadQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] forkJoinQuickSort() {
+        ParallelQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] parallelMergeSort() {
+        ParallelMergeSort.mergeSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] stringQuickSort() {
+        StringQuickSort.quickSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] radixSort() {
+        StringRadixSort.radixSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public String[] parallelRadixSort() {
+        StringRadixSort.radixSort(array, ForkJoinPool.commonPool());
+        return array;
+    }
+
+    @Benchmark
+    public String[] arraysSort() {
+        Arrays.sort(array);
+        return array;
+    }
+}
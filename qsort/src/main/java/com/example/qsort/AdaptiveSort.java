@@ -0,0 +1,244 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.example.qsort.QuickSortUtils.*;
+
+/**
+ * Class implementing a sort which takes advantage of presorted input. It first scans the array for natural runs:
+ * non-descending or strictly descending sequences of elements. If at least half of the elements are in runs
+ * of {@value #MIN_RUN} or more, descending runs are reversed, short ones are extended by insertion sort, and the
+ * runs are merged in the order of powersort (J. I. Munro, S. Wild, "Nearly-Optimal Mergesorts"), so presorted
+ * input is sorted in about O(n log(number of runs)). Otherwise it is sorted by introsort like
+ * {@link SingleThreadQuickSort}. The merging is stable, but quick sort is not, so this sort is not stable either.
+ */
+public class AdaptiveSort {
+    /** Runs shorter than this are extended by insertion sort, and do not count as presorted. */
+    static final int MIN_RUN = 32;
+
+    /** Sorts the {@code array} using the adaptive sort. */
+    public static <T extends Comparable<? super T>> void sort(@NonNull T[] array) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        adaptiveSort(array, null, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using the adaptive sort.
+     * The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void sort(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+
+        adaptiveSort(array, null, comparator);
+    }
+
+    /**
+     * Sorts the {@code array} using the adaptive sort in the given fork-join {@code pool}: the runs are merged
+     * pairwise in parallel, and unsorted input is sorted by {@link ParallelQuickSort}.
+     */
+    public static <T extends Comparable<? super T>> void sort(@NonNull T[] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+        Validate.notNull(pool, "Pool can not be null");
+
+        adaptiveSort(array, pool, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using the adaptive sort in the given fork-join
+     * {@code pool}. The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void sort(@NonNull T[] array, @NonNull ForkJoinPool pool,
+                                @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+
+        adaptiveSort(array, pool, comparator);
+    }
+
+    /** Sorts the {@code array} in the given {@code pool}, or sequentially if it is null. */
+    private static <T> void adaptiveSort(@NonNull T[] array, @Nullable ForkJoinPool pool,
+                                         @NonNull Comparator<? super T> comparator) {
+        int n = array.length;
+        if (n < 2) {
+            return;
+        }
+        if (!isPresorted(array, comparator)) {
+            if (pool == null) {
+                SingleThreadQuickSort.sort(array, 0, n, depthLimit(n), comparator);
+            } else {
+                pool.invoke(new ParallelQuickSort.SortAction<T>(array, partitionScratch(array, pool), 0, n,
+                                                                depthLimit(n), comparator));
+            }
+            return;
+        }
+        var runEnds = prepareRuns(array, comparator);
+        var scratch = Arrays.copyOf(array, n);
+        if (pool == null) {
+            mergeRuns(array, scratch, runEnds, comparator);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> mergeRunsInParallel(array, scratch, runEnds, comparator)));
+        }
+    }
+
+    /** Returns whether at least half of the elements are in natural runs of at least {@link #MIN_RUN} elements. */
+    private static <T> boolean isPresorted(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        long inRuns = 0;
+        for (int start = 0, end; start < array.length; start = end) {
+            end = naturalRunEnd(array, start, comparator);
+            if (end - start >= MIN_RUN) {
+                inRuns += end - start;
+            }
+        }
+        return 2 * inRuns >= array.length;
+    }
+
+    /** Returns the end (exclusive) of the non-descending or strictly descending run starting at {@code start}. */
+    private static <T> int naturalRunEnd(@NonNull T[] array, int start, @NonNull Comparator<? super T> comparator) {
+        int end = start + 1;
+        if (end == array.length) {
+            return end;
+        }
+        // descending runs have to be strictly descending so reversing them keeps the sort stable
+        if (comparator.compare(array[end], array[start]) < 0) {
+            while (end < array.length && comparator.compare(array[end], array[end - 1]) < 0) {
+                ++end;
+            }
+        } else {
+            while (end < array.length && comparator.compare(array[end], array[end - 1]) >= 0) {
+                ++end;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Makes the array a sequence of sorted runs by reversing the descending runs and extending the ones shorter
+     * than {@link #MIN_RUN}.
+     *
+     * @return the ends (exclusive) of the runs
+     */
+    private static <T> int @NonNull [] prepareRuns(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        var runEnds = new int[array.length / MIN_RUN + 1];
+        int runs = 0;
+        for (int start = 0, end; start < array.length; start = end) {
+            end = naturalRunEnd(array, start, comparator);
+            if (end - start > 1 && comparator.compare(array[start + 1], array[start]) < 0) {
+                reverse(array, start, end);
+            }
+            if (end - start < MIN_RUN) {
+                end = Math.min(start + MIN_RUN, array.length);
+                insertionSort(array, start, end, comparator);
+            }
+            runEnds[runs++] = end;
+        }
+        return Arrays.copyOf(runEnds, runs);
+    }
+
+    /**
+     * Merges the sorted runs of {@code array} in the order of powersort: each pair of adjacent runs gets a power,
+     * the depth of the boundary between them in a perfectly balanced merge tree, and the runs on the stack are
+     * merged while their power is greater than the power of the next boundary.
+     */
+    private static <T> void mergeRuns(@NonNull T[] array, @NonNull T[] scratch, int @NonNull [] runEnds,
+                                      @NonNull Comparator<? super T> comparator) {
+        // the powers on the stack increase, and are less than 64
+        var stackStarts = new int[64];
+        var stackPowers = new int[64];
+        int stackSize = 0;
+        int start = 0;
+        int end = runEnds[0];
+        for (int i = 1; i < runEnds.length; ++i) {
+            int power = power(array.length, start, end, runEnds[i]);
+            while (stackSize > 0 && stackPowers[stackSize - 1] > power) {
+                int previousStart = stackStarts[--stackSize];
+                merge(array, scratch, previousStart, start, end, comparator);
+                start = previousStart;
+            }
+            stackStarts[stackSize] = start;
+            stackPowers[stackSize++] = power;
+            start = end;
+            end = runEnds[i];
+        }
+        while (stackSize > 0) {
+            int previousStart = stackStarts[--stackSize];
+            merge(array, scratch, previousStart, start, end, comparator);
+            start = previousStart;
+        }
+    }
+
+    /**
+     * Returns the power of the boundary between runs [{@code start}; {@code middle}) and [{@code middle};
+     * {@code end}): the number of the first bit where the binary fractions of their midpoints relative to
+     * {@code n} differ.
+     */
+    private static int power(int n, int start, int middle, int end) {
+        long a = ((long) start + middle << 31) / (2L * n);
+        long b = ((long) middle + end << 31) / (2L * n);
+        return Long.numberOfLeadingZeros(a ^ b);
+    }
+
+    /** Merges the adjacent sorted parts [start; middle) and [middle; end) of {@code array}. */
+    private static <T> void merge(@NonNull T[] array, @NonNull T[] scratch, int start, int middle, int end,
+                                  @NonNull Comparator<? super T> comparator) {
+        // the merged elements never overtake the unread ones of the second part, so only the first is copied
+        System.arraycopy(array, start, scratch, start, middle - start);
+        ParallelMergeSort.merge(scratch, start, middle, array, middle, end, array, start, comparator);
+    }
+
+    /**
+     * Merges the sorted runs pairwise, all pairs of a level in parallel by {@link ParallelMergeSort.MergeAction},
+     * with {@code array} and {@code scratch} swapping roles on each level. Must be called in a fork-join task.
+     */
+    private static <T> void mergeRunsInParallel(@NonNull T[] array, @NonNull T[] scratch, int @NonNull [] runEnds,
+                                                @NonNull Comparator<? super T> comparator) {
+        var source = array;
+        var destination = scratch;
+        while (runEnds.length > 1) {
+            var tasks = new ArrayList<ForkJoinTask<?>>();
+            var mergedEnds = new int[(runEnds.length + 1) / 2];
+            for (int i = 0; i < runEnds.length; i += 2) {
+                int start = i == 0 ? 0 : runEnds[i - 1];
+                if (i + 1 == runEnds.length) {
+                    int end = runEnds[i];
+                    var lastSource = source;
+                    var lastDestination = destination;
+                    tasks.add(ForkJoinTask.adapt(() -> System.arraycopy(lastSource, start, lastDestination, start,
+                                                                        end - start)));
+                } else {
+                    tasks.add(new ParallelMergeSort.MergeAction<>(source, start, runEnds[i], source, runEnds[i],
+                                                                  runEnds[i + 1], destination, start, comparator));
+                }
+                mergedEnds[i / 2] = runEnds[Math.min(i + 1, runEnds.length - 1)];
+            }
+            ForkJoinTask.invokeAll(tasks);
+            runEnds = mergedEnds;
+            var tmp = source;
+            source = destination;
+            destination = tmp;
+        }
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, array.length);
+        }
+    }
+
+    private static <T> void reverse(@NonNull T[] array, int l, int r) {
+        for (--r; l < r; ++l, --r) {
+            var tmp = array[l];
+            array[l] = array[r];
+            array[r] = tmp;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.example.qsort.QuickSortUtils.INSERTION_SORT_BOUND;
+import static com.example.qsort.QuickSortUtils.depthLimit;
+
+/**
+ * Class implementing in-place sorts of fixed-width records in a {@link ByteBuffer}, which may be direct or
+ * memory-mapped, so the records do not have to be copied on-heap to be sorted. The records are those between
+ * the position and the limit of the buffer, and are ordered by a key at a fixed offset in each record.
+ * The sort is introsort like {@link SingleThreadQuickSort}, moving the records by swapping them, and is not stable.
+ */
+public class ByteBufferSort {
+    /** Parts not longer than this are sorted sequentially in fork-join mode. */
+    private static final int FORK_JOIN_SEQUENTIAL_BOUND = 1 << 13;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int recordSize;
+    private final KeyType keyType;
+    private final int keyOffset;
+    private final int keyLength;
+
+    /** Type of the keys of the records. */
+    public enum KeyType {
+        /** Signed int in the byte order of the buffer. */
+        INT,
+        /** Signed long in the byte order of the buffer. */
+        LONG,
+        /** Bytes compared lexicographically as unsigned. */
+        BYTES
+    }
+
+    /**
+     * Sorts the records of {@code recordSize} bytes in the {@code buffer} by their keys of type
+     * {@code keyType}, which take {@code keyLength} bytes starting from {@code keyOffset} in each record.
+     */
+    public static void sort(@NonNull ByteBuffer buffer, int recordSize, @NonNull KeyType keyType, int keyOffset,
+                            int keyLength) {
+        var sort = create(buffer, recordSize, keyType, keyOffset, keyLength);
+        int records = buffer.remaining() / recordSize;
+        sort.sort(0, records, depthLimit(records));
+    }
+
+    /** Like {@link #sort(ByteBuffer, int, KeyType, int, int)}, but in parallel in the given fork-join {@code pool}. */
+    public static void sort(@NonNull ByteBuffer buffer, int recordSize, @NonNull KeyType keyType, int keyOffset,
+                            int keyLength, @NonNull ForkJoinPool pool) {
+        Validate.notNull(pool, "Pool can not be null");
+        var sort = create(buffer, recordSize, keyType, keyOffset, keyLength);
+        int records = buffer.remaining() / recordSize;
+        pool.invoke(sort.new SortAction(0, records, depthLimit(records)));
+    }
+
+    private static @NonNull ByteBufferSort create(@NonNull ByteBuffer buffer, int recordSize, @NonNull KeyType keyType,
+                                                  int keyOffset, int keyLength) {
+        Validate.notNull(buffer, "Buffer can not be null");
+        Validate.notNull(keyType, "Key type can not be null");
+        Validate.isTrue(!buffer.isReadOnly(), "Buffer can not be read-only");
+        Validate.isTrue(recordSize > 0, "Record size should be positive");
+        Validate.isTrue(buffer.remaining() % recordSize == 0, "Buffer should contain whole records");
+        Validate.isTrue(keyType != KeyType.INT || keyLength == Integer.BYTES, "Int key should be 4 bytes long");
+        Validate.isTrue(keyType != KeyType.LONG || keyLength == Long.BYTES, "Long key should be 8 bytes long");
+        Validate.isTrue(keyLength > 0, "Key length should be positive");
+        Validate.isTrue(keyOffset >= 0 && keyOffset <= recordSize - keyLength, "Key should be inside the record");
+
+        return new ByteBufferSort(buffer, recordSize, keyType, keyOffset, keyLength);
+    }
+
+    private ByteBufferSort(@NonNull ByteBuffer buffer, int recordSize, @NonNull KeyType keyType, int keyOffset,
+                           int keyLength) {
+        this.buffer = buffer;
+        start = buffer.position();
+        this.recordSize = recordSize;
+        this.keyType = keyType;
+        this.keyOffset = keyOffset;
+        this.keyLength = keyLength;
+    }
+
+    /**
+     * Sorts the records from {@code l} (inclusive) to {@code r} (exclusive), recursing into the smaller part and
+     * falling back to heap sort after {@code depthLimit} partitions.
+     */
+    private void sort(int l, int r, int depthLimit) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                heapSort(l, r);
+                return;
+            }
+            long equalRange = partition(l, r);
+            int equalStart = QuickSortUtils.rangeStart(equalRange);
+            int equalEnd = QuickSortUtils.rangeEnd(equalRange);
+            if (equalStart - l < r - equalEnd) {
+                sort(l, equalStart, depthLimit);
+                l = equalEnd;
+            } else {
+                sort(equalEnd, r, depthLimit);
+                r = equalStart;
+            }
+        }
+        insertionSort(l, r);
+    }
+
+    /**
+     * Partitions the records from {@code l} (inclusive) to {@code r} (exclusive) around the median of the first,
+     * middle and last keys by Hoare's scheme, which moves records much less than a 3-way partition.
+     * Records with keys equal to the pivot may end in both parts, so long runs of them are still split evenly.
+     *
+     * @return the split, as an empty range packed like by {@link QuickSortUtils#partitionRange}; both parts
+     *         are not empty
+     */
+    private long partition(int l, int r) {
+        swap(l, median(l, (l + r - 1) >>> 1, r - 1));
+        // the pivot record is moved during partitioning, so its key is compared from a copy
+        var pivot = ByteBuffer.allocate(keyLength).order(buffer.order());
+        for (int k = 0; k < keyLength; ++k) {
+            pivot.put(k, buffer.get(keyPosition(l) + k));
+        }
+        int i = l - 1;
+        int j = r;
+        while (true) {
+            do {
+                ++i;
+            } while (compareKeys(buffer, keyPosition(i), pivot, 0) < 0);
+            do {
+                --j;
+            } while (compareKeys(buffer, keyPosition(j), pivot, 0) > 0);
+            if (i >= j) {
+                return ((long) (j + 1) << 32) | (j + 1);
+            }
+            swap(i, j);
+        }
+    }
+
+    private int median(int a, int b, int c) {
+        if (compare(a, b) < 0) {
+            if (compare(b, c) < 0) {
+                return b;
+            }
+            return compare(a, c) < 0 ? c : a;
+        }
+        if (compare(a, c) < 0) {
+            return a;
+        }
+        return compare(b, c) < 0 ? c : b;
+    }
+
+    private void insertionSort(int l, int r) {
+        for (int i = l + 1; i < r; ++i) {
+            for (int j = i; j > l && compare(j - 1, j) > 0; --j) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private void heapSort(int l, int r) {
+        for (int i = (r - l) / 2 - 1; i >= 0; --i) {
+            siftDown(l, i, r - l);
+        }
+        for (int size = r - l - 1; size > 0; --size) {
+            swap(l, l + size);
+            siftDown(l, 0, size);
+        }
+    }
+
+    private void siftDown(int l, int i, int size) {
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && compare(l + child, l + child + 1) < 0) {
+                ++child;
+            }
+            if (compare(l + i, l + child) >= 0) {
+                return;
+            }
+            swap(l + i, l + child);
+            i = child;
+        }
+    }
+
+    private int keyPosition(int record) {
+        return start + record * recordSize + keyOffset;
+    }
+
+    private int compare(int i, int j) {
+        return compareKeys(buffer, keyPosition(i), buffer, keyPosition(j));
+    }
+
+    /** Compares the keys starting on position {@code aKey} of {@code a} and {@code bKey} of {@code b}. */
+    private int compareKeys(@NonNull ByteBuffer a, int aKey, @NonNull ByteBuffer b, int bKey) {
+        switch (keyType) {
+            case INT:
+                return Integer.compare(a.getInt(aKey), b.getInt(bKey));
+            case LONG:
+                return Long.compare(a.getLong(aKey), b.getLong(bKey));
+            default:
+                int k = 0;
+                // compare 8 bytes at a time, as big-endian so the unsigned order of the longs is lexicographic
+                for (; k + Long.BYTES <= keyLength; k += Long.BYTES) {
+                    long x = a.getLong(aKey + k);
+                    long y = b.getLong(bKey + k);
+                    if (x != y) {
+                        if (a.order() == ByteOrder.LITTLE_ENDIAN) {
+                            x = Long.reverseBytes(x);
+                            y = Long.reverseBytes(y);
+                        }
+                        return Long.compareUnsigned(x, y);
+                    }
+                }
+                for (; k < keyLength; ++k) {
+                    int cmp = Byte.toUnsignedInt(a.get(aKey + k)) - Byte.toUnsignedInt(b.get(bKey + k));
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+                return 0;
+        }
+    }
+
+    /** Swaps records i and j using only absolute accesses, so different tasks can swap different records. */
+    private void swap(int i, int j) {
+        int a = start + i * recordSize;
+        int b = start + j * recordSize;
+        int k = 0;
+        for (; k + Long.BYTES <= recordSize; k += Long.BYTES) {
+            long value = buffer.getLong(a + k);
+            buffer.putLong(a + k, buffer.getLong(b + k));
+            buffer.putLong(b + k, value);
+        }
+        for (; k < recordSize; ++k) {
+            byte value = buffer.get(a + k);
+            buffer.put(a + k, buffer.get(b + k));
+            buffer.put(b + k, value);
+        }
+    }
+
+    /** Parallel version of {@link #sort(int, int, int)}, forking a task for the second part. */
+    private class SortAction extends RecursiveAction {
+        private final int l;
+        private final int r;
+        private final int depthLimit;
+
+        private SortAction(int l, int r, int depthLimit) {
+            this.l = l;
+            this.r = r;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= FORK_JOIN_SEQUENTIAL_BOUND) {
+                sort(l, r, depthLimit);
+                return;
+            }
+            if (depthLimit == 0) {
+                heapSort(l, r);
+                return;
+            }
+            long equalRange = partition(l, r);
+            var secondPart = new SortAction(QuickSortUtils.rangeEnd(equalRange), r, depthLimit - 1);
+            secondPart.fork();
+            new SortAction(l, QuickSortUtils.rangeStart(equalRange), depthLimit - 1).compute();
+            secondPart.join();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Sort of files of fixed-width binary records which do not fit in memory. Records are ordered by a signed
+ * big-endian long key at a fixed offset in the record, and the sort is stable.
+ *
+ * <p>The input is read in chunks, each chunk is sorted in parallel by its keys like in
+ * {@link ParallelQuickSort#quickSortByLongKey} and written to a temporary run file. Then the runs are merged with
+ * a loser tree, in several passes if there are more than {@value #MAX_MERGE_WAYS} of them.
+ */
+public class ExternalSort {
+    /** Default size of a chunk in bytes. */
+    public static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    /** Maximal number of runs merged at once, so the read buffers do not get too small. */
+    static final int MAX_MERGE_WAYS = 256;
+
+    private final int recordSize;
+    private final int keyOffset;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final Path tempDirectory;
+    private final Report report = new Report();
+    /** All the run files created so far, deleted at the end even if a pass fails in the middle */
+    private final List<Path> runFiles = new ArrayList<>();
+
+    /**
+     * Sorts the records of {@code input} into {@code output} using chunks of {@link #DEFAULT_CHUNK_SIZE} bytes,
+     * the common fork-join pool and the directory of {@code output} for the runs.
+     *
+     * @param recordSize the size of a record in bytes, the size of {@code input} must be a multiple of it
+     * @param keyOffset  the offset of the 8-byte key in a record
+     */
+    public static @NonNull Report sort(@NonNull Path input, @NonNull Path output, int recordSize, int keyOffset)
+            throws IOException {
+        Validate.notNull(output, "Output can not be null");
+        var tempDirectory = output.toAbsolutePath().getParent();
+        return sort(input, output, recordSize, keyOffset, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool(),
+                    tempDirectory);
+    }
+
+    /**
+     * Sorts the records of {@code input} into {@code output}, reading chunks of at most {@code chunkSize} bytes
+     * (the memory used is about twice that), sorting them in the given fork-join {@code pool} and keeping
+     * the runs in {@code tempDirectory}.
+     *
+     * @param recordSize the size of a record in bytes, the size of {@code input} must be a multiple of it
+     * @param keyOffset  the offset of the 8-byte key in a record
+     */
+    public static @NonNull Report sort(@NonNull Path input,
+                                       @NonNull Path output,
+                                       int recordSize,
+                                       int keyOffset,
+                                       int chunkSize,
+                                       @NonNull ForkJoinPool pool,
+                                       @NonNull Path tempDirectory) throws IOException {
+        Validate.notNull(input, "Input can not be null");
+        Validate.notNull(output, "Output can not be null");
+        Validate.isTrue(recordSize > 0, "Record size should be positive");
+        Validate.isTrue(keyOffset >= 0 && keyOffset <= recordSize - Long.BYTES, "Key should be inside the record");
+        Validate.isTrue(chunkSize >= recordSize, "Chunk should hold at least one record");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(tempDirectory, "Temporary directory can not be null");
+        Validate.isTrue(Files.size(input) % recordSize == 0, "Input size should be a multiple of record size");
+
+        return new ExternalSort(recordSize, keyOffset, chunkSize, pool, tempDirectory).sort(input, output);
+    }
+
+    private ExternalSort(int recordSize, int keyOffset, int chunkSize, @NonNull ForkJoinPool pool,
+                         @NonNull Path tempDirectory) {
+        this.recordSize = recordSize;
+        this.keyOffset = keyOffset;
+        this.chunkSize = chunkSize / recordSize * recordSize;
+        this.pool = pool;
+        this.tempDirectory = tempDirectory;
+    }
+
+    private @NonNull Report sort(@NonNull Path input, @NonNull Path output) throws IOException {
+        var runs = new ArrayList<Path>();
+        try {
+            writeRuns(input, runs);
+            report.runs = runs.size();
+            if (runs.isEmpty()) {
+                Files.write(output, new byte[0]);
+                return report;
+            }
+            while (runs.size() > MAX_MERGE_WAYS) {
+                var mergedRuns = new ArrayList<Path>();
+                for (int i = 0; i < runs.size(); i += MAX_MERGE_WAYS) {
+                    var group = runs.subList(i, Math.min(i + MAX_MERGE_WAYS, runs.size()));
+                    var mergedRun = createRun();
+                    mergedRuns.add(mergedRun);
+                    merge(group, mergedRun);
+                    deleteAll(group);
+                }
+                runs = mergedRuns;
+                ++report.mergePasses;
+            }
+            if (runs.size() == 1) {
+                Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                merge(runs, output);
+                ++report.mergePasses;
+            }
+            return report;
+        } finally {
+            deleteAll(runFiles);
+        }
+    }
+
+    /** Splits {@code input} into chunks, sorts them and writes to new run files added to {@code runs}. */
+    private void writeRuns(@NonNull Path input, @NonNull List<Path> runs) throws IOException {
+        var chunk = ByteBuffer.allocate(chunkSize);
+        var sortedChunk = ByteBuffer.allocate(chunkSize);
+        try (var channel = FileChannel.open(input, READ)) {
+            while (true) {
+                chunk.clear();
+                readFully(channel, chunk);
+                if (chunk.position() == 0) {
+                    return;
+                }
+                int records = chunk.position() / recordSize;
+                var keys = new long[records];
+                for (int i = 0; i < records; ++i) {
+                    keys[i] = chunk.getLong(i * recordSize + keyOffset);
+                }
+                var positions = KeySortUtils.positions(records);
+                // the depth limit of the key sort keeps a crafted input from making a chunk quadratic
+                pool.invoke(new KeySortUtils.SortAction(keys, positions, 0, records));
+                for (int i = 0; i < records; ++i) {
+                    System.arraycopy(chunk.array(), positions[i] * recordSize, sortedChunk.array(), i * recordSize,
+                                     recordSize);
+                }
+
+                var run = createRun();
+                runs.add(run);
+                sortedChunk.clear().limit(chunk.position());
+                try (var runChannel = FileChannel.open(run, WRITE)) {
+                    writeFully(runChannel, sortedChunk);
+                }
+            }
+        }
+    }
+
+    /** Merges the sorted {@code runs} into {@code output}, splitting the chunk memory between their buffers. */
+    private void merge(@NonNull List<Path> runs, @NonNull Path output) throws IOException {
+        int bufferSize = Math.max(recordSize, chunkSize / (runs.size() + 1) / recordSize * recordSize);
+        var readers = new ArrayList<RunReader>(runs.size());
+        try (var outputChannel = FileChannel.open(output, WRITE, CREATE, TRUNCATE_EXISTING)) {
+            var keys = new long[runs.size()];
+            var exhausted = new boolean[runs.size()];
+            for (int i = 0; i < runs.size(); ++i) {
+                var reader = new RunReader(FileChannel.open(runs.get(i), READ), bufferSize);
+                readers.add(reader);
+                exhausted[i] = !reader.hasRecord();
+                if (!exhausted[i]) {
+                    keys[i] = reader.key();
+                }
+            }
+
+            var tree = new LoserTree(keys, exhausted);
+            var outputBuffer = ByteBuffer.allocate(bufferSize);
+            for (int winner = tree.winner(); winner != -1; winner = tree.winner()) {
+                if (!outputBuffer.hasRemaining()) {
+                    outputBuffer.flip();
+                    writeFully(outputChannel, outputBuffer);
+                    outputBuffer.clear();
+                }
+                var reader = readers.get(winner);
+                reader.copyRecord(outputBuffer);
+                if (reader.next()) {
+                    tree.replaceWinner(reader.key());
+                } else {
+                    tree.exhaustWinner();
+                }
+            }
+            outputBuffer.flip();
+            writeFully(outputChannel, outputBuffer);
+        } finally {
+            for (var reader : readers) {
+                reader.channel.close();
+            }
+        }
+    }
+
+    private @NonNull Path createRun() throws IOException {
+        var run = Files.createTempFile(tempDirectory, "run", ".bin");
+        runFiles.add(run);
+        return run;
+    }
+
+    private static void deleteAll(@NonNull List<Path> files) throws IOException {
+        for (var file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Reads from {@code channel} until {@code buffer} is full or the channel ends. */
+    private void readFully(@NonNull FileChannel channel, @NonNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // read until the buffer is full
+        }
+        report.bytesRead += buffer.position();
+    }
+
+    private void writeFully(@NonNull FileChannel channel, @NonNull ByteBuffer buffer) throws IOException {
+        report.bytesWritten += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /** Buffered sequential reader of the records of a run. */
+    private class RunReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        private RunReader(@NonNull FileChannel channel, int bufferSize) throws IOException {
+            this.channel = channel;
+            buffer = ByteBuffer.allocate(bufferSize);
+            fill();
+        }
+
+        private boolean hasRecord() {
+            return buffer.hasRemaining();
+        }
+
+        private long key() {
+            return buffer.getLong(buffer.position() + keyOffset);
+        }
+
+        /** Copies the current record to {@code output}, which must have space for it. */
+        private void copyRecord(@NonNull ByteBuffer output) {
+            output.put(buffer.array(), buffer.position(), recordSize);
+        }
+
+        /** Moves to the next record and returns whether there is one. */
+        private boolean next() throws IOException {
+            buffer.position(buffer.position() + recordSize);
+            if (!buffer.hasRemaining()) {
+                fill();
+            }
+            return hasRecord();
+        }
+
+        private void fill() throws IOException {
+            buffer.clear();
+            readFully(channel, buffer);
+            buffer.flip();
+        }
+    }
+
+    /** Statistics of a finished sort. */
+    public static class Report {
+        private int runs;
+        private int mergePasses;
+        private long bytesRead;
+        private long bytesWritten;
+
+        private Report() {
+        }
+
+        /** Returns the number of sorted chunks written before merging. */
+        public int getRuns() {
+            return runs;
+        }
+
+        /** Returns the number of times the data was merged, 0 if it fit in one chunk. */
+        public int getMergePasses() {
+            return mergePasses;
+        }
+
+        /** Returns the number of bytes read from the input and the runs. */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /** Returns the number of bytes written to the runs and the output. */
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.qsort;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static com.example.qsort.QuickSortUtils.depthLimit;
+
+/**
+ * Useful methods for sorting objects by primitive keys: the keys are computed once into a primitive array,
+ * sorted together with the original positions of the elements, and then the elements are reordered
+ * by the sorted positions. Ties are broken by the positions, so these sorts are stable.
+ */
+class KeySortUtils {
+    private static final int INSERTION_SORT_BOUND = 32;
+    /** Parts not longer than this are sorted sequentially in fork-join mode. */
+    private static final int FORK_JOIN_SEQUENTIAL_BOUND = 1 << 13;
+
+    /**
+     * Computes the int keys of the elements and packs each with the position of the element into a long,
+     * the key in the higher half, so sorting the longs sorts by key and then by position.
+     */
+    static <T> long @NonNull [] intKeysWithPositions(@NonNull T[] array,
+                                                     @NonNull ToIntFunction<? super T> keyExtractor) {
+        var keysWithPositions = new long[array.length];
+        for (int i = 0; i < array.length; ++i) {
+            keysWithPositions[i] = ((long) keyExtractor.applyAsInt(array[i]) << 32) | i;
+        }
+        return keysWithPositions;
+    }
+
+    /** Reorders {@code array} so the element on position i is the one that was on the position in the lower half. */
+    static <T> void reorder(@NonNull T[] array, long @NonNull [] keysWithPositions) {
+        var copy = Arrays.copyOf(array, array.length);
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = copy[(int) keysWithPositions[i]];
+        }
+    }
+
+    /** Computes the long keys of the elements. */
+    static <T> long @NonNull [] longKeys(@NonNull T[] array, @NonNull ToLongFunction<? super T> keyExtractor) {
+        var keys = new long[array.length];
+        for (int i = 0; i < array.length; ++i) {
+            keys[i] = keyExtractor.applyAsLong(array[i]);
+        }
+        return keys;
+    }
+
+    /** Returns the array of positions 0, 1, ..., {@code length} - 1. */
+    static int @NonNull [] positions(int length) {
+        var positions = new int[length];
+        Arrays.setAll(positions, i -> i);
+        return positions;
+    }
+
+    /** Reorders {@code array} so the element on position i is the one that was on position {@code positions[i]}. */
+    static <T> void reorder(@NonNull T[] array, int @NonNull [] positions) {
+        var copy = Arrays.copyOf(array, array.length);
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = copy[positions[i]];
+        }
+    }
+
+    /**
+     * Sorts the pairs ({@code keys[i]}, {@code positions[i]}) for i from {@code l} (inclusive) to {@code r}
+     * (exclusive) by key and then by position. The positions are distinct, so all pairs are.
+     */
+    static void sort(long @NonNull [] keys, int @NonNull [] positions, int l, int r) {
+        sort(keys, positions, l, r, depthLimit(r - l));
+    }
+
+    /**
+     * Like {@link #sort(long[], int[], int, int)}, but after {@code depthLimit} partitions on the way to a part
+     * it is sorted by heap sort instead, so adversarial keys can not make the sort quadratic.
+     */
+    static void sort(long @NonNull [] keys, int @NonNull [] positions, int l, int r, int depthLimit) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                heapSort(keys, positions, l, r);
+                return;
+            }
+            int m = partition(keys, positions, l, r);
+            // recurse into the smaller part and loop on the larger one to keep the stack short
+            if (m - l < r - m) {
+                sort(keys, positions, l, m, depthLimit);
+                l = m;
+            } else {
+                sort(keys, positions, m, r, depthLimit);
+                r = m;
+            }
+        }
+        insertionSort(keys, positions, l, r);
+    }
+
+    /**
+     * Reorders the pairs from {@code l} (inclusive) to {@code r} (exclusive, and at least 3 elements long)
+     * around the median of the first, middle and last pair with Hoare partitioning.
+     *
+     * @return the position m such that pairs in [l; m) are not greater than pairs in [m; r), l &lt; m &lt; r
+     */
+    static int partition(long @NonNull [] keys, int @NonNull [] positions, int l, int r) {
+        int last = r - 1;
+        int middle = (l + last) >>> 1;
+        // put the median of three into the middle, Hoare partitioning is guaranteed to split
+        // into non-empty parts with the pivot there
+        if (less(keys, positions, middle, l)) {
+            swap(keys, positions, middle, l);
+        }
+        if (less(keys, positions, last, middle)) {
+            swap(keys, positions, last, middle);
+            if (less(keys, positions, middle, l)) {
+                swap(keys, positions, middle, l);
+            }
+        }
+        long pivotKey = keys[middle];
+        int pivotPosition = positions[middle];
+        int i = l - 1;
+        int j = r;
+        while (true) {
+            do {
+                ++i;
+            } while (keys[i] < pivotKey || keys[i] == pivotKey && positions[i] < pivotPosition);
+            do {
+                --j;
+            } while (keys[j] > pivotKey || keys[j] == pivotKey && positions[j] > pivotPosition);
+            if (i >= j) {
+                return j + 1;
+            }
+            swap(keys, positions, i, j);
+        }
+    }
+
+    private static void insertionSort(long @NonNull [] keys, int @NonNull [] positions, int l, int r) {
+        for (int i = l + 1; i < r; ++i) {
+            for (int j = i; j > l && less(keys, positions, j, j - 1); --j) {
+                swap(keys, positions, j - 1, j);
+            }
+        }
+    }
+
+    /** Sorts the pairs from {@code l} (inclusive) to {@code r} (exclusive) using heap sort. */
+    static void heapSort(long @NonNull [] keys, int @NonNull [] positions, int l, int r) {
+        for (int i = (r - l) / 2 - 1; i >= 0; --i) {
+            siftDown(keys, positions, l, i, r - l);
+        }
+        for (int size = r - l - 1; size > 0; --size) {
+            swap(keys, positions, l, l + size);
+            siftDown(keys, positions, l, 0, size);
+        }
+    }
+
+    /** Restores the max-heap property for the heap of {@code size} pairs starting at {@code l}. */
+    private static void siftDown(long @NonNull [] keys, int @NonNull [] positions, int l, int i, int size) {
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && less(keys, positions, l + child, l + child + 1)) {
+                ++child;
+            }
+            if (!less(keys, positions, l + i, l + child)) {
+                return;
+            }
+            swap(keys, positions, l + i, l + child);
+            i = child;
+        }
+    }
+
+    private static boolean less(long @NonNull [] keys, int @NonNull [] positions, int i, int j) {
+        return keys[i] < keys[j] || keys[i] == keys[j] && positions[i] < positions[j];
+    }
+
+    private static void swap(long @NonNull [] keys, int @NonNull [] positions, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int position = positions[i];
+        positions[i] = positions[j];
+        positions[j] = position;
+    }
+
+    /**
+     * Parallel version of {@link #sort(long[], int[], int, int)}: the smaller part of each partition is forked
+     * and the larger one is partitioned further by the same task, with the same depth limit.
+     */
+    static class SortAction extends RecursiveAction {
+        private final long[] keys;
+        private final int[] positions;
+        private final int l;
+        private final int r;
+        private final int depthLimit;
+
+        SortAction(long @NonNull [] keys, int @NonNull [] positions, int l, int r) {
+            this(keys, positions, l, r, depthLimit(r - l));
+        }
+
+        private SortAction(long @NonNull [] keys, int @NonNull [] positions, int l, int r, int depthLimit) {
+            this.keys = keys;
+            this.positions = positions;
+            this.l = l;
+            this.r = r;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            var forked = new ArrayDeque<SortAction>();
+            int l = this.l;
+            int r = this.r;
+            int depthLimit = this.depthLimit;
+            while (r - l > FORK_JOIN_SEQUENTIAL_BOUND && depthLimit > 0) {
+                --depthLimit;
+                int m = partition(keys, positions, l, r);
+                SortAction smallerPart;
+                if (m - l < r - m) {
+                    smallerPart = new SortAction(keys, positions, l, m, depthLimit);
+                    l = m;
+                } else {
+                    smallerPart = new SortAction(keys, positions, m, r, depthLimit);
+                    r = m;
+                }
+                smallerPart.fork();
+                forked.push(smallerPart);
+            }
+            sort(keys, positions, l, r, depthLimit);
+            // the last forked part first, it is the most likely one to be still in the queue of this worker
+            while (!forked.isEmpty()) {
+                forked.pop().join();
+            }
+        }
+    }
+}
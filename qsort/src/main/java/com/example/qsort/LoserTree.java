@@ -0,0 +1,73 @@
+package com.example.qsort;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Tournament tree of losers for k-way merging by long keys. Each source has a current key or is exhausted,
+ * and the winner is the source with the least key, ties broken by the lower source index so merging runs
+ * in their order is stable. Replacing the winner's key takes log2(k) comparisons.
+ */
+class LoserTree {
+    private final long[] keys;
+    private final boolean[] exhausted;
+    /** tree[0] is the winner, tree[i] for i >= 1 the loser of the match in node i */
+    private final int[] tree;
+
+    /** Builds the tree on the given current keys, {@code exhausted[i]} meaning source i has none. */
+    LoserTree(long @NonNull [] keys, boolean @NonNull [] exhausted) {
+        int k = keys.length;
+        this.keys = keys.clone();
+        this.exhausted = exhausted.clone();
+        tree = new int[k];
+        // winners[i] is the winner in node i, the leaves are nodes k to 2k - 1
+        var winners = new int[2 * k];
+        for (int i = 0; i < k; ++i) {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node >= 1; --node) {
+            int left = winners[2 * node];
+            int right = winners[2 * node + 1];
+            boolean leftWins = less(left, right);
+            winners[node] = leftWins ? left : right;
+            tree[node] = leftWins ? right : left;
+        }
+        tree[0] = winners[1];
+    }
+
+    /** Returns the source with the least key, or -1 if all sources are exhausted. */
+    int winner() {
+        return exhausted[tree[0]] ? -1 : tree[0];
+    }
+
+    /** Sets the next key of the winner. */
+    void replaceWinner(long key) {
+        keys[tree[0]] = key;
+        replay(tree[0]);
+    }
+
+    /** Marks the winner as exhausted. */
+    void exhaustWinner() {
+        exhausted[tree[0]] = true;
+        replay(tree[0]);
+    }
+
+    /** Replays the matches on the path from the leaf of {@code source} to the root. */
+    private void replay(int source) {
+        int winner = source;
+        for (int node = (source + keys.length) / 2; node >= 1; node /= 2) {
+            if (less(tree[node], winner)) {
+                int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    private boolean less(int i, int j) {
+        if (exhausted[i] || exhausted[j]) {
+            return !exhausted[i] || exhausted[j] && i < j;
+        }
+        return keys[i] < keys[j] || keys[i] == keys[j] && i < j;
+    }
+}
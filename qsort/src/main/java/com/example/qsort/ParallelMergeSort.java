@@ -0,0 +1,211 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class implementing parallel stable merge sort using fork-join pool.
+ * The array and one buffer of the same size swap roles on each level of recursion ("ping-pong"),
+ * so merging never has to copy the merged parts back.
+ */
+public class ParallelMergeSort {
+    private static final int INSERTION_SORT_BOUND = 16;
+    /** Parts not longer than this are sorted and merged sequentially. */
+    private static final int SEQUENTIAL_BOUND = 1 << 13;
+
+    /** Sorts the {@code array} using parallel stable merge sort in the common fork-join pool. */
+    public static <T extends Comparable<? super T>> void mergeSort(@NonNull T[] array) {
+        mergeSort(array, ForkJoinPool.commonPool());
+    }
+
+    /** Sorts the {@code array} using parallel stable merge sort in the given fork-join {@code pool}. */
+    public static <T extends Comparable<? super T>> void mergeSort(@NonNull T[] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+        Validate.notNull(pool, "Pool can not be null");
+
+        var buffer = Arrays.copyOf(array, array.length);
+        pool.invoke(new SortAction<>(buffer, array, 0, array.length, Comparator.<T>naturalOrder()));
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using parallel stable merge sort in the common
+     * fork-join pool. The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void mergeSort(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        mergeSort(array, ForkJoinPool.commonPool(), comparator);
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using parallel stable merge sort in the given
+     * fork-join {@code pool}. The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void mergeSort(@NonNull T[] array,
+                                     @NonNull ForkJoinPool pool,
+                                     @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+
+        var buffer = Arrays.copyOf(array, array.length);
+        pool.invoke(new SortAction<T>(buffer, array, 0, array.length, comparator));
+    }
+
+    /**
+     * Sorts the part of {@code source} from {@code l} (inclusive) to {@code r} (exclusive) into the same part
+     * of {@code destination}. Both parts should contain the same elements before the call, {@code source}
+     * is used as a scratch space.
+     */
+    static <T> void sort(@NonNull T[] source, @NonNull T[] destination, int l, int r,
+                         @NonNull Comparator<? super T> comparator) {
+        if (r - l <= INSERTION_SORT_BOUND) {
+            insertionSort(destination, l, r, comparator);
+            return;
+        }
+        int m = (l + r) >>> 1;
+        // the halves are sorted into source, then merged into destination
+        sort(destination, source, l, m, comparator);
+        sort(destination, source, m, r, comparator);
+        merge(source, l, m, source, m, r, destination, l, comparator);
+    }
+
+    /**
+     * Merges sorted ranges [{@code l1}; {@code r1}) of {@code first} and [{@code l2}; {@code r2}) of {@code second}
+     * into {@code destination} starting at {@code d}. Equal elements are taken from {@code first} before
+     * {@code second}, so the merge is stable if {@code first} holds the elements that came first.
+     */
+    static <T> void merge(@NonNull T[] first, int l1, int r1, @NonNull T[] second, int l2, int r2,
+                          @NonNull T[] destination, int d, @NonNull Comparator<? super T> comparator) {
+        while (l1 < r1 && l2 < r2) {
+            destination[d++] = comparator.compare(second[l2], first[l1]) < 0 ? second[l2++] : first[l1++];
+        }
+        System.arraycopy(first, l1, destination, d, r1 - l1);
+        System.arraycopy(second, l2, destination, d + r1 - l1, r2 - l2);
+    }
+
+    /** Stable insertion sort of the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive). */
+    private static <T> void insertionSort(@NonNull T[] array, int l, int r, @NonNull Comparator<? super T> comparator) {
+        for (int i = l + 1; i < r; ++i) {
+            var value = array[i];
+            int j = i;
+            for (; j > l && comparator.compare(array[j - 1], value) > 0; --j) {
+                array[j] = array[j - 1];
+            }
+            array[j] = value;
+        }
+    }
+
+    /** Returns the first position in [{@code l}; {@code r}) of sorted {@code array} with element not less than key. */
+    private static <T> int lowerBound(@NonNull T[] array, int l, int r, T key,
+                                      @NonNull Comparator<? super T> comparator) {
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (comparator.compare(array[m], key) < 0) {
+                l = m + 1;
+            } else {
+                r = m;
+            }
+        }
+        return l;
+    }
+
+    /** Returns the first position in [{@code l}; {@code r}) of sorted {@code array} with element greater than key. */
+    private static <T> int upperBound(@NonNull T[] array, int l, int r, T key,
+                                      @NonNull Comparator<? super T> comparator) {
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (comparator.compare(array[m], key) <= 0) {
+                l = m + 1;
+            } else {
+                r = m;
+            }
+        }
+        return l;
+    }
+
+    /** Parallel version of {@link #sort}: the halves are sorted in separate tasks and then merged in parallel. */
+    static class SortAction<T> extends RecursiveAction {
+        private final T[] source;
+        private final T[] destination;
+        private final int l;
+        private final int r;
+        private final Comparator<? super T> comparator;
+
+        SortAction(@NonNull T[] source, @NonNull T[] destination, int l, int r,
+                   @NonNull Comparator<? super T> comparator) {
+            this.source = source;
+            this.destination = destination;
+            this.l = l;
+            this.r = r;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= SEQUENTIAL_BOUND) {
+                sort(source, destination, l, r, comparator);
+                return;
+            }
+            int m = (l + r) >>> 1;
+            invokeAll(new SortAction<>(destination, source, l, m, comparator),
+                      new SortAction<>(destination, source, m, r, comparator));
+            new MergeAction<>(source, l, m, source, m, r, destination, l, comparator).compute();
+        }
+    }
+
+    /**
+     * Parallel version of {@link #merge}: the larger range is split at its middle element, the other one
+     * at the position of that element, and the two pairs of halves are merged in separate tasks.
+     */
+    static class MergeAction<T> extends RecursiveAction {
+        private final T[] first;
+        private final int l1;
+        private final int r1;
+        private final T[] second;
+        private final int l2;
+        private final int r2;
+        private final T[] destination;
+        private final int d;
+        private final Comparator<? super T> comparator;
+
+        MergeAction(@NonNull T[] first, int l1, int r1, @NonNull T[] second, int l2, int r2,
+                    @NonNull T[] destination, int d, @NonNull Comparator<? super T> comparator) {
+            this.first = first;
+            this.l1 = l1;
+            this.r1 = r1;
+            this.second = second;
+            this.l2 = l2;
+            this.r2 = r2;
+            this.destination = destination;
+            this.d = d;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (r1 - l1 + r2 - l2 <= SEQUENTIAL_BOUND) {
+                merge(first, l1, r1, second, l2, r2, destination, d, comparator);
+                return;
+            }
+            int m1;
+            int m2;
+            // to keep the merge stable, elements of the first range equal to the split element
+            // should end up in the same or an earlier half than the equal elements of the second range
+            if (r1 - l1 >= r2 - l2) {
+                m1 = (l1 + r1) >>> 1;
+                m2 = lowerBound(second, l2, r2, first[m1], comparator);
+            } else {
+                m2 = (l2 + r2) >>> 1;
+                m1 = upperBound(first, l1, r1, second[m2], comparator);
+            }
+            invokeAll(new MergeAction<>(first, l1, m1, second, l2, m2, destination, d, comparator),
+                      new MergeAction<>(first, m1, r1, second, m2, r2, destination, d + m1 - l1 + m2 - l2,
+                                        comparator));
+        }
+    }
+}
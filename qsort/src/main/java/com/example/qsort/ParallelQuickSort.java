@@ -2,19 +2,26 @@ package com.example.qsort;
 
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Comparator;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
-import static com.example.qsort.QuickSortUtils.insertionSort;
-import static com.example.qsort.QuickSortUtils.partition;
+import static com.example.qsort.QuickSortUtils.*;
 
-/** Class implementing parallel quick sort using thread pool. */
-public class ParallelQuickSort<E extends Comparable<? super E>> {
-    private static final int INSERTION_SORT_BOUND = 5;
+/** Class implementing parallel quick sort using thread pool or fork-join pool. */
+public class ParallelQuickSort<E> {
+    /** Parts not longer than this are sorted by single-thread quick sort in fork-join mode. */
+    static final int FORK_JOIN_SEQUENTIAL_BOUND = 1 << 13;
     private final ExecutorService executorService;
+    private final Comparator<? super E> comparator;
     private CountDownLatch latch;
 
     /**
@@ -26,11 +33,185 @@ public class ParallelQuickSort<E extends Comparable<? super E>> {
         Validate.noNullElements(array, "Array can not contain null elements");
         Validate.isTrue(nThreads > 0, "Threads count should be positive");
 
-        new ParallelQuickSort<T>(nThreads).sort(array);
+        new ParallelQuickSort<T>(nThreads, Comparator.naturalOrder()).sort(array);
     }
 
-    private ParallelQuickSort(int nThreads) {
+    /**
+     * Run a parallel quick sort on the {@code array} in the order of the {@code comparator},
+     * using {@code nThreads} threads. The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void quickSort(@NonNull T[] array, int nThreads, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.isTrue(nThreads > 0, "Threads count should be positive");
+        Validate.notNull(comparator, "Comparator can not be null");
+
+        new ParallelQuickSort<T>(nThreads, comparator).sort(array);
+    }
+
+    /** Run a parallel quick sort on the {@code array} in the common fork-join pool. */
+    public static <T extends Comparable<? super T>> void quickSort(@NonNull T[] array) {
+        quickSort(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run a parallel quick sort on the {@code array} in the given fork-join {@code pool}.
+     * Unlike {@link #quickSort(Comparable[], int)} this does not create any threads, and parts smaller than
+     * a few thousand elements are sorted sequentially instead of being split into tasks.
+     */
+    public static <T extends Comparable<? super T>> void quickSort(@NonNull T[] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+        Validate.notNull(pool, "Pool can not be null");
+
+        pool.invoke(new SortAction<>(array, partitionScratch(array, pool), 0, array.length, depthLimit(array.length),
+                                     Comparator.<T>naturalOrder()));
+    }
+
+    /**
+     * Run a parallel quick sort on the {@code array} in the order of the {@code comparator} in the common
+     * fork-join pool. The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void quickSort(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        quickSort(array, ForkJoinPool.commonPool(), comparator);
+    }
+
+    /**
+     * Run a parallel quick sort on the {@code array} in the order of the {@code comparator} in the given
+     * fork-join {@code pool}. The array may contain nulls if the comparator supports them.
+     */
+    public static <T> void quickSort(@NonNull T[] array,
+                                     @NonNull ForkJoinPool pool,
+                                     @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+
+        pool.invoke(new SortAction<T>(array, partitionScratch(array, pool), 0, array.length, depthLimit(array.length),
+                                      comparator));
+    }
+
+    /**
+     * Run a parallel quick sort on the {@code array} in the order of the {@code comparator} in the given
+     * fork-join {@code pool}, reporting the comparisons, swaps, partitions, forked tasks and phases to the
+     * {@code listener}, e.g. {@link SortStatistics}.
+     */
+    public static <T> void quickSort(@NonNull T[] array,
+                                     @NonNull ForkJoinPool pool,
+                                     @NonNull Comparator<? super T> comparator,
+                                     @NonNull SortListener listener) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.notNull(listener, "Listener can not be null");
+
+        listener.sortStarted(array.length);
+        pool.invoke(new SortAction<T>(array, partitionScratch(array, pool), 0, array.length, depthLimit(array.length),
+                                      listening(comparator, listener), FORK_JOIN_SEQUENTIAL_BOUND, listener));
+        listener.sortFinished();
+    }
+
+    /**
+     * Run a parallel sort of the {@code array} by the keys computed by {@code keyExtractor} in the common
+     * fork-join pool. The keys are computed once per element and sorted as primitives together with
+     * the original positions, so the sort is stable.
+     */
+    public static <T> void quickSortByIntKey(@NonNull T[] array, @NonNull ToIntFunction<? super T> keyExtractor) {
+        quickSortByIntKey(array, ForkJoinPool.commonPool(), keyExtractor);
+    }
+
+    /**
+     * Run a parallel sort of the {@code array} by the keys computed by {@code keyExtractor} in the given
+     * fork-join {@code pool}. The keys are computed once per element and sorted as primitives together with
+     * the original positions, so the sort is stable.
+     */
+    public static <T> void quickSortByIntKey(@NonNull T[] array,
+                                             @NonNull ForkJoinPool pool,
+                                             @NonNull ToIntFunction<? super T> keyExtractor) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(keyExtractor, "Key extractor can not be null");
+
+        var keysWithPositions = KeySortUtils.intKeysWithPositions(array, keyExtractor);
+        pool.invoke(new PrimitiveQuickSortUtils.LongSortAction(keysWithPositions, 0, keysWithPositions.length));
+        KeySortUtils.reorder(array, keysWithPositions);
+    }
+
+    /**
+     * Run a parallel sort of the {@code array} by the keys computed by {@code keyExtractor} in the common
+     * fork-join pool. The keys are computed once per element and sorted as primitives together with
+     * the original positions, so the sort is stable.
+     */
+    public static <T> void quickSortByLongKey(@NonNull T[] array, @NonNull ToLongFunction<? super T> keyExtractor) {
+        quickSortByLongKey(array, ForkJoinPool.commonPool(), keyExtractor);
+    }
+
+    /**
+     * Run a parallel sort of the {@code array} by the keys computed by {@code keyExtractor} in the given
+     * fork-join {@code pool}. The keys are computed once per element and sorted as primitives together with
+     * the original positions, so the sort is stable.
+     */
+    public static <T> void quickSortByLongKey(@NonNull T[] array,
+                                              @NonNull ForkJoinPool pool,
+                                              @NonNull ToLongFunction<? super T> keyExtractor) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(keyExtractor, "Key extractor can not be null");
+
+        var keys = KeySortUtils.longKeys(array, keyExtractor);
+        var positions = KeySortUtils.positions(array.length);
+        pool.invoke(new KeySortUtils.SortAction(keys, positions, 0, array.length));
+        KeySortUtils.reorder(array, positions);
+    }
+
+    /** Run a parallel dual-pivot quick sort on the {@code array} in the common fork-join pool. */
+    public static void quickSort(int @NonNull [] array) {
+        quickSort(array, ForkJoinPool.commonPool());
+    }
+
+    /** Run a parallel dual-pivot quick sort on the {@code array} in the given fork-join {@code pool}. */
+    public static void quickSort(int @NonNull [] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+
+        pool.invoke(new PrimitiveQuickSortUtils.IntSortAction(array, 0, array.length));
+    }
+
+    /** Run a parallel dual-pivot quick sort on the {@code array} in the common fork-join pool. */
+    public static void quickSort(long @NonNull [] array) {
+        quickSort(array, ForkJoinPool.commonPool());
+    }
+
+    /** Run a parallel dual-pivot quick sort on the {@code array} in the given fork-join {@code pool}. */
+    public static void quickSort(long @NonNull [] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+
+        pool.invoke(new PrimitiveQuickSortUtils.LongSortAction(array, 0, array.length));
+    }
+
+    /**
+     * Run a parallel dual-pivot quick sort on the {@code array} in the common fork-join pool.
+     * The order is that of {@link Double#compare}, like in {@link java.util.Arrays#sort(double[])}.
+     */
+    public static void quickSort(double @NonNull [] array) {
+        quickSort(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run a parallel dual-pivot quick sort on the {@code array} in the given fork-join {@code pool}.
+     * The order is that of {@link Double#compare}, like in {@link java.util.Arrays#sort(double[])}.
+     */
+    public static void quickSort(double @NonNull [] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+
+        PrimitiveQuickSortUtils.sortWithSpecialValues(
+                array, (part, l, r) -> pool.invoke(new PrimitiveQuickSortUtils.DoubleSortAction(part, l, r)));
+    }
+
+    private ParallelQuickSort(int nThreads, @NonNull Comparator<? super E> comparator) {
         executorService = Executors.newFixedThreadPool(nThreads);
+        this.comparator = comparator;
     }
 
     /** Sorts the array by running the first task and waiting for the latch. */
@@ -50,16 +231,87 @@ public class ParallelQuickSort<E extends Comparable<? super E>> {
      */
     private void sort(@NonNull E[] array, int l, int r) {
         if (r - l <= INSERTION_SORT_BOUND) {
-            insertionSort(array, l, r);
+            insertionSort(array, l, r, comparator);
             for (int i = 0; i < r - l; ++i) {
                 latch.countDown();
             }
             return;
         }
         int pivotPosition = ThreadLocalRandom.current().nextInt(r - l) + l;
-        int newPivotPosition = partition(array, l, r, pivotPosition);
+        int newPivotPosition = partition(array, l, r, pivotPosition, comparator);
         latch.countDown(); // the pivot will not participate in further sorting
         executorService.submit(() -> sort(array, newPivotPosition + 1, r));
         sort(array, l, newPivotPosition);
     }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) by partitioning it,
+     * forking a task for the second part and recursively solving the first part in the current task.
+     * Like in {@link SingleThreadQuickSort}, after {@code depthLimit} partitions it falls back to heap sort.
+     */
+    static class SortAction<E> extends RecursiveAction {
+        private final E[] array;
+        private final E[] scratch;
+        private final int l;
+        private final int r;
+        private final int depthLimit;
+        private final Comparator<? super E> comparator;
+        private final int sequentialBound;
+        private final SortListener listener;
+
+        SortAction(@NonNull E[] array, E @Nullable [] scratch, int l, int r, int depthLimit,
+                   @NonNull Comparator<? super E> comparator) {
+            this(array, scratch, l, r, depthLimit, comparator, FORK_JOIN_SEQUENTIAL_BOUND);
+        }
+
+        /** Parts not longer than {@code sequentialBound} are sorted sequentially. */
+        SortAction(@NonNull E[] array, E @Nullable [] scratch, int l, int r, int depthLimit,
+                   @NonNull Comparator<? super E> comparator, int sequentialBound) {
+            this(array, scratch, l, r, depthLimit, comparator, sequentialBound, SortListener.NONE);
+        }
+
+        /** Like the other constructors, reporting to the {@code listener}. */
+        SortAction(@NonNull E[] array, E @Nullable [] scratch, int l, int r, int depthLimit,
+                   @NonNull Comparator<? super E> comparator, int sequentialBound, @NonNull SortListener listener) {
+            this.array = array;
+            this.scratch = scratch;
+            this.l = l;
+            this.r = r;
+            this.depthLimit = depthLimit;
+            this.comparator = comparator;
+            this.sequentialBound = sequentialBound;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= sequentialBound) {
+                SingleThreadQuickSort.sort(array, l, r, depthLimit, comparator, listener);
+                return;
+            }
+            if (depthLimit == 0) {
+                long startTime = listener.phaseStarted();
+                heapSort(array, l, r, comparator, listener);
+                listener.phaseFinished(SortListener.Phase.HEAP_SORT, startTime);
+                return;
+            }
+            long startTime = listener.phaseStarted();
+            int pivotPosition = choosePivot(array, l, r, comparator);
+            // the first partitions are over most of the array, so doing them on one thread would leave
+            // the rest of the pool idle
+            long equalRange = scratch != null && r - l > PARALLEL_PARTITION_BOUND
+                              ? parallelPartitionRange(array, scratch, l, r, pivotPosition, comparator,
+                                                       getPool().getParallelism(), listener)
+                              : partitionRange(array, l, r, pivotPosition, comparator, listener);
+            listener.phaseFinished(SortListener.Phase.PARTITION, startTime);
+            listener.partitioned(depthLimit, r - l, rangeStart(equalRange) - l, r - rangeEnd(equalRange));
+            var secondPart = new SortAction<>(array, scratch, rangeEnd(equalRange), r, depthLimit - 1, comparator,
+                                              sequentialBound, listener);
+            secondPart.fork();
+            listener.taskForked();
+            new SortAction<>(array, scratch, l, rangeStart(equalRange), depthLimit - 1, comparator, sequentialBound,
+                             listener).compute();
+            secondPart.join();
+        }
+    }
 }
@@ -0,0 +1,705 @@
+package com.example.qsort;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.RecursiveAction;
+
+import static com.example.qsort.QuickSortUtils.depthLimit;
+
+/**
+ * Dual-pivot quick sort of primitive arrays, sequential and fork-join. The code for each primitive type is the same,
+ * copied since Java generics do not cover primitives.
+ */
+class PrimitiveQuickSortUtils {
+    /** Parts not longer than this are sorted by insertion sort, comparing primitives is cheap so it is quite large. */
+    private static final int INSERTION_SORT_BOUND = 32;
+    /** Parts not longer than this are sorted sequentially in fork-join mode. */
+    private static final int FORK_JOIN_SEQUENTIAL_BOUND = 1 << 13;
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive). */
+    static void sort(int @NonNull [] array, int l, int r) {
+        sort(array, l, r, depthLimit(r - l));
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) by partitioning it,
+     * then recursively sorting the two smaller parts and continuing with the largest one, so the stack stays
+     * O(log n). After {@code depthLimit} partitions on the way to a part it is sorted by heap sort instead.
+     */
+    static void sort(int @NonNull [] array, int l, int r, int depthLimit) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                heapSort(array, l, r);
+                return;
+            }
+            long pivots = partition(array, l, r);
+            int lowerPivot = lowerPivotPosition(pivots);
+            int upperPivot = upperPivotPosition(pivots);
+            // if the pivots are equal, everything between them is equal to them
+            long middle = array[lowerPivot] == array[upperPivot] ? packPositions(upperPivot, upperPivot)
+                                                                 : middlePart(array, l, r, lowerPivot, upperPivot);
+            int middleStart = middlePartStart(middle);
+            int middleEnd = middlePartEnd(middle);
+            int lowerLength = lowerPivot - l;
+            int middleLength = middleEnd - middleStart;
+            int upperLength = r - upperPivot - 1;
+            if (lowerLength >= middleLength && lowerLength >= upperLength) {
+                sort(array, middleStart, middleEnd, depthLimit);
+                sort(array, upperPivot + 1, r, depthLimit);
+                r = lowerPivot;
+            } else if (upperLength >= middleLength) {
+                sort(array, l, lowerPivot, depthLimit);
+                sort(array, middleStart, middleEnd, depthLimit);
+                l = upperPivot + 1;
+            } else {
+                sort(array, l, lowerPivot, depthLimit);
+                sort(array, upperPivot + 1, r, depthLimit);
+                l = middleStart;
+                r = middleEnd;
+            }
+        }
+        insertionSort(array, l, r);
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) in a fork-join pool by
+     * forking tasks for two of the three parts of the partition and continuing with the third one.
+     */
+    static class IntSortAction extends RecursiveAction {
+        private final int[] array;
+        private final int l;
+        private final int r;
+        private final int depthLimit;
+
+        IntSortAction(int @NonNull [] array, int l, int r) {
+            this(array, l, r, depthLimit(r - l));
+        }
+
+        private IntSortAction(int @NonNull [] array, int l, int r, int depthLimit) {
+            this.array = array;
+            this.l = l;
+            this.r = r;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= FORK_JOIN_SEQUENTIAL_BOUND) {
+                sort(array, l, r, depthLimit);
+                return;
+            }
+            if (depthLimit == 0) {
+                heapSort(array, l, r);
+                return;
+            }
+            long pivots = partition(array, l, r);
+            int lowerPivot = lowerPivotPosition(pivots);
+            int upperPivot = upperPivotPosition(pivots);
+            var lowerPart = new IntSortAction(array, l, lowerPivot, depthLimit - 1);
+            var upperPart = new IntSortAction(array, upperPivot + 1, r, depthLimit - 1);
+            lowerPart.fork();
+            upperPart.fork();
+            if (array[lowerPivot] != array[upperPivot]) {
+                long middle = middlePart(array, l, r, lowerPivot, upperPivot);
+                new IntSortAction(array, middlePartStart(middle), middlePartEnd(middle), depthLimit - 1).compute();
+            }
+            upperPart.join();
+            lowerPart.join();
+        }
+    }
+
+    /**
+     * Reorders elements in a part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive, and at least
+     * 3 elements long) around two pivots taken from the tertiles: first come the elements lower than the lower
+     * pivot, then the lower pivot, then the elements between the pivots, then the upper pivot, and then
+     * the elements greater than it.
+     *
+     * @return the positions of the pivots, packed so they can be read by {@link #lowerPivotPosition} and
+     *         {@link #upperPivotPosition}
+     */
+    static long partition(int @NonNull [] array, int l, int r) {
+        int last = r - 1;
+        int third = (r - l) / 3;
+        swap(array, l, l + third);
+        swap(array, last, last - third);
+        if (array[l] > array[last]) {
+            swap(array, l, last);
+        }
+        int lowerPivot = array[l];
+        int upperPivot = array[last];
+        int i = l + 1; // invariant: all elements in range [l + 1; i - 1] are less than lowerPivot
+        int j = last - 1; // invariant: all elements in range [j + 1; last - 1] are greater than upperPivot
+        for (int k = i; k <= j; ++k) {
+            if (array[k] < lowerPivot) {
+                swap(array, k, i++);
+            } else if (array[k] > upperPivot) {
+                while (k < j && array[j] > upperPivot) {
+                    --j;
+                }
+                swap(array, k, j--);
+                if (array[k] < lowerPivot) {
+                    swap(array, k, i++);
+                }
+            }
+        }
+        swap(array, l, --i);
+        swap(array, last, ++j);
+        return packPositions(i, j);
+    }
+
+    /**
+     * Moves the elements equal to the pivots out of the part between the pivots at {@code lowerPivot} and
+     * {@code upperPivot}, if that part is large compared to the whole part from {@code l} to {@code r},
+     * so many duplicates of the pivots do not make the sort quadratic.
+     *
+     * @return the range of elements that still has to be sorted, packed so it can be read by
+     *         {@link #middlePartStart} and {@link #middlePartEnd}
+     */
+    static long middlePart(int @NonNull [] array, int l, int r, int lowerPivot, int upperPivot) {
+        int start = lowerPivot + 1;
+        int end = upperPivot;
+        if (end - start <= (r - l) / 2) {
+            return packPositions(start, end);
+        }
+        int lowerValue = array[lowerPivot];
+        int upperValue = array[upperPivot];
+        for (int k = start; k < end; ++k) {
+            if (array[k] == lowerValue) {
+                swap(array, k, start++);
+            } else if (array[k] == upperValue) {
+                while (k < end - 1 && array[end - 1] == upperValue) {
+                    --end;
+                }
+                swap(array, k, --end);
+                if (array[k] == lowerValue) {
+                    swap(array, k, start++);
+                }
+            }
+        }
+        return packPositions(start, end);
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using insertion sort. */
+    static void insertionSort(int @NonNull [] array, int l, int r) {
+        for (int i = l + 1; i < r; ++i) {
+            int value = array[i];
+            int j = i;
+            for (; j > l && array[j - 1] > value; --j) {
+                array[j] = array[j - 1];
+            }
+            array[j] = value;
+        }
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using heap sort. */
+    static void heapSort(int @NonNull [] array, int l, int r) {
+        for (int i = (r - l) / 2 - 1; i >= 0; --i) {
+            siftDown(array, l, i, r - l);
+        }
+        for (int size = r - l - 1; size > 0; --size) {
+            swap(array, l, l + size);
+            siftDown(array, l, 0, size);
+        }
+    }
+
+    /** Restores the max-heap property for the heap of {@code size} elements starting at {@code l}. */
+    private static void siftDown(int @NonNull [] array, int l, int i, int size) {
+        int value = array[l + i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && array[l + child] < array[l + child + 1]) {
+                ++child;
+            }
+            if (value >= array[l + child]) {
+                break;
+            }
+            array[l + i] = array[l + child];
+            i = child;
+        }
+        array[l + i] = value;
+    }
+
+    /** Swaps elements of {@code array} on positions {@code i} and {@code j}. */
+    private static void swap(int @NonNull [] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive). */
+    static void sort(long @NonNull [] array, int l, int r) {
+        sort(array, l, r, depthLimit(r - l));
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) by partitioning it,
+     * then recursively sorting the two smaller parts and continuing with the largest one, so the stack stays
+     * O(log n). After {@code depthLimit} partitions on the way to a part it is sorted by heap sort instead.
+     */
+    static void sort(long @NonNull [] array, int l, int r, int depthLimit) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                heapSort(array, l, r);
+                return;
+            }
+            long pivots = partition(array, l, r);
+            int lowerPivot = lowerPivotPosition(pivots);
+            int upperPivot = upperPivotPosition(pivots);
+            // if the pivots are equal, everything between them is equal to them
+            long middle = array[lowerPivot] == array[upperPivot] ? packPositions(upperPivot, upperPivot)
+                                                                 : middlePart(array, l, r, lowerPivot, upperPivot);
+            int middleStart = middlePartStart(middle);
+            int middleEnd = middlePartEnd(middle);
+            int lowerLength = lowerPivot - l;
+            int middleLength = middleEnd - middleStart;
+            int upperLength = r - upperPivot - 1;
+            if (lowerLength >= middleLength && lowerLength >= upperLength) {
+                sort(array, middleStart, middleEnd, depthLimit);
+                sort(array, upperPivot + 1, r, depthLimit);
+                r = lowerPivot;
+            } else if (upperLength >= middleLength) {
+                sort(array, l, lowerPivot, depthLimit);
+                sort(array, middleStart, middleEnd, depthLimit);
+                l = upperPivot + 1;
+            } else {
+                sort(array, l, lowerPivot, depthLimit);
+                sort(array, upperPivot + 1, r, depthLimit);
+                l = middleStart;
+                r = middleEnd;
+            }
+        }
+        insertionSort(array, l, r);
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) in a fork-join pool by
+     * forking tasks for two of the three parts of the partition and continuing with the third one.
+     */
+    static class LongSortAction extends RecursiveAction {
+        private final long[] array;
+        private final int l;
+        private final int r;
+        private final int depthLimit;
+
+        LongSortAction(long @NonNull [] array, int l, int r) {
+            this(array, l, r, depthLimit(r - l));
+        }
+
+        private LongSortAction(long @NonNull [] array, int l, int r, int depthLimit) {
+            this.array = array;
+            this.l = l;
+            this.r = r;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= FORK_JOIN_SEQUENTIAL_BOUND) {
+                sort(array, l, r, depthLimit);
+                return;
+            }
+            if (depthLimit == 0) {
+                heapSort(array, l, r);
+                return;
+            }
+            long pivots = partition(array, l, r);
+            int lowerPivot = lowerPivotPosition(pivots);
+            int upperPivot = upperPivotPosition(pivots);
+            var lowerPart = new LongSortAction(array, l, lowerPivot, depthLimit - 1);
+            var upperPart = new LongSortAction(array, upperPivot + 1, r, depthLimit - 1);
+            lowerPart.fork();
+            upperPart.fork();
+            if (array[lowerPivot] != array[upperPivot]) {
+                long middle = middlePart(array, l, r, lowerPivot, upperPivot);
+                new LongSortAction(array, middlePartStart(middle), middlePartEnd(middle), depthLimit - 1).compute();
+            }
+            upperPart.join();
+            lowerPart.join();
+        }
+    }
+
+    /**
+     * Reorders elements in a part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive, and at least
+     * 3 elements long) around two pivots taken from the tertiles: first come the elements lower than the lower
+     * pivot, then the lower pivot, then the elements between the pivots, then the upper pivot, and then
+     * the elements greater than it.
+     *
+     * @return the positions of the pivots, packed so they can be read by {@link #lowerPivotPosition} and
+     *         {@link #upperPivotPosition}
+     */
+    static long partition(long @NonNull [] array, int l, int r) {
+        int last = r - 1;
+        int third = (r - l) / 3;
+        swap(array, l, l + third);
+        swap(array, last, last - third);
+        if (array[l] > array[last]) {
+            swap(array, l, last);
+        }
+        long lowerPivot = array[l];
+        long upperPivot = array[last];
+        int i = l + 1; // invariant: all elements in range [l + 1; i - 1] are less than lowerPivot
+        int j = last - 1; // invariant: all elements in range [j + 1; last - 1] are greater than upperPivot
+        for (int k = i; k <= j; ++k) {
+            if (array[k] < lowerPivot) {
+                swap(array, k, i++);
+            } else if (array[k] > upperPivot) {
+                while (k < j && array[j] > upperPivot) {
+                    --j;
+                }
+                swap(array, k, j--);
+                if (array[k] < lowerPivot) {
+                    swap(array, k, i++);
+                }
+            }
+        }
+        swap(array, l, --i);
+        swap(array, last, ++j);
+        return packPositions(i, j);
+    }
+
+    /**
+     * Moves the elements equal to the pivots out of the part between the pivots at {@code lowerPivot} and
+     * {@code upperPivot}, if that part is large compared to the whole part from {@code l} to {@code r},
+     * so many duplicates of the pivots do not make the sort quadratic.
+     *
+     * @return the range of elements that still has to be sorted, packed so it can be read by
+     *         {@link #middlePartStart} and {@link #middlePartEnd}
+     */
+    static long middlePart(long @NonNull [] array, int l, int r, int lowerPivot, int upperPivot) {
+        int start = lowerPivot + 1;
+        int end = upperPivot;
+        if (end - start <= (r - l) / 2) {
+            return packPositions(start, end);
+        }
+        long lowerValue = array[lowerPivot];
+        long upperValue = array[upperPivot];
+        for (int k = start; k < end; ++k) {
+            if (array[k] == lowerValue) {
+                swap(array, k, start++);
+            } else if (array[k] == upperValue) {
+                while (k < end - 1 && array[end - 1] == upperValue) {
+                    --end;
+                }
+                swap(array, k, --end);
+                if (array[k] == lowerValue) {
+                    swap(array, k, start++);
+                }
+            }
+        }
+        return packPositions(start, end);
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using insertion sort. */
+    static void insertionSort(long @NonNull [] array, int l, int r) {
+        for (int i = l + 1; i < r; ++i) {
+            long value = array[i];
+            int j = i;
+            for (; j > l && array[j - 1] > value; --j) {
+                array[j] = array[j - 1];
+            }
+            array[j] = value;
+        }
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using heap sort. */
+    static void heapSort(long @NonNull [] array, int l, int r) {
+        for (int i = (r - l) / 2 - 1; i >= 0; --i) {
+            siftDown(array, l, i, r - l);
+        }
+        for (int size = r - l - 1; size > 0; --size) {
+            swap(array, l, l + size);
+            siftDown(array, l, 0, size);
+        }
+    }
+
+    /** Restores the max-heap property for the heap of {@code size} elements starting at {@code l}. */
+    private static void siftDown(long @NonNull [] array, int l, int i, int size) {
+        long value = array[l + i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && array[l + child] < array[l + child + 1]) {
+                ++child;
+            }
+            if (value >= array[l + child]) {
+                break;
+            }
+            array[l + i] = array[l + child];
+            i = child;
+        }
+        array[l + i] = value;
+    }
+
+    /** Swaps elements of {@code array} on positions {@code i} and {@code j}. */
+    private static void swap(long @NonNull [] array, int i, int j) {
+        long tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive). */
+    static void sort(double @NonNull [] array, int l, int r) {
+        sort(array, l, r, depthLimit(r - l));
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) by partitioning it,
+     * then recursively sorting the two smaller parts and continuing with the largest one, so the stack stays
+     * O(log n). After {@code depthLimit} partitions on the way to a part it is sorted by heap sort instead.
+     */
+    static void sort(double @NonNull [] array, int l, int r, int depthLimit) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                heapSort(array, l, r);
+                return;
+            }
+            long pivots = partition(array, l, r);
+            int lowerPivot = lowerPivotPosition(pivots);
+            int upperPivot = upperPivotPosition(pivots);
+            // if the pivots are equal, everything between them is equal to them
+            long middle = array[lowerPivot] == array[upperPivot] ? packPositions(upperPivot, upperPivot)
+                                                                 : middlePart(array, l, r, lowerPivot, upperPivot);
+            int middleStart = middlePartStart(middle);
+            int middleEnd = middlePartEnd(middle);
+            int lowerLength = lowerPivot - l;
+            int middleLength = middleEnd - middleStart;
+            int upperLength = r - upperPivot - 1;
+            if (lowerLength >= middleLength && lowerLength >= upperLength) {
+                sort(array, middleStart, middleEnd, depthLimit);
+                sort(array, upperPivot + 1, r, depthLimit);
+                r = lowerPivot;
+            } else if (upperLength >= middleLength) {
+                sort(array, l, lowerPivot, depthLimit);
+                sort(array, middleStart, middleEnd, depthLimit);
+                l = upperPivot + 1;
+            } else {
+                sort(array, l, lowerPivot, depthLimit);
+                sort(array, upperPivot + 1, r, depthLimit);
+                l = middleStart;
+                r = middleEnd;
+            }
+        }
+        insertionSort(array, l, r);
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) in a fork-join pool by
+     * forking tasks for two of the three parts of the partition and continuing with the third one.
+     */
+    static class DoubleSortAction extends RecursiveAction {
+        private final double[] array;
+        private final int l;
+        private final int r;
+        private final int depthLimit;
+
+        DoubleSortAction(double @NonNull [] array, int l, int r) {
+            this(array, l, r, depthLimit(r - l));
+        }
+
+        private DoubleSortAction(double @NonNull [] array, int l, int r, int depthLimit) {
+            this.array = array;
+            this.l = l;
+            this.r = r;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute() {
+            if (r - l <= FORK_JOIN_SEQUENTIAL_BOUND) {
+                sort(array, l, r, depthLimit);
+                return;
+            }
+            if (depthLimit == 0) {
+                heapSort(array, l, r);
+                return;
+            }
+            long pivots = partition(array, l, r);
+            int lowerPivot = lowerPivotPosition(pivots);
+            int upperPivot = upperPivotPosition(pivots);
+            var lowerPart = new DoubleSortAction(array, l, lowerPivot, depthLimit - 1);
+            var upperPart = new DoubleSortAction(array, upperPivot + 1, r, depthLimit - 1);
+            lowerPart.fork();
+            upperPart.fork();
+            if (array[lowerPivot] != array[upperPivot]) {
+                long middle = middlePart(array, l, r, lowerPivot, upperPivot);
+                new DoubleSortAction(array, middlePartStart(middle), middlePartEnd(middle), depthLimit - 1).compute();
+            }
+            upperPart.join();
+            lowerPart.join();
+        }
+    }
+
+    /**
+     * Reorders elements in a part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive, and at least
+     * 3 elements long) around two pivots taken from the tertiles: first come the elements lower than the lower
+     * pivot, then the lower pivot, then the elements between the pivots, then the upper pivot, and then
+     * the elements greater than it.
+     *
+     * @return the positions of the pivots, packed so they can be read by {@link #lowerPivotPosition} and
+     *         {@link #upperPivotPosition}
+     */
+    static long partition(double @NonNull [] array, int l, int r) {
+        int last = r - 1;
+        int third = (r - l) / 3;
+        swap(array, l, l + third);
+        swap(array, last, last - third);
+        if (array[l] > array[last]) {
+            swap(array, l, last);
+        }
+        double lowerPivot = array[l];
+        double upperPivot = array[last];
+        int i = l + 1; // invariant: all elements in range [l + 1; i - 1] are less than lowerPivot
+        int j = last - 1; // invariant: all elements in range [j + 1; last - 1] are greater than upperPivot
+        for (int k = i; k <= j; ++k) {
+            if (array[k] < lowerPivot) {
+                swap(array, k, i++);
+            } else if (array[k] > upperPivot) {
+                while (k < j && array[j] > upperPivot) {
+                    --j;
+                }
+                swap(array, k, j--);
+                if (array[k] < lowerPivot) {
+                    swap(array, k, i++);
+                }
+            }
+        }
+        swap(array, l, --i);
+        swap(array, last, ++j);
+        return packPositions(i, j);
+    }
+
+    /**
+     * Moves the elements equal to the pivots out of the part between the pivots at {@code lowerPivot} and
+     * {@code upperPivot}, if that part is large compared to the whole part from {@code l} to {@code r},
+     * so many duplicates of the pivots do not make the sort quadratic.
+     *
+     * @return the range of elements that still has to be sorted, packed so it can be read by
+     *         {@link #middlePartStart} and {@link #middlePartEnd}
+     */
+    static long middlePart(double @NonNull [] array, int l, int r, int lowerPivot, int upperPivot) {
+        int start = lowerPivot + 1;
+        int end = upperPivot;
+        if (end - start <= (r - l) / 2) {
+            return packPositions(start, end);
+        }
+        double lowerValue = array[lowerPivot];
+        double upperValue = array[upperPivot];
+        for (int k = start; k < end; ++k) {
+            if (array[k] == lowerValue) {
+                swap(array, k, start++);
+            } else if (array[k] == upperValue) {
+                while (k < end - 1 && array[end - 1] == upperValue) {
+                    --end;
+                }
+                swap(array, k, --end);
+                if (array[k] == lowerValue) {
+                    swap(array, k, start++);
+                }
+            }
+        }
+        return packPositions(start, end);
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using insertion sort. */
+    static void insertionSort(double @NonNull [] array, int l, int r) {
+        for (int i = l + 1; i < r; ++i) {
+            double value = array[i];
+            int j = i;
+            for (; j > l && array[j - 1] > value; --j) {
+                array[j] = array[j - 1];
+            }
+            array[j] = value;
+        }
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using heap sort. */
+    static void heapSort(double @NonNull [] array, int l, int r) {
+        for (int i = (r - l) / 2 - 1; i >= 0; --i) {
+            siftDown(array, l, i, r - l);
+        }
+        for (int size = r - l - 1; size > 0; --size) {
+            swap(array, l, l + size);
+            siftDown(array, l, 0, size);
+        }
+    }
+
+    /** Restores the max-heap property for the heap of {@code size} elements starting at {@code l}. */
+    private static void siftDown(double @NonNull [] array, int l, int i, int size) {
+        double value = array[l + i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && array[l + child] < array[l + child + 1]) {
+                ++child;
+            }
+            if (value >= array[l + child]) {
+                break;
+            }
+            array[l + i] = array[l + child];
+            i = child;
+        }
+        array[l + i] = value;
+    }
+
+    /** Swaps elements of {@code array} on positions {@code i} and {@code j}. */
+    private static void swap(double @NonNull [] array, int i, int j) {
+        double tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    private static long packPositions(int first, int second) {
+        return ((long) first << 32) | second;
+    }
+
+    static int lowerPivotPosition(long pivots) {
+        return (int) (pivots >>> 32);
+    }
+
+    static int upperPivotPosition(long pivots) {
+        return (int) pivots;
+    }
+
+    static int middlePartStart(long middle) {
+        return (int) (middle >>> 32);
+    }
+
+    static int middlePartEnd(long middle) {
+        return (int) middle;
+    }
+
+    /**
+     * Sorts {@code array} in the order of {@link Double#compare}: the comparison operators used by the sort do not
+     * order NaNs and do not distinguish -0.0 from 0.0, so NaNs are moved to the end before sorting
+     * and negative zeros are put before the positive ones after it. The {@code sorter} sorts the given range
+     * of the array without NaNs.
+     */
+    static void sortWithSpecialValues(double @NonNull [] array, @NonNull DoubleRangeSorter sorter) {
+        int end = array.length;
+        for (int k = end - 1; k >= 0; --k) {
+            if (Double.isNaN(array[k])) {
+                swap(array, k, --end);
+            }
+        }
+        sorter.sort(array, 0, end);
+        int negativeZeros = 0;
+        int zerosStart = end;
+        for (int k = 0; k < end; ++k) {
+            if (array[k] == 0.0d) {
+                zerosStart = Math.min(zerosStart, k);
+                if (Double.doubleToRawLongBits(array[k]) < 0) {
+                    ++negativeZeros;
+                }
+            } else if (array[k] > 0.0d) {
+                break;
+            }
+        }
+        for (int k = zerosStart; k < end && array[k] == 0.0d; ++k) {
+            array[k] = k - zerosStart < negativeZeros ? -0.0d : 0.0d;
+        }
+    }
+
+    /** Something that sorts a range of a double array without NaNs, like {@link #sort(double[], int, int)} */
+    @FunctionalInterface
+    interface DoubleRangeSorter {
+        void sort(double @NonNull [] array, int l, int r);
+    }
+}
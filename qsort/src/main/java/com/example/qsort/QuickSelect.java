@@ -0,0 +1,181 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.example.qsort.QuickSortUtils.*;
+
+/**
+ * Class implementing selection of the k-th smallest element and of the k smallest elements without sorting
+ * the whole array. Selection is introselect: quick sort partitions, but only of the part containing k, and heap
+ * sort of that part if the partitions do not shrink it fast enough, so it takes O(n) on average and O(n log n)
+ * in the worst case.
+ */
+public class QuickSelect {
+    private static final int INITIAL_HEAP_CAPACITY = 1024;
+
+    /**
+     * Reorders the {@code array} so that the element on position {@code k} is the one which would be there
+     * in the sorted array, the elements before it are not greater and the elements after it are not less.
+     */
+    public static <T extends Comparable<? super T>> void select(@NonNull T[] array, int k) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        select(array, k, Comparator.naturalOrder());
+    }
+
+    /** Like {@link #select(Comparable[], int)}, but in the order of the {@code comparator}. */
+    public static <T> void select(@NonNull T[] array, int k, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.isTrue(k >= 0 && k < array.length, "Position should be inside the array");
+
+        select(array, null, 0, array.length, k, depthLimit(array.length), comparator, 1);
+    }
+
+    /**
+     * Like {@link #select(Comparable[], int)}, but the partitions of large parts are done in parallel
+     * in the given fork-join {@code pool}.
+     */
+    public static <T extends Comparable<? super T>> void select(@NonNull T[] array, int k,
+                                                                @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        select(array, k, pool, Comparator.naturalOrder());
+    }
+
+    /**
+     * Like {@link #select(Comparable[], int, Comparator)}, but the partitions of large parts are done in parallel
+     * in the given fork-join {@code pool}.
+     */
+    public static <T> void select(@NonNull T[] array, int k, @NonNull ForkJoinPool pool,
+                                  @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.isTrue(k >= 0 && k < array.length, "Position should be inside the array");
+
+        var scratch = partitionScratch(array, pool);
+        pool.invoke(ForkJoinTask.adapt(() -> select(array, scratch, 0, array.length, k, depthLimit(array.length),
+                                                    comparator, pool.getParallelism())));
+    }
+
+    /** Reorders the {@code array} so that its first {@code k} elements are the smallest ones, in sorted order. */
+    public static <T extends Comparable<? super T>> void partialSort(@NonNull T[] array, int k) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        partialSort(array, k, Comparator.naturalOrder());
+    }
+
+    /** Like {@link #partialSort(Comparable[], int)}, but in the order of the {@code comparator}. */
+    public static <T> void partialSort(@NonNull T[] array, int k, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.isTrue(k >= 0 && k <= array.length, "Count should be between 0 and array length");
+
+        if (k < array.length) {
+            select(array, null, 0, array.length, k, depthLimit(array.length), comparator, 1);
+        }
+        SingleThreadQuickSort.sort(array, 0, k, depthLimit(k), comparator);
+    }
+
+    /** Like {@link #partialSort(Comparable[], int)}, but in parallel in the given fork-join {@code pool}. */
+    public static <T extends Comparable<? super T>> void partialSort(@NonNull T[] array, int k,
+                                                                     @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        partialSort(array, k, pool, Comparator.naturalOrder());
+    }
+
+    /** Like {@link #partialSort(Comparable[], int, Comparator)}, but in parallel in the given {@code pool}. */
+    public static <T> void partialSort(@NonNull T[] array, int k, @NonNull ForkJoinPool pool,
+                                       @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(pool, "Pool can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.isTrue(k >= 0 && k <= array.length, "Count should be between 0 and array length");
+
+        var scratch = partitionScratch(array, pool);
+        if (k < array.length) {
+            pool.invoke(ForkJoinTask.adapt(() -> select(array, scratch, 0, array.length, k,
+                                                        depthLimit(array.length), comparator,
+                                                        pool.getParallelism())));
+        }
+        pool.invoke(new ParallelQuickSort.SortAction<T>(array, scratch, 0, k, depthLimit(k), comparator));
+    }
+
+    /**
+     * Returns the {@code k} smallest of the {@code elements} in sorted order, or all of them if there are fewer.
+     * Only {@code k} elements are kept in memory at a time, so the elements may come from a stream.
+     */
+    public static <T extends Comparable<? super T>> @NonNull List<T> topK(@NonNull Iterable<? extends T> elements,
+                                                                          int k) {
+        return topK(elements, k, Comparator.naturalOrder());
+    }
+
+    /** Like {@link #topK(Iterable, int)}, but in the order of the {@code comparator}. */
+    public static <T> @NonNull List<T> topK(@NonNull Iterable<? extends T> elements, int k,
+                                            @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(elements, "Elements can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.isTrue(k >= 0, "Count should not be negative");
+
+        if (k == 0) {
+            return new ArrayList<>();
+        }
+        // the greatest of the kept elements is on top, so it is the one to be replaced; the heap grows as needed,
+        // so a huge k with few elements does not allocate k slots
+        var heap = new PriorityQueue<T>(Math.min(k, INITIAL_HEAP_CAPACITY), comparator.reversed());
+        for (T element : elements) {
+            if (heap.size() < k) {
+                heap.add(element);
+            } else if (comparator.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        }
+        var result = new ArrayList<T>(heap);
+        result.sort(comparator);
+        return result;
+    }
+
+    /**
+     * Reorders the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) so that the element
+     * on position {@code k} is in its sorted position. Parts longer than
+     * {@link QuickSortUtils#PARALLEL_PARTITION_BOUND} are partitioned in parallel if {@code scratch} is not null,
+     * which requires running in a fork-join task.
+     */
+    private static <T> void select(@NonNull T[] array, T @Nullable [] scratch, int l, int r, int k, int depthLimit,
+                                   @NonNull Comparator<? super T> comparator, int parallelism) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                heapSort(array, l, r, comparator);
+                return;
+            }
+            int pivotPosition = choosePivot(array, l, r, comparator);
+            long equalRange = scratch != null && r - l > PARALLEL_PARTITION_BOUND
+                              ? parallelPartitionRange(array, scratch, l, r, pivotPosition, comparator, parallelism)
+                              : partitionRange(array, l, r, pivotPosition, comparator);
+            if (k < rangeStart(equalRange)) {
+                r = rangeStart(equalRange);
+            } else if (k >= rangeEnd(equalRange)) {
+                l = rangeEnd(equalRange);
+            } else {
+                return;
+            }
+        }
+        insertionSort(array, l, r, comparator);
+    }
+}
@@ -3,8 +3,27 @@ package com.example.qsort;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
 /** Useful methods for all implementations of quick sort. */
 class QuickSortUtils {
+    /**
+     * Parts not longer than this are sorted by insertion sort. Can be tuned with the
+     * {@code com.example.qsort.insertionSortBound} system property.
+     */
+    static final int INSERTION_SORT_BOUND = Integer.getInteger("com.example.qsort.insertionSortBound", 16);
+    /** Parts longer than this get the pivot as a median of three medians of three (ninther). */
+    private static final int NINTHER_BOUND = 128;
+    /** Parts longer than this are partitioned in parallel by {@link #parallelPartitionRange}. */
+    static final int PARALLEL_PARTITION_BOUND = 1 << 17;
+    /** Minimal number of elements in a block of {@link #parallelPartitionRange}. */
+    private static final int PARALLEL_PARTITION_BLOCK = 1 << 14;
+
     /**
      * Reorders elements in a part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive)
      * so that the elements lower then or equal to {@code pivot} come first, then the pivot, and then the ones
@@ -12,34 +31,260 @@ class QuickSortUtils {
      *
      * @return the position of  the pivot in the resulting array
      */
-    static <E extends Comparable<? super E>> int partition(@NonNull E[] array, int l, int r, int pivotPosition) {
-        E pivot = array[pivotPosition];
+    static <E> int partition(@NonNull E[] array, int l, int r, int pivotPosition,
+                             @NonNull Comparator<? super E> comparator) {
+        long equalRange = partitionRange(array, l, r, pivotPosition, comparator);
+        // return the middle of the elements equal to pivot so the quick sort algorithm has good probabilistic
+        // behaviour
+        return (rangeStart(equalRange) + rangeEnd(equalRange) - 1) / 2;
+    }
+
+    /**
+     * Reorders elements in a part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive)
+     * so that the elements lower than {@code pivot} come first, then the ones equal to it, and then the ones
+     * greater than it.
+     *
+     * @return the range of the elements equal to pivot, packed so it can be read by {@link #rangeStart}
+     *         and {@link #rangeEnd}
+     */
+    static <E> long partitionRange(@NonNull E[] array, int l, int r, int pivotPosition,
+                                   @NonNull Comparator<? super E> comparator) {
+        return partitionRange(array, l, r, pivotPosition, comparator, SortListener.NONE);
+    }
+
+    /** Like {@link #partitionRange(Object[], int, int, int, Comparator)}, reporting swaps to the listener. */
+    static <E> long partitionRange(@NonNull E[] array, int l, int r, int pivotPosition,
+                                   @NonNull Comparator<? super E> comparator, @NonNull SortListener listener) {
+        return partitionAround(array, l, r, array[pivotPosition], comparator, listener);
+    }
+
+    /** Like {@link #partitionRange}, but the {@code pivot} does not have to be in the part. */
+    private static <E> long partitionAround(@NonNull E[] array, int l, int r, E pivot,
+                                            @NonNull Comparator<? super E> comparator,
+                                            @NonNull SortListener listener) {
         int i = l; // invariant: all elements in range [l; i - 1] are less than pivot
         int j = r - 1; // invariant: all elements in range [j + 1; r - 1] are greater than pivot
         for (int k = l; k <= j; ++k) {
             int cmp;
-            while (k >= i && k <= j && (cmp = array[k].compareTo(pivot)) != 0) {
+            while (k >= i && k <= j && (cmp = comparator.compare(array[k], pivot)) != 0) {
                 swap(array, cmp < 0 ? i++ : j--, k);
+                listener.swapped();
             }
             // invariant: all elements in range [i; k] are equal to pivot
         }
         // [i; j] now represents the range of elements equal to pivot
-        // return the middle so the quick sort algorithm has good probabilistic behaviour
-        return (i + j) / 2;
+        return ((long) i << 32) | (j + 1);
+    }
+
+    /**
+     * Does the same as {@link #partitionRange}, but in parallel, so must be called from a fork-join task.
+     * The part is split into blocks, about {@code parallelism} times four of them, which are partitioned
+     * independently. Then the less, equal and greater segments of all blocks are copied to their final places
+     * in {@code scratch}, and the part is copied back. {@code scratch} must be at least as long as {@code r},
+     * only the positions from {@code l} to {@code r} are used.
+     */
+    static <E> long parallelPartitionRange(@NonNull E[] array, @NonNull E[] scratch, int l, int r,
+                                           int pivotPosition, @NonNull Comparator<? super E> comparator,
+                                           int parallelism) {
+        return parallelPartitionRange(array, scratch, l, r, pivotPosition, comparator, parallelism,
+                                      SortListener.NONE);
+    }
+
+    /** Like {@link #parallelPartitionRange(Object[], Object[], int, int, int, Comparator, int)} with a listener. */
+    static <E> long parallelPartitionRange(@NonNull E[] array, @NonNull E[] scratch, int l, int r,
+                                           int pivotPosition, @NonNull Comparator<? super E> comparator,
+                                           int parallelism, @NonNull SortListener listener) {
+        int blocks = Math.min(4 * parallelism, (r - l) / PARALLEL_PARTITION_BLOCK);
+        if (blocks <= 1) {
+            return partitionRange(array, l, r, pivotPosition, comparator, listener);
+        }
+        E pivot = array[pivotPosition];
+        var blockStarts = new int[blocks + 1];
+        for (int b = 0; b <= blocks; ++b) {
+            blockStarts[b] = l + (int) ((long) (r - l) * b / blocks);
+        }
+
+        var equalRanges = new long[blocks];
+        forEachBlock(blocks, b -> equalRanges[b] = partitionAround(array, blockStarts[b], blockStarts[b + 1],
+                                                                    pivot, comparator, listener));
+
+        // positions in scratch where the segments of each block go
+        var lessPositions = new int[blocks];
+        var equalPositions = new int[blocks];
+        var greaterPositions = new int[blocks];
+        int lessCount = 0;
+        int equalCount = 0;
+        for (int b = 0; b < blocks; ++b) {
+            lessCount += rangeStart(equalRanges[b]) - blockStarts[b];
+            equalCount += rangeEnd(equalRanges[b]) - rangeStart(equalRanges[b]);
+        }
+        int lessPosition = l;
+        int equalPosition = l + lessCount;
+        int greaterPosition = l + lessCount + equalCount;
+        for (int b = 0; b < blocks; ++b) {
+            lessPositions[b] = lessPosition;
+            equalPositions[b] = equalPosition;
+            greaterPositions[b] = greaterPosition;
+            lessPosition += rangeStart(equalRanges[b]) - blockStarts[b];
+            equalPosition += rangeEnd(equalRanges[b]) - rangeStart(equalRanges[b]);
+            greaterPosition += blockStarts[b + 1] - rangeEnd(equalRanges[b]);
+        }
+
+        forEachBlock(blocks, b -> {
+            int equalStart = rangeStart(equalRanges[b]);
+            int equalEnd = rangeEnd(equalRanges[b]);
+            System.arraycopy(array, blockStarts[b], scratch, lessPositions[b], equalStart - blockStarts[b]);
+            System.arraycopy(array, equalStart, scratch, equalPositions[b], equalEnd - equalStart);
+            System.arraycopy(array, equalEnd, scratch, greaterPositions[b], blockStarts[b + 1] - equalEnd);
+        });
+        forEachBlock(blocks, b -> System.arraycopy(scratch, blockStarts[b], array, blockStarts[b],
+                                                   blockStarts[b + 1] - blockStarts[b]));
+        return ((long) (l + lessCount) << 32) | (l + lessCount + equalCount);
+    }
+
+    /**
+     * Returns an array for {@link #parallelPartitionRange} of the same type as {@code array},
+     * or null if the partitions will be sequential anyway.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T @Nullable [] partitionScratch(@NonNull T[] array, @NonNull ForkJoinPool pool) {
+        if (array.length <= PARALLEL_PARTITION_BOUND || pool.getParallelism() == 1) {
+            return null;
+        }
+        return (T[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+    }
+
+    /** Runs {@code action} for each block index in parallel in the current fork-join pool. */
+    static void forEachBlock(int blocks, @NonNull IntConsumer action) {
+        var tasks = new ArrayList<ForkJoinTask<?>>(blocks);
+        for (int b = 0; b < blocks; ++b) {
+            int block = b;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(block)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /** Returns the start (inclusive) of a range returned by {@link #partitionRange}. */
+    static int rangeStart(long range) {
+        return (int) (range >>> 32);
+    }
+
+    /** Returns the end (exclusive) of a range returned by {@link #partitionRange}. */
+    static int rangeEnd(long range) {
+        return (int) range;
+    }
+
+    /**
+     * Chooses a pivot in a part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive): the median
+     * of the first, middle and last elements, or for long parts the median of such medians of three groups
+     * spread over the part. This makes sorted, reversed and organ-pipe inputs split well.
+     *
+     * @return the position of the pivot
+     */
+    static <E> int choosePivot(@NonNull E[] array, int l, int r, @NonNull Comparator<? super E> comparator) {
+        int last = r - 1;
+        int middle = (l + last) >>> 1;
+        if (r - l <= NINTHER_BOUND) {
+            return median(array, l, middle, last, comparator);
+        }
+        int step = (r - l) / 8;
+        return median(array,
+                      median(array, l, l + step, l + 2 * step, comparator),
+                      median(array, middle - step, middle, middle + step, comparator),
+                      median(array, last - 2 * step, last - step, last, comparator),
+                      comparator);
+    }
+
+    /** Returns the position of the median of the elements of {@code array} on positions a, b and c. */
+    private static <E> int median(@NonNull E[] array, int a, int b, int c, @NonNull Comparator<? super E> comparator) {
+        if (comparator.compare(array[a], array[b]) < 0) {
+            if (comparator.compare(array[b], array[c]) < 0) {
+                return b;
+            }
+            return comparator.compare(array[a], array[c]) < 0 ? c : a;
+        }
+        if (comparator.compare(array[a], array[c]) < 0) {
+            return a;
+        }
+        return comparator.compare(array[b], array[c]) < 0 ? c : b;
+    }
+
+    /**
+     * Returns how deep quick sort of a part of the given length may recurse before falling back to heap sort,
+     * 2 * log2(length). Deeper recursion means the pivots are consistently bad, and the sort would become
+     * quadratic.
+     */
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /** Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using heap sort. */
+    static <E> void heapSort(@NonNull E[] array, int l, int r, @NonNull Comparator<? super E> comparator) {
+        heapSort(array, l, r, comparator, SortListener.NONE);
+    }
+
+    /** Like {@link #heapSort(Object[], int, int, Comparator)}, reporting swaps to the listener. */
+    static <E> void heapSort(@NonNull E[] array, int l, int r, @NonNull Comparator<? super E> comparator,
+                             @NonNull SortListener listener) {
+        for (int i = (r - l) / 2 - 1; i >= 0; --i) {
+            siftDown(array, l, i, r - l, comparator);
+        }
+        for (int size = r - l - 1; size > 0; --size) {
+            swap(array, l, l + size);
+            listener.swapped();
+            siftDown(array, l, 0, size, comparator);
+        }
+    }
+
+    /** Restores the max-heap property for the heap of {@code size} elements starting at {@code l}. */
+    private static <E> void siftDown(@NonNull E[] array, int l, int i, int size,
+                                     @NonNull Comparator<? super E> comparator) {
+        var value = array[l + i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && comparator.compare(array[l + child], array[l + child + 1]) < 0) {
+                ++child;
+            }
+            if (comparator.compare(value, array[l + child]) >= 0) {
+                break;
+            }
+            array[l + i] = array[l + child];
+            i = child;
+        }
+        array[l + i] = value;
     }
 
     /**
      * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) using insertion sort.
      * Turns out this is quite faster than Arrays.sort().
      */
-    static <E extends Comparable<? super E>> void insertionSort(@NonNull E[] array, int l, int r) {
+    static <E> void insertionSort(@NonNull E[] array, int l, int r, @NonNull Comparator<? super E> comparator) {
+        insertionSort(array, l, r, comparator, SortListener.NONE);
+    }
+
+    /** Like {@link #insertionSort(Object[], int, int, Comparator)}, reporting swaps to the listener. */
+    static <E> void insertionSort(@NonNull E[] array, int l, int r, @NonNull Comparator<? super E> comparator,
+                                  @NonNull SortListener listener) {
         for (int i = l; i < r; ++i) {
-            for (int j = i; j > l && array[j - 1].compareTo(array[j]) > 0; --j) {
+            for (int j = i; j > l && comparator.compare(array[j - 1], array[j]) > 0; --j) {
                 swap(array, j - 1, j);
+                listener.swapped();
             }
         }
     }
 
+    /** Returns the {@code comparator} reporting each comparison to the {@code listener}, unless it is a no-op. */
+    static <T> @NonNull Comparator<? super T> listening(@NonNull Comparator<? super T> comparator,
+                                                        @NonNull SortListener listener) {
+        if (listener == SortListener.NONE) {
+            return comparator;
+        }
+        return (a, b) -> {
+            listener.compared();
+            return comparator.compare(a, b);
+        };
+    }
+
     /** Swaps elements of {@code array} on positions {@code i} and {@code j}. */
     private static <T> void swap(@Nullable T @NonNull [] array, int i, int j) {
         var tmp = array[i];
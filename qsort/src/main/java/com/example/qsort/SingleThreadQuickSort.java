@@ -3,37 +3,138 @@ package com.example.qsort;
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
-import static com.example.qsort.QuickSortUtils.insertionSort;
-import static com.example.qsort.QuickSortUtils.partition;
+import static com.example.qsort.QuickSortUtils.*;
 
-/** Class implementing single-thread quick sort. */
+/**
+ * Class implementing single-thread quick sort. It falls back to heap sort when the recursion gets too deep
+ * (introsort), so it is O(n log n) in the worst case.
+ */
 public class SingleThreadQuickSort {
-    private static final int INSERTION_SORT_BOUND = 5; /* equal to that of ParallelQuickSort for the sake of comparison,
-                                                          but ideally should be tuned for best performance so is
-                                                          separate. */
 
     /** Sorts the {@code array} using single-thread quick sort. */
     public static <T extends Comparable<? super T>> void quickSort(@NonNull T[] array) {
         Validate.notNull(array, "Array can not be null");
         Validate.noNullElements(array, "Array can not contain null elements");
 
-        sort(array, 0, array.length);
+        sort(array, 0, array.length, depthLimit(array.length), Comparator.naturalOrder());
     }
 
     /**
-     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) by partitioning it
-     * and then sequentially runs recursive calls on the first and second part.
+     * Sorts the {@code array} in the order of the {@code comparator} using single-thread quick sort.
+     * The array may contain nulls if the comparator supports them.
      */
-    private static <T extends Comparable<? super T>> void sort(@NonNull T[] array, int l, int r) {
-        if (r - l <= INSERTION_SORT_BOUND) {
-            insertionSort(array, l, r);
-            return;
+    public static <T> void quickSort(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+
+        sort(array, 0, array.length, depthLimit(array.length), comparator);
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using single-thread quick sort, reporting
+     * the comparisons, swaps, partitions and phases to the {@code listener}, e.g. {@link SortStatistics}.
+     */
+    public static <T> void quickSort(@NonNull T[] array, @NonNull Comparator<? super T> comparator,
+                                     @NonNull SortListener listener) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.notNull(listener, "Listener can not be null");
+
+        listener.sortStarted(array.length);
+        sort(array, 0, array.length, depthLimit(array.length), listening(comparator, listener), listener);
+        listener.sortFinished();
+    }
+
+    /**
+     * Sorts the {@code array} by the keys computed by {@code keyExtractor}. The keys are computed once per element
+     * and sorted as primitives together with the original positions, so the sort is stable.
+     */
+    public static <T> void quickSortByIntKey(@NonNull T[] array, @NonNull ToIntFunction<? super T> keyExtractor) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(keyExtractor, "Key extractor can not be null");
+
+        var keysWithPositions = KeySortUtils.intKeysWithPositions(array, keyExtractor);
+        PrimitiveQuickSortUtils.sort(keysWithPositions, 0, keysWithPositions.length);
+        KeySortUtils.reorder(array, keysWithPositions);
+    }
+
+    /**
+     * Sorts the {@code array} by the keys computed by {@code keyExtractor}. The keys are computed once per element
+     * and sorted as primitives together with the original positions, so the sort is stable.
+     */
+    public static <T> void quickSortByLongKey(@NonNull T[] array, @NonNull ToLongFunction<? super T> keyExtractor) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(keyExtractor, "Key extractor can not be null");
+
+        var keys = KeySortUtils.longKeys(array, keyExtractor);
+        var positions = KeySortUtils.positions(array.length);
+        KeySortUtils.sort(keys, positions, 0, array.length);
+        KeySortUtils.reorder(array, positions);
+    }
+
+    /** Sorts the {@code array} using single-thread dual-pivot quick sort. */
+    public static void quickSort(int @NonNull [] array) {
+        Validate.notNull(array, "Array can not be null");
+
+        PrimitiveQuickSortUtils.sort(array, 0, array.length);
+    }
+
+    /** Sorts the {@code array} using single-thread dual-pivot quick sort. */
+    public static void quickSort(long @NonNull [] array) {
+        Validate.notNull(array, "Array can not be null");
+
+        PrimitiveQuickSortUtils.sort(array, 0, array.length);
+    }
+
+    /**
+     * Sorts the {@code array} using single-thread dual-pivot quick sort.
+     * The order is that of {@link Double#compare}, like in {@link java.util.Arrays#sort(double[])}.
+     */
+    public static void quickSort(double @NonNull [] array) {
+        Validate.notNull(array, "Array can not be null");
+
+        PrimitiveQuickSortUtils.sortWithSpecialValues(array, PrimitiveQuickSortUtils::sort);
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) by partitioning it,
+     * then recursively sorting the smaller part and continuing with the larger one, so the stack stays O(log n).
+     * After {@code depthLimit} partitions on the way to a part it is sorted by heap sort instead.
+     */
+    static <T> void sort(@NonNull T[] array, int l, int r, int depthLimit, @NonNull Comparator<? super T> comparator) {
+        sort(array, l, r, depthLimit, comparator, SortListener.NONE);
+    }
+
+    /** Like {@link #sort(Object[], int, int, int, Comparator)}, reporting to the {@code listener}. */
+    static <T> void sort(@NonNull T[] array, int l, int r, int depthLimit, @NonNull Comparator<? super T> comparator,
+                         @NonNull SortListener listener) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (depthLimit-- == 0) {
+                long startTime = listener.phaseStarted();
+                heapSort(array, l, r, comparator, listener);
+                listener.phaseFinished(SortListener.Phase.HEAP_SORT, startTime);
+                return;
+            }
+            long startTime = listener.phaseStarted();
+            long equalRange = partitionRange(array, l, r, choosePivot(array, l, r, comparator), comparator, listener);
+            listener.phaseFinished(SortListener.Phase.PARTITION, startTime);
+            int equalStart = rangeStart(equalRange);
+            int equalEnd = rangeEnd(equalRange);
+            listener.partitioned(depthLimit + 1, r - l, equalStart - l, r - equalEnd);
+            if (equalStart - l < r - equalEnd) {
+                sort(array, l, equalStart, depthLimit, comparator, listener);
+                l = equalEnd;
+            } else {
+                sort(array, equalEnd, r, depthLimit, comparator, listener);
+                r = equalStart;
+            }
         }
-        int pivotPosition = ThreadLocalRandom.current().nextInt(r - l) + l;
-        int newPivotPosition = partition(array, l, r, pivotPosition);
-        sort(array, l, newPivotPosition);
-        sort(array, newPivotPosition + 1, r);
+        long startTime = listener.phaseStarted();
+        insertionSort(array, l, r, comparator, listener);
+        listener.phaseFinished(SortListener.Phase.INSERTION_SORT, startTime);
     }
 }
@@ -0,0 +1,135 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.example.qsort.QuickSortUtils.PARALLEL_PARTITION_BOUND;
+import static com.example.qsort.QuickSortUtils.depthLimit;
+
+/**
+ * Reusable context for many parallel sorts: it owns a fork-join pool, so the sorts do not create threads
+ * like {@link ParallelQuickSort#quickSort(Comparable[], int)}, and a scratch buffer per calling thread, so once
+ * the buffers have grown the sorts of arrays of the same type do not allocate arrays like
+ * {@link ParallelMergeSort}. The context can be used
+ * from many threads at once, and should be closed to stop the pool.
+ */
+public class SortContext implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final int sequentialBound;
+    private final ThreadLocal<Object[]> scratch = ThreadLocal.withInitial(() -> new Object[0]);
+
+    /** Creates a context with a pool of {@code parallelism} threads and the default tuning. */
+    public SortContext(int parallelism) {
+        this(parallelism, ParallelQuickSort.FORK_JOIN_SEQUENTIAL_BOUND);
+    }
+
+    /**
+     * Creates a context with a pool of {@code parallelism} threads. Arrays not longer than {@code sequentialBound}
+     * are sorted in the calling thread without using the pool, and parts of the quick sort not longer than it
+     * are not split into tasks.
+     */
+    public SortContext(int parallelism, int sequentialBound) {
+        Validate.isTrue(parallelism > 0, "Parallelism should be positive");
+        Validate.isTrue(sequentialBound > 0, "Sequential bound should be positive");
+
+        pool = new ForkJoinPool(parallelism);
+        this.sequentialBound = sequentialBound;
+    }
+
+    /** Sorts the {@code array} using parallel quick sort. */
+    public <T extends Comparable<? super T>> void quickSort(@NonNull T[] array) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        quickSort(array, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using parallel quick sort.
+     * The array may contain nulls if the comparator supports them.
+     */
+    public <T> void quickSort(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.validState(!pool.isShutdown(), "Context is closed");
+
+        int n = array.length;
+        if (n <= sequentialBound) {
+            SingleThreadQuickSort.sort(array, 0, n, depthLimit(n), comparator);
+            return;
+        }
+        T[] partitionScratch = n > PARALLEL_PARTITION_BOUND && pool.getParallelism() > 1 ? scratch(array) : null;
+        try {
+            pool.invoke(new ParallelQuickSort.SortAction<T>(array, partitionScratch, 0, n, depthLimit(n),
+                                                            comparator, sequentialBound));
+        } finally {
+            if (partitionScratch != null) {
+                Arrays.fill(partitionScratch, 0, n, null);
+            }
+        }
+    }
+
+    /** Sorts the {@code array} using parallel stable merge sort. */
+    public <T extends Comparable<? super T>> void mergeSort(@NonNull T[] array) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        mergeSort(array, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the {@code array} in the order of the {@code comparator} using parallel stable merge sort.
+     * The array may contain nulls if the comparator supports them.
+     */
+    public <T> void mergeSort(@NonNull T[] array, @NonNull Comparator<? super T> comparator) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.notNull(comparator, "Comparator can not be null");
+        Validate.validState(!pool.isShutdown(), "Context is closed");
+
+        int n = array.length;
+        T[] buffer = scratch(array);
+        System.arraycopy(array, 0, buffer, 0, n);
+        try {
+            if (n <= sequentialBound) {
+                ParallelMergeSort.sort(buffer, array, 0, n, comparator);
+            } else {
+                pool.invoke(new ParallelMergeSort.SortAction<>(buffer, array, 0, n, comparator));
+            }
+        } finally {
+            Arrays.fill(buffer, 0, n, null);
+        }
+    }
+
+    /** Returns the number of threads of the pool. */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Stops the pool, the sorts which already started are finished. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Returns the scratch buffer of the calling thread with at least the length of {@code array}. It is replaced
+     * when it is too short or of a different type than {@code array}, since copying between arrays of different
+     * types checks every element. It should be cleared after use to not keep the elements from garbage collection.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T @NonNull [] scratch(@NonNull T[] array) {
+        var buffer = scratch.get();
+        if (buffer.length < array.length || buffer.getClass() != array.getClass()) {
+            int length = buffer.getClass() == array.getClass() ? Math.max(array.length, 2 * buffer.length)
+                                                               : array.length;
+            buffer = (Object[]) Array.newInstance(array.getClass().getComponentType(), length);
+            scratch.set(buffer);
+        }
+        return (T[]) buffer;
+    }
+}
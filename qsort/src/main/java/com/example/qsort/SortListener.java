@@ -0,0 +1,59 @@
+package com.example.qsort;
+
+/**
+ * Receives the events of an instrumented quick sort, see {@link SortStatistics}. The methods may be called from
+ * several threads at once. Sorts which are not instrumented use {@link #NONE}, whose empty methods the JIT
+ * inlines, so the instrumentation costs nothing when it is off.
+ */
+public interface SortListener {
+    /** Listener ignoring all events. */
+    SortListener NONE = new SortListener() {
+    };
+
+    /** Phases of a quick sort which are timed. */
+    enum Phase {
+        PARTITION,
+        INSERTION_SORT,
+        HEAP_SORT
+    }
+
+    /** Called before a sort of an array of the given {@code length}. */
+    default void sortStarted(int length) {
+    }
+
+    /** Called after the sort. */
+    default void sortFinished() {
+    }
+
+    /** Called on each comparison of two elements. */
+    default void compared() {
+    }
+
+    /** Called on each swap of two elements. */
+    default void swapped() {
+    }
+
+    /**
+     * Called after a part of {@code length} elements was partitioned into {@code lessCount} elements lower than
+     * the pivot and {@code greaterCount} greater ones. {@code depthLimit} is the number of partitions which were
+     * still allowed on the way to the part before falling back to heap sort, so it decreases with depth.
+     */
+    default void partitioned(int depthLimit, int length, int lessCount, int greaterCount) {
+    }
+
+    /** Called when a fork-join task is forked. */
+    default void taskForked() {
+    }
+
+    /**
+     * Returns the time to pass to {@link #phaseFinished} when the phase is finished. It is 0 unless the listener
+     * measures time, so the sorts do not call {@link System#nanoTime} when not needed.
+     */
+    default long phaseStarted() {
+        return 0;
+    }
+
+    /** Called when a phase started at {@code startTime} returned by {@link #phaseStarted()} is finished. */
+    default void phaseFinished(Phase phase, long startTime) {
+    }
+}
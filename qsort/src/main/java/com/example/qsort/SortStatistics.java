@@ -0,0 +1,146 @@
+package com.example.qsort;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.example.qsort.QuickSortUtils.depthLimit;
+
+/**
+ * Listener collecting the statistics of one quick sort: comparisons, swaps, recursion depth, balance of the
+ * partitions, forked tasks and time in each phase. {@link #toString()} returns a report. The counters are
+ * thread-safe, so it can be used with the parallel sort.
+ */
+public class SortStatistics implements SortListener {
+    /** Partitions whose smaller part is less than this fraction of the part are unbalanced. */
+    private static final double UNBALANCED_FRACTION = 1d / 8;
+
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+    private final LongAdder partitions = new LongAdder();
+    private final LongAdder unbalancedPartitions = new LongAdder();
+    private final DoubleAdder smallerPartFractions = new DoubleAdder();
+    private final AtomicInteger minDepthLimit = new AtomicInteger(Integer.MAX_VALUE);
+    private final LongAdder tasks = new LongAdder();
+    private final Map<Phase, LongAdder> phaseTimes = new EnumMap<>(Phase.class);
+    private volatile int length;
+    private volatile long startTime;
+    private volatile long totalTime;
+
+    public SortStatistics() {
+        for (var phase : Phase.values()) {
+            phaseTimes.put(phase, new LongAdder());
+        }
+    }
+
+    @Override
+    public void sortStarted(int length) {
+        this.length = length;
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void sortFinished() {
+        totalTime = System.nanoTime() - startTime;
+    }
+
+    @Override
+    public void compared() {
+        comparisons.increment();
+    }
+
+    @Override
+    public void swapped() {
+        swaps.increment();
+    }
+
+    @Override
+    public void partitioned(int depthLimit, int length, int lessCount, int greaterCount) {
+        partitions.increment();
+        double smallerPartFraction = (double) Math.min(lessCount, greaterCount) / length;
+        smallerPartFractions.add(smallerPartFraction);
+        if (smallerPartFraction < UNBALANCED_FRACTION) {
+            unbalancedPartitions.increment();
+        }
+        minDepthLimit.accumulateAndGet(depthLimit, Math::min);
+    }
+
+    @Override
+    public void taskForked() {
+        tasks.increment();
+    }
+
+    @Override
+    public long phaseStarted() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void phaseFinished(Phase phase, long startTime) {
+        phaseTimes.get(phase).add(System.nanoTime() - startTime);
+    }
+
+    /** Returns the number of comparisons of elements. */
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    /** Returns the number of swaps of elements. */
+    public long getSwaps() {
+        return swaps.sum();
+    }
+
+    /** Returns the number of partitions. */
+    public long getPartitions() {
+        return partitions.sum();
+    }
+
+    /** Returns the number of partitions whose smaller part was less than an eighth of the partitioned part. */
+    public long getUnbalancedPartitions() {
+        return unbalancedPartitions.sum();
+    }
+
+    /** Returns the average over the partitions of the fraction of the part that went to the smaller side. */
+    public double getAverageSmallerPartFraction() {
+        long count = partitions.sum();
+        return count == 0 ? 0 : smallerPartFractions.sum() / count;
+    }
+
+    /** Returns the maximal number of nested partitions on the way to a part. */
+    public int getMaxDepth() {
+        int minLimit = minDepthLimit.get();
+        return minLimit == Integer.MAX_VALUE ? 0 : depthLimit(length) - minLimit + 1;
+    }
+
+    /** Returns the number of forked fork-join tasks. */
+    public long getTasks() {
+        return tasks.sum();
+    }
+
+    /** Returns the time spent in the phase in nanoseconds, summed over all threads. */
+    public long getPhaseTime(@NonNull Phase phase) {
+        return phaseTimes.get(phase).sum();
+    }
+
+    /** Returns the time from the start to the end of the sort in nanoseconds. */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Sorted %d elements in %.3f ms%n", length, totalTime / 1e6)
+               + String.format("comparisons: %d, swaps: %d%n", getComparisons(), getSwaps())
+               + String.format("partitions: %d, unbalanced: %d, average smaller part: %.3f, max depth: %d%n",
+                               getPartitions(), getUnbalancedPartitions(), getAverageSmallerPartFraction(),
+                               getMaxDepth())
+               + String.format("tasks forked: %d%n", getTasks())
+               + String.format("time in partitions: %.3f ms, insertion sort: %.3f ms, heap sort: %.3f ms",
+                               getPhaseTime(Phase.PARTITION) / 1e6, getPhaseTime(Phase.INSERTION_SORT) / 1e6,
+                               getPhaseTime(Phase.HEAP_SORT) / 1e6);
+    }
+}
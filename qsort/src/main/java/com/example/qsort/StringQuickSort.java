@@ -0,0 +1,168 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import static com.example.qsort.QuickSortUtils.depthLimit;
+import static com.example.qsort.QuickSortUtils.forEachBlock;
+
+/**
+ * Class implementing parallel quick sort of strings which compares cached keys instead of the strings.
+ * The prefix common to all strings is found once, and the chars right after it are packed into a long key
+ * of each string, so most comparisons are of two longs and never read the prefix. Only strings with equal keys
+ * are compared by chars, starting after the chars covered by the keys.
+ */
+public class StringQuickSort {
+    /** Number of chars packed into a key */
+    private static final int KEY_CHARS = Long.SIZE / Character.SIZE;
+    /** Number of strings processed by one task when computing the prefix and the keys or sorting ties. */
+    private static final int BLOCK = 1 << 13;
+
+    /** Sorts the {@code array} in the order of {@link String#compareTo} in the common fork-join pool. */
+    public static void quickSort(@NonNull String[] array) {
+        quickSort(array, ForkJoinPool.commonPool());
+    }
+
+    /** Sorts the {@code array} in the order of {@link String#compareTo} in the given fork-join {@code pool}. */
+    public static void quickSort(@NonNull String[] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+        Validate.notNull(pool, "Pool can not be null");
+
+        if (array.length > 1) {
+            pool.invoke(ForkJoinTask.adapt(() -> sort(array)));
+        }
+    }
+
+    /** Sorts the {@code array}, should be called in a fork-join pool. */
+    private static void sort(@NonNull String[] array) {
+        int blocks = (array.length + BLOCK - 1) / BLOCK;
+        var first = array[0];
+        var prefixLengths = new int[blocks];
+        forEachBlock(blocks, b -> prefixLengths[b] = commonPrefixLength(array, b * BLOCK, blockEnd(array, b), first));
+        int start = Arrays.stream(prefixLengths).min().getAsInt();
+
+        var keys = new long[array.length];
+        forEachBlock(blocks, b -> {
+            for (int i = b * BLOCK; i < blockEnd(array, b); ++i) {
+                keys[i] = key(array[i], start);
+            }
+        });
+        var positions = KeySortUtils.positions(array.length);
+        // keys crafted against the partitioning make the key sort fall back to heap sort, not go quadratic
+        new KeySortUtils.SortAction(keys, positions, 0, array.length).compute();
+        KeySortUtils.reorder(array, positions);
+
+        int tieStart = start + KEY_CHARS;
+        new TiesAction(array, keys, 0, array.length, (a, b) -> StringRadixSort.compareFrom(a, b, tieStart)).compute();
+    }
+
+    private static int blockEnd(@NonNull String[] array, int block) {
+        return Math.min(array.length, (block + 1) * BLOCK);
+    }
+
+    /** Returns the length of the prefix common to {@code first} and all strings in the part. */
+    private static int commonPrefixLength(@NonNull String[] array, int l, int r, @NonNull String first) {
+        int length = first.length();
+        for (int i = l; i < r && length > 0; ++i) {
+            var string = array[i];
+            length = Math.min(length, string.length());
+            int k = 0;
+            while (k < length && string.charAt(k) == first.charAt(k)) {
+                ++k;
+            }
+            length = k;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the key of the first {@link #KEY_CHARS} chars of the {@code string} from {@code start}, missing chars
+     * are zeros. The sign bit is flipped, so the signed order of the keys is the order of the chars, and if
+     * the keys of two strings differ, their order is that of {@link String#compareTo}.
+     */
+    private static long key(@NonNull String string, int start) {
+        long key = 0;
+        for (int i = start; i < start + KEY_CHARS; ++i) {
+            key = key << Character.SIZE | (i < string.length() ? string.charAt(i) : 0);
+        }
+        return key ^ Long.MIN_VALUE;
+    }
+
+    /** Returns the first position in [{@code l}; {@code r}) of sorted {@code keys} with key not less than key. */
+    private static int lowerBound(long @NonNull [] keys, int l, int r, long key) {
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (keys[m] < key) {
+                l = m + 1;
+            } else {
+                r = m;
+            }
+        }
+        return l;
+    }
+
+    /** Returns the first position in [{@code l}; {@code r}) of sorted {@code keys} with key greater than key. */
+    private static int upperBound(long @NonNull [] keys, int l, int r, long key) {
+        while (l < r) {
+            int m = (l + r) >>> 1;
+            if (keys[m] <= key) {
+                l = m + 1;
+            } else {
+                r = m;
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Sorts each run of strings with equal keys in the part of the array sorted by keys from {@code l} (inclusive)
+     * to {@code r} (exclusive). The part is split at the run boundaries, a single long run is sorted by
+     * parallel quick sort.
+     */
+    private static class TiesAction extends RecursiveAction {
+        private final String[] array;
+        private final long[] keys;
+        private final int l;
+        private final int r;
+        private final Comparator<String> comparator;
+
+        TiesAction(@NonNull String[] array, long @NonNull [] keys, int l, int r,
+                   @NonNull Comparator<String> comparator) {
+            this.array = array;
+            this.keys = keys;
+            this.l = l;
+            this.r = r;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (keys[l] == keys[r - 1]) {
+                new ParallelQuickSort.SortAction<>(array, null, l, r, depthLimit(r - l), comparator).compute();
+                return;
+            }
+            if (r - l <= BLOCK) {
+                for (int i = l; i < r; ) {
+                    int j = upperBound(keys, i, r, keys[i]);
+                    SingleThreadQuickSort.sort(array, i, j, depthLimit(j - i), comparator);
+                    i = j;
+                }
+                return;
+            }
+            // keys[l] and keys[r - 1] differ, so there is a run boundary to split at
+            int m = (l + r) >>> 1;
+            m = upperBound(keys, m, r, keys[m - 1]);
+            if (m == r) {
+                m = lowerBound(keys, l, r, keys[r - 1]);
+            }
+            invokeAll(new TiesAction(array, keys, l, m, comparator), new TiesAction(array, keys, m, r, comparator));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.qsort;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class implementing stable MSD radix sort of strings. Before distributing a part of the array by the next
+ * character, the prefix common to all strings of the part is skipped, so long shared prefixes are read
+ * once per string instead of once per comparison as in comparison sorts.
+ * Characters are split into two 8-bit digits so the counting arrays stay small. The largest bucket of a part
+ * is sorted in a loop and only the others recursively, each of them is at most half of the part, so the depth
+ * of the recursion is logarithmic. The buckets are independent, so the parallel sort forks the large ones.
+ */
+public class StringRadixSort {
+    private static final int INSERTION_SORT_BOUND = 16;
+    /** Parts not longer than this are sorted sequentially by the parallel sort. */
+    private static final int SEQUENTIAL_BOUND = 1 << 13;
+    /** Number of different digits, plus one for the end of a string */
+    private static final int RADIX = 256 + 1;
+
+    /** Sorts the {@code array} using MSD radix sort, in the order of {@link String#compareTo}. */
+    public static void radixSort(@NonNull String[] array) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+
+        sort(array, new String[array.length], 0, array.length, 0);
+    }
+
+    /**
+     * Sorts the {@code array} using MSD radix sort in the given fork-join {@code pool}, in the order of
+     * {@link String#compareTo}.
+     */
+    public static void radixSort(@NonNull String[] array, @NonNull ForkJoinPool pool) {
+        Validate.notNull(array, "Array can not be null");
+        Validate.noNullElements(array, "Array can not contain null elements");
+        Validate.notNull(pool, "Pool can not be null");
+
+        pool.invoke(new SortAction(array, new String[array.length], 0, array.length, 0));
+    }
+
+    /**
+     * Sorts the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive), in which all strings
+     * share the first {@code digit} digits, using {@code buffer} for distribution.
+     */
+    private static void sort(@NonNull String[] array, @NonNull String[] buffer, int l, int r, int digit) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            if (digit % 2 == 0) {
+                digit += 2 * commonPrefixLength(array, l, r, digit / 2);
+            }
+            var ends = distribute(array, buffer, l, r, digit);
+            int largest = largestBucket(ends);
+            for (int d = 1; d < RADIX; ++d) {
+                if (d != largest && ends[d] - ends[d - 1] > 1) {
+                    sort(array, buffer, l + ends[d - 1], l + ends[d], digit + 1);
+                }
+            }
+            r = l + ends[largest];
+            l += ends[largest - 1];
+            ++digit;
+        }
+        insertionSort(array, l, r, digit / 2);
+    }
+
+    /**
+     * Distributes the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive) into buckets
+     * by the {@code digit}, stably, and returns the ends of the buckets relative to {@code l}. The bucket of zero
+     * digit holds the strings that ended, they are all equal.
+     */
+    private static int @NonNull [] distribute(@NonNull String[] array, @NonNull String[] buffer, int l, int r,
+                                              int digit) {
+        var count = new int[RADIX + 1];
+        for (int i = l; i < r; ++i) {
+            ++count[digit(array[i], digit) + 1];
+        }
+        for (int i = 0; i < RADIX; ++i) {
+            count[i + 1] += count[i];
+        }
+        // count[d] is now the start of the bucket of digit d
+        for (int i = l; i < r; ++i) {
+            buffer[l + count[digit(array[i], digit)]++] = array[i];
+        }
+        System.arraycopy(buffer, l, array, l, r - l);
+        return count;
+    }
+
+    /** Returns the largest bucket of a non-zero digit by the {@code ends} of the buckets. */
+    private static int largestBucket(int @NonNull [] ends) {
+        int largest = 1;
+        for (int d = 2; d < RADIX; ++d) {
+            if (ends[d] - ends[d - 1] > ends[largest] - ends[largest - 1]) {
+                largest = d;
+            }
+        }
+        return largest;
+    }
+
+    /** Returns the digit on the given position plus one, or zero if the string is shorter. */
+    private static int digit(@NonNull String string, int digit) {
+        int index = digit / 2;
+        if (index >= string.length()) {
+            return 0;
+        }
+        char c = string.charAt(index);
+        return (digit % 2 == 0 ? c >>> 8 : c & 0xff) + 1;
+    }
+
+    /** Returns the length of the prefix common to all strings in the part after the first {@code start} chars. */
+    private static int commonPrefixLength(@NonNull String[] array, int l, int r, int start) {
+        var first = array[l];
+        int length = first.length() - start;
+        for (int i = l + 1; i < r && length > 0; ++i) {
+            var string = array[i];
+            length = Math.min(length, string.length() - start);
+            int k = 0;
+            while (k < length && string.charAt(start + k) == first.charAt(start + k)) {
+                ++k;
+            }
+            length = k;
+        }
+        return Math.max(length, 0);
+    }
+
+    /**
+     * Stable insertion sort of the part of {@code array} from {@code l} (inclusive) to {@code r} (exclusive),
+     * in which all strings share the first {@code start} chars.
+     */
+    private static void insertionSort(@NonNull String[] array, int l, int r, int start) {
+        for (int i = l + 1; i < r; ++i) {
+            var value = array[i];
+            int j = i;
+            for (; j > l && compareFrom(array[j - 1], value, start) > 0; --j) {
+                array[j] = array[j - 1];
+            }
+            array[j] = value;
+        }
+    }
+
+    /** Compares strings like {@link String#compareTo}, knowing that the first {@code start} chars are equal. */
+    static int compareFrom(@NonNull String a, @NonNull String b, int start) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = start; i < length; ++i) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /** Task sorting a part of the array like {@link #sort}, forking the buckets longer than the sequential bound */
+    private static class SortAction extends RecursiveAction {
+        private final String[] array;
+        private final String[] buffer;
+        private final int l;
+        private final int r;
+        private final int digit;
+
+        private SortAction(@NonNull String[] array, @NonNull String[] buffer, int l, int r, int digit) {
+            this.array = array;
+            this.buffer = buffer;
+            this.l = l;
+            this.r = r;
+            this.digit = digit;
+        }
+
+        @Override
+        protected void compute() {
+            var tasks = new ArrayList<SortAction>();
+            int l = this.l;
+            int r = this.r;
+            int digit = this.digit;
+            while (r - l > SEQUENTIAL_BOUND) {
+                if (digit % 2 == 0) {
+                    digit += 2 * commonPrefixLength(array, l, r, digit / 2);
+                }
+                var ends = distribute(array, buffer, l, r, digit);
+                int largest = largestBucket(ends);
+                for (int d = 1; d < RADIX; ++d) {
+                    int size = ends[d] - ends[d - 1];
+                    if (d == largest || size <= 1) {
+                        continue;
+                    }
+                    if (size > SEQUENTIAL_BOUND) {
+                        var task = new SortAction(array, buffer, l + ends[d - 1], l + ends[d], digit + 1);
+                        task.fork();
+                        tasks.add(task);
+                    } else {
+                        sort(array, buffer, l + ends[d - 1], l + ends[d], digit + 1);
+                    }
+                }
+                r = l + ends[largest];
+                l += ends[largest - 1];
+                ++digit;
+            }
+            sort(array, buffer, l, r, digit);
+            for (var task : tasks) {
+                task.join();
+            }
+        }
+    }
+}
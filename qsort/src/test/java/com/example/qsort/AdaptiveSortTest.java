@@ -0,0 +1,84 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveSortTest extends SortTestBase {
+    private static final int SIZE = 100000;
+    /** Pairs of a key and the original position, compared only by the key */
+    private static final Comparator<int[]> BY_KEY = Comparator.comparingInt(pair -> pair[0]);
+
+    @Override
+    <T extends Comparable<? super T>> void sort(T[] array) {
+        AdaptiveSort.sort(array);
+    }
+
+    @Test
+    void testAppendedBatchIsSortedStably() {
+        // a sorted array with a random batch at the end is merged, so equal keys keep their order
+        var random = new Random(209);
+        var keys = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            keys[i] = i < SIZE * 9 / 10 ? i / 10 : random.nextInt(SIZE / 10);
+        }
+        checkStableSort(keys, AdaptiveSort::sort);
+        checkStableSort(keys, (array, comparator) -> AdaptiveSort.sort(array, new ForkJoinPool(3), comparator));
+    }
+
+    @Test
+    void testSawtoothIsSortedStably() {
+        // ascending and strictly descending teeth of different lengths
+        var keys = new int[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            int tooth = i / 1000;
+            keys[i] = tooth % 2 == 0 ? i % 1000 : 1000 - i % 1000 + tooth % 7;
+        }
+        checkStableSort(keys, AdaptiveSort::sort);
+        checkStableSort(keys, (array, comparator) -> AdaptiveSort.sort(array, new ForkJoinPool(3), comparator));
+    }
+
+    @Test
+    void testRandomArray() {
+        var array = new Random(209).ints(SIZE).boxed().toArray(Integer[]::new);
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected);
+        var copy = Arrays.copyOf(array, array.length);
+        AdaptiveSort.sort(copy);
+        assertArrayEquals(expected, copy);
+        AdaptiveSort.sort(array, new ForkJoinPool(3));
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void testComparator() {
+        checkSortWithComparator(AdaptiveSort::sort);
+        checkSortWithComparator((array, comparator) -> AdaptiveSort.sort(array, new ForkJoinPool(3), comparator));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> AdaptiveSort.sort((Integer[]) null));
+        assertThrows(NullPointerException.class, () -> AdaptiveSort.sort(new Integer[]{1, 2}, (ForkJoinPool) null));
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveSort.sort(new Integer[]{null, null}));
+    }
+
+    private static void checkStableSort(int[] keys, BiConsumer<int[][], Comparator<int[]>> sort) {
+        var array = new int[keys.length][];
+        for (int i = 0; i < keys.length; ++i) {
+            array[i] = new int[]{keys[i], i};
+        }
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected, BY_KEY); // stable too
+        sort.accept(array, BY_KEY);
+        // arrays are compared by identity, so this also checks the order of the equal keys
+        assertArrayEquals(expected, array);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.qsort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Comparator of indices which decides the values lazily so that the pivot candidates turn out to be
+ * as small as possible, see M. D. McIlroy, "A Killer Adversary for Quicksort".
+ */
+class Adversary implements Comparator<Integer> {
+    private static final int INSERTION_SORT_BOUND = 32;
+
+    private final int[] values;
+    private final int gas;
+    private int solid;
+    private int candidate;
+    private long comparisons;
+
+    Adversary(int size) {
+        values = new int[size];
+        gas = size;
+        Arrays.fill(values, gas);
+    }
+
+    @Override
+    public int compare(Integer x, Integer y) {
+        ++comparisons;
+        if (values[x] == gas && values[y] == gas) {
+            values[x == candidate ? x : y] = solid++;
+        }
+        if (values[x] == gas) {
+            candidate = x;
+        } else if (values[y] == gas) {
+            candidate = y;
+        }
+        return Integer.compare(values[x], values[y]);
+    }
+
+    long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Plays against the key sort of {@link KeySortUtils} without its depth limit, by a copy of its partitioning
+     * comparing the indices by this adversary, and returns the decided values as keys. The sort compares
+     * the pairs of these keys and positions exactly as the copy compared the indices, so they make it as slow.
+     */
+    long[] keySortKillerKeys() {
+        var indices = IntStream.range(0, values.length).boxed().toArray(Integer[]::new);
+        sort(indices, 0, indices.length);
+        return Arrays.stream(values).asLongStream().toArray();
+    }
+
+    private void sort(Integer[] array, int l, int r) {
+        while (r - l > INSERTION_SORT_BOUND) {
+            int m = partition(array, l, r);
+            if (m - l < r - m) {
+                sort(array, l, m);
+                l = m;
+            } else {
+                sort(array, m, r);
+                r = m;
+            }
+        }
+        for (int i = l + 1; i < r; ++i) {
+            for (int j = i; j > l && compare(array[j], array[j - 1]) < 0; --j) {
+                swap(array, j - 1, j);
+            }
+        }
+    }
+
+    private int partition(Integer[] array, int l, int r) {
+        int last = r - 1;
+        int middle = (l + last) >>> 1;
+        if (compare(array[middle], array[l]) < 0) {
+            swap(array, middle, l);
+        }
+        if (compare(array[last], array[middle]) < 0) {
+            swap(array, last, middle);
+            if (compare(array[middle], array[l]) < 0) {
+                swap(array, middle, l);
+            }
+        }
+        Integer pivot = array[middle];
+        int i = l - 1;
+        int j = r;
+        while (true) {
+            do {
+                ++i;
+            } while (compare(array[i], pivot) < 0);
+            do {
+                --j;
+            } while (compare(pivot, array[j]) < 0);
+            if (i >= j) {
+                return j + 1;
+            }
+            swap(array, i, j);
+        }
+    }
+
+    private static void swap(Integer[] array, int i, int j) {
+        var tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.qsort;
+
+import com.example.qsort.ByteBufferSort.KeyType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteBufferSortTest {
+    private static final int RECORD_SIZE = 23;
+    private static final int KEY_OFFSET = 3;
+
+    @Test
+    void testIntKeys() {
+        var buffer = randomRecords(ByteBuffer.allocate(10000 * RECORD_SIZE), 1000);
+        var expected = expectedRecords(buffer, Comparator.comparingInt(record -> record.getInt(KEY_OFFSET)));
+        ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.INT, KEY_OFFSET, Integer.BYTES);
+        checkSorted(expected, buffer);
+    }
+
+    @Test
+    void testLongKeysLittleEndian() {
+        var buffer = randomRecords(ByteBuffer.allocateDirect(10000 * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN), 0);
+        var expected = expectedRecords(buffer, Comparator.comparingLong(record -> record.getLong(KEY_OFFSET)));
+        ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.LONG, KEY_OFFSET, Long.BYTES);
+        checkSorted(expected, buffer);
+    }
+
+    @Test
+    void testByteKeys() {
+        // 11 bytes: one long and three single bytes, with few distinct values so ties are common
+        var buffer = randomRecords(ByteBuffer.allocate(10000 * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN), 4);
+        var expected = expectedRecords(buffer, (a, b) -> Arrays.compareUnsigned(a.array(), KEY_OFFSET,
+                                                                                 KEY_OFFSET + 11, b.array(),
+                                                                                 KEY_OFFSET, KEY_OFFSET + 11));
+        ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.BYTES, KEY_OFFSET, 11);
+        checkSorted(expected, buffer);
+    }
+
+    @Test
+    void testParallel() {
+        // with a position and limit inside the buffer, and large enough to be split into tasks
+        var buffer = randomRecords(ByteBuffer.allocate(100002 * RECORD_SIZE), 0);
+        buffer.position(RECORD_SIZE).limit(100001 * RECORD_SIZE);
+        var expected = expectedRecords(buffer, Comparator.comparingInt(record -> record.getInt(KEY_OFFSET)));
+        var first = Arrays.copyOf(buffer.array(), RECORD_SIZE);
+        ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.INT, KEY_OFFSET, Integer.BYTES, new ForkJoinPool(3));
+        checkSorted(expected, buffer);
+        assertArrayEquals(first, Arrays.copyOf(buffer.array(), RECORD_SIZE));
+        assertEquals(RECORD_SIZE, buffer.position());
+    }
+
+    @Test
+    void testMappedBuffer() throws IOException {
+        var file = Files.createTempFile("byte-buffer-sort-test", ".bin");
+        try {
+            Files.write(file, randomRecords(ByteBuffer.allocate(1000 * RECORD_SIZE), 0).array());
+            try (var channel = FileChannel.open(file, READ, WRITE)) {
+                var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                var expected = expectedRecords(buffer, Comparator.comparingLong(record -> record.getLong(KEY_OFFSET)));
+                ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.LONG, KEY_OFFSET, Long.BYTES, new ForkJoinPool(2));
+                checkSorted(expected, buffer);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testExceptions() {
+        var buffer = ByteBuffer.allocate(10 * RECORD_SIZE);
+        assertThrows(NullPointerException.class, () -> ByteBufferSort.sort(null, RECORD_SIZE, KeyType.INT, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferSort.sort(buffer, 7, KeyType.INT, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.INT, 0, 8));
+        assertThrows(IllegalArgumentException.class,
+                     () -> ByteBufferSort.sort(buffer, RECORD_SIZE, KeyType.LONG, 16, 8));
+        assertThrows(IllegalArgumentException.class,
+                     () -> ByteBufferSort.sort(buffer.asReadOnlyBuffer(), RECORD_SIZE, KeyType.INT, 0, 4));
+    }
+
+    /**
+     * Fills the buffer with random records, and if {@code bound} is positive, with key bytes in [0, bound)
+     * so there are many equal keys.
+     */
+    private static ByteBuffer randomRecords(ByteBuffer buffer, int bound) {
+        var random = new Random(209);
+        for (int i = 0; i < buffer.capacity(); ++i) {
+            int inKey = (i % RECORD_SIZE) - KEY_OFFSET;
+            buffer.put(i, (byte) (bound > 0 && inKey >= 0 && inKey < 11 ? random.nextInt(bound) : random.nextInt()));
+        }
+        return buffer;
+    }
+
+    /** Returns the records between position and limit */
+    private static byte[][] records(ByteBuffer buffer) {
+        var records = new byte[buffer.remaining() / RECORD_SIZE][RECORD_SIZE];
+        for (int i = 0; i < records.length; ++i) {
+            for (int j = 0; j < RECORD_SIZE; ++j) {
+                records[i][j] = buffer.get(buffer.position() + i * RECORD_SIZE + j);
+            }
+        }
+        return records;
+    }
+
+    /** Sorted records of the buffer and the comparator of their keys */
+    private static class Expected {
+        private final byte[][] records;
+        private final Comparator<byte[]> byKey;
+
+        private Expected(byte[][] records, Comparator<byte[]> byKey) {
+            this.records = records;
+            this.byKey = byKey;
+        }
+    }
+
+    /**
+     * Returns the records sorted by the comparator of the records wrapped into buffers of the original byte order,
+     * with ties broken by all bytes, since the sort is not stable.
+     */
+    private static Expected expectedRecords(ByteBuffer buffer, Comparator<ByteBuffer> comparator) {
+        var order = buffer.order();
+        Comparator<byte[]> byKey = (a, b) -> comparator.compare(ByteBuffer.wrap(a).order(order),
+                                                                ByteBuffer.wrap(b).order(order));
+        var records = records(buffer);
+        Arrays.sort(records, byKey.thenComparing(Arrays::compare));
+        return new Expected(records, byKey);
+    }
+
+    /** Checks the records of the buffer are ordered by key and are a permutation of the expected ones */
+    private static void checkSorted(Expected expected, ByteBuffer buffer) {
+        var records = records(buffer);
+        for (int i = 1; i < records.length; ++i) {
+            assertTrue(expected.byKey.compare(records[i - 1], records[i]) <= 0);
+        }
+        Arrays.sort(records, expected.byKey.thenComparing(Arrays::compare));
+        assertArrayEquals(expected.records, records);
+    }
+}
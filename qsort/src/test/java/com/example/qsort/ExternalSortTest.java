@@ -0,0 +1,166 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSortTest {
+    private static final int RECORD_SIZE = 20;
+    private static final int KEY_OFFSET = 4;
+
+    private Path directory;
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    void createFiles() throws IOException {
+        directory = Files.createTempDirectory("external-sort-test");
+        input = directory.resolve("input.bin");
+        output = directory.resolve("output.bin");
+    }
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (var file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void testSingleChunk() throws IOException {
+        writeRecords(1000, 1 << 20);
+        var report = ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET, 1 << 20, new ForkJoinPool(2), directory);
+        checkOutput(1000);
+        assertEquals(1, report.getRuns());
+        assertEquals(0, report.getMergePasses());
+    }
+
+    @Test
+    void testOneMergePass() throws IOException {
+        writeRecords(10000, 100);
+        var report = ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET, 1000 * RECORD_SIZE,
+                                       new ForkJoinPool(2), directory);
+        checkOutput(10000);
+        assertEquals(10, report.getRuns());
+        assertEquals(1, report.getMergePasses());
+        assertEquals(2L * 10000 * RECORD_SIZE, report.getBytesRead());
+        assertEquals(2L * 10000 * RECORD_SIZE, report.getBytesWritten());
+    }
+
+    @Test
+    void testSeveralMergePasses() throws IOException {
+        // more than MAX_MERGE_WAYS runs of 3 records, with duplicate keys to check stability across runs
+        writeRecords(3 * ExternalSort.MAX_MERGE_WAYS + 10, 50);
+        var report = ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET, 3 * RECORD_SIZE + 1,
+                                       new ForkJoinPool(2), directory);
+        checkOutput(3 * ExternalSort.MAX_MERGE_WAYS + 10);
+        assertEquals(ExternalSort.MAX_MERGE_WAYS + 4, report.getRuns());
+        assertEquals(2, report.getMergePasses());
+    }
+
+    @Test
+    void testEmptyInput() throws IOException {
+        writeRecords(0, 1);
+        ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET);
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void testTemporaryFilesAreDeleted() throws IOException {
+        writeRecords(10000, 100);
+        ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET, 1000 * RECORD_SIZE, new ForkJoinPool(2), directory);
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void testTemporaryFilesAreDeletedOnFailure() throws IOException {
+        writeRecords(3 * ExternalSort.MAX_MERGE_WAYS + 10, 50);
+        // the last merge can not write into a non-empty directory
+        Files.createDirectory(output);
+        Files.write(output.resolve("file"), new byte[1]);
+        assertThrows(IOException.class, () -> ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET,
+                                                                3 * RECORD_SIZE + 1, new ForkJoinPool(2), directory));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void testAdversarialChunk() throws IOException {
+        // keys crafted against the partitioning of the chunk sort, which has to fall back to heap sort
+        int count = 20000;
+        writeRecords(new Adversary(count).keySortKillerKeys());
+        var pool = new ForkJoinPool(1);
+        try {
+            var report = ExternalSort.sort(input, output, RECORD_SIZE, KEY_OFFSET, count * RECORD_SIZE, pool, directory);
+            assertEquals(1, report.getRuns());
+        } finally {
+            pool.shutdown();
+        }
+        checkOutput(count);
+    }
+
+    @Test
+    void testExceptions() throws IOException {
+        writeRecords(10, 10);
+        assertThrows(NullPointerException.class, () -> ExternalSort.sort(null, output, RECORD_SIZE, KEY_OFFSET));
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.sort(input, output, RECORD_SIZE, 13));
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.sort(input, output, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> ExternalSort.sort(input, output, RECORD_SIZE + 1, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> ExternalSort.sort(input, output, RECORD_SIZE, 0, 10, ForkJoinPool.commonPool(), directory));
+    }
+
+    /** Writes records with random keys in [0, keyBound), negated for the odd ones, and the index after the key */
+    private void writeRecords(int count, int keyBound) throws IOException {
+        var random = new Random(209);
+        var keys = new long[count];
+        for (int i = 0; i < count; ++i) {
+            int key = random.nextInt(keyBound);
+            keys[i] = i % 2 == 0 ? key : -key;
+        }
+        writeRecords(keys);
+    }
+
+    /** Writes records with the given keys and the index after the key */
+    private void writeRecords(long[] keys) throws IOException {
+        var buffer = ByteBuffer.allocate(keys.length * RECORD_SIZE);
+        for (int i = 0; i < keys.length; ++i) {
+            buffer.putLong(i * RECORD_SIZE + KEY_OFFSET, keys[i]);
+            buffer.putInt(i * RECORD_SIZE + KEY_OFFSET + Long.BYTES, i);
+        }
+        Files.write(input, buffer.array());
+    }
+
+    /** Checks the output is a permutation of the input records sorted by key, and then by index for stability */
+    private void checkOutput(int count) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(output));
+        assertEquals(count * RECORD_SIZE, buffer.capacity());
+        var seen = new boolean[count];
+        for (int i = 0; i < count; ++i) {
+            int index = buffer.getInt(i * RECORD_SIZE + KEY_OFFSET + Long.BYTES);
+            assertFalse(seen[index]);
+            seen[index] = true;
+            if (i > 0) {
+                long previousKey = buffer.getLong((i - 1) * RECORD_SIZE + KEY_OFFSET);
+                long key = buffer.getLong(i * RECORD_SIZE + KEY_OFFSET);
+                int previousIndex = buffer.getInt((i - 1) * RECORD_SIZE + KEY_OFFSET + Long.BYTES);
+                assertTrue(previousKey < key || previousKey == key && previousIndex < index);
+            }
+        }
+    }
+}
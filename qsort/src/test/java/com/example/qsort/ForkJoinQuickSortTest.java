@@ -0,0 +1,49 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ForkJoinQuickSortTest extends SortTestBase {
+    @Override
+    <T extends Comparable<? super T>> void sort(T[] array) {
+        ParallelQuickSort.quickSort(array);
+    }
+
+    @Test
+    void testLargeRandomArray() {
+        // large enough to be split into many tasks
+        var array = new Random(209).ints(200000, 0, 1000).boxed().toArray(Integer[]::new);
+        var arrayCopy = Arrays.copyOf(array, array.length);
+        Arrays.sort(arrayCopy);
+        ParallelQuickSort.quickSort(array, new ForkJoinPool(3));
+        assertArrayEquals(arrayCopy, array);
+    }
+
+    @Test
+    void testParallelPartitions() {
+        // large enough for the first partitions to be parallel, with many duplicates of the pivot
+        var array = new Random(209).ints(1 << 20, 0, 100).boxed().toArray(Integer[]::new);
+        var arrayCopy = Arrays.copyOf(array, array.length);
+        Arrays.sort(arrayCopy);
+        ParallelQuickSort.quickSort(array, new ForkJoinPool(4));
+        assertArrayEquals(arrayCopy, array);
+    }
+
+    @Test
+    void testComparator() {
+        checkSortWithComparator((array, comparator) -> ParallelQuickSort.quickSort(array, new ForkJoinPool(3), comparator));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort((Integer[]) null));
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort(new Integer[]{1, 2}, (ForkJoinPool) null));
+        assertThrows(IllegalArgumentException.class, () -> ParallelQuickSort.quickSort(new Integer[]{null, null}));
+    }
+}
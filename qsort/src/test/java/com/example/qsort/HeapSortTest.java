@@ -0,0 +1,10 @@
+package com.example.qsort;
+
+import java.util.Comparator;
+
+class HeapSortTest extends SortTestBase {
+    @Override
+    <T extends Comparable<? super T>> void sort(T[] array) {
+        QuickSortUtils.heapSort(array, 0, array.length, Comparator.naturalOrder());
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.qsort;
 
+import java.util.Comparator;
+
 class InsertionSortTest extends SortTestBase {
     @Override
     <T extends Comparable<? super T>> void sort(T[] array) {
-        QuickSortUtils.insertionSort(array, 0, array.length);
+        QuickSortUtils.insertionSort(array, 0, array.length, Comparator.naturalOrder());
     }
 }
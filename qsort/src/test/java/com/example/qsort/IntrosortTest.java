@@ -0,0 +1,52 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Checks that the quick sorts stay O(n log n) against McIlroy's "killer adversary" for quick sort. */
+class IntrosortTest {
+    private static final int SIZE = 20000;
+
+    @Test
+    void testSingleThreadQuickSort() {
+        checkAdversary(SingleThreadQuickSort::quickSort);
+    }
+
+    @Test
+    void testForkJoinQuickSort() {
+        var pool = new ForkJoinPool(1);
+        try {
+            checkAdversary((array, comparator) -> ParallelQuickSort.quickSort(array, pool, comparator));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testImmediateHeapSortFallback() {
+        var adversary = new Adversary(SIZE);
+        var array = IntStream.range(0, SIZE).boxed().toArray(Integer[]::new);
+        SingleThreadQuickSort.sort(array, 0, array.length, 0, adversary);
+        for (int i = 1; i < array.length; ++i) {
+            assertTrue(adversary.compare(array[i - 1], array[i]) <= 0);
+        }
+    }
+
+    private static void checkAdversary(BiConsumer<Integer[], Comparator<Integer>> sort) {
+        var adversary = new Adversary(SIZE);
+        var array = IntStream.range(0, SIZE).boxed().toArray(Integer[]::new);
+        sort.accept(array, adversary);
+        long comparisons = adversary.getComparisons();
+        for (int i = 1; i < array.length; ++i) {
+            assertTrue(adversary.compare(array[i - 1], array[i]) <= 0);
+        }
+        double log = Math.log(SIZE) / Math.log(2);
+        assertTrue(comparisons < 10 * SIZE * log, "too many comparisons: " + comparisons);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeySortTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(3);
+
+    @Test
+    void testIntKeySingleThread() {
+        checkSortIsStable(array -> SingleThreadQuickSort.quickSortByIntKey(array, Item::getIntKey),
+                          Comparator.comparingInt(Item::getIntKey));
+    }
+
+    @Test
+    void testIntKeyParallel() {
+        checkSortIsStable(array -> ParallelQuickSort.quickSortByIntKey(array, POOL, Item::getIntKey),
+                          Comparator.comparingInt(Item::getIntKey));
+    }
+
+    @Test
+    void testLongKeySingleThread() {
+        checkSortIsStable(array -> SingleThreadQuickSort.quickSortByLongKey(array, Item::getLongKey),
+                          Comparator.comparingLong(Item::getLongKey));
+    }
+
+    @Test
+    void testLongKeyParallel() {
+        checkSortIsStable(array -> ParallelQuickSort.quickSortByLongKey(array, POOL, Item::getLongKey),
+                          Comparator.comparingLong(Item::getLongKey));
+    }
+
+    @Test
+    void testExtremeKeys() {
+        var array = new Item[]{new Item(Integer.MAX_VALUE, 0), new Item(Integer.MIN_VALUE, 1), new Item(-1, 2),
+                               new Item(0, 3), new Item(Integer.MIN_VALUE, 4)};
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected, Comparator.comparingInt(Item::getIntKey));
+        SingleThreadQuickSort.quickSortByIntKey(array, Item::getIntKey);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void testAdversarialKeys() {
+        int size = 20000;
+        var adversary = new Adversary(size);
+        var keys = adversary.keySortKillerKeys();
+        // the keys make the partitioning alone quadratic, the parallel sort used to overflow the stack on them
+        assertTrue(adversary.getComparisons() > (long) size * size / 100);
+        var array = new Item[size];
+        for (int i = 0; i < size; ++i) {
+            array[i] = new Item((int) keys[i], i);
+        }
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected, Comparator.comparingLong(Item::getLongKey));
+        var singleThreadArray = Arrays.copyOf(array, array.length);
+        SingleThreadQuickSort.quickSortByLongKey(singleThreadArray, Item::getLongKey);
+        assertArrayEquals(expected, singleThreadArray);
+        var pool = new ForkJoinPool(1);
+        try {
+            ParallelQuickSort.quickSortByLongKey(array, pool, Item::getLongKey);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void testHeapSortFallback() {
+        var random = new Random(209);
+        var keys = random.longs(1000, 0, 100).toArray();
+        var positions = KeySortUtils.positions(keys.length);
+        var expectedKeys = Arrays.copyOf(keys, keys.length);
+        KeySortUtils.sort(keys, positions, 0, keys.length, 0);
+        Arrays.sort(expectedKeys);
+        assertArrayEquals(expectedKeys, keys);
+        for (int i = 1; i < keys.length; ++i) {
+            assertTrue(keys[i - 1] < keys[i] || positions[i - 1] < positions[i]);
+        }
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSortByIntKey(null, Item::getIntKey));
+        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSortByLongKey(new Item[0], null));
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSortByIntKey(new Item[0], null));
+        assertThrows(NullPointerException.class,
+                     () -> ParallelQuickSort.quickSortByLongKey(new Item[0], null, Item::getLongKey));
+    }
+
+    /** Sorts random items with many equal keys, large enough for the parallel sorts to split */
+    private void checkSortIsStable(Consumer<Item[]> sort, Comparator<Item> comparator) {
+        var random = new Random(209);
+        for (int size: new int[]{0, 1, 10, 100, 100000}) {
+            var array = new Item[size];
+            for (int i = 0; i < size; ++i) {
+                array[i] = new Item(random.nextInt(2000) - 1000, i);
+            }
+            var expected = Arrays.copyOf(array, array.length);
+            Arrays.sort(expected, comparator); // stable too
+            sort.accept(array);
+            // Item.equals is the identity, so this also checks the order of the equal keys
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    private static class Item {
+        private final int key;
+        private final int position;
+
+        private Item(int key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+
+        private int getIntKey() {
+            return key;
+        }
+
+        /** Key that does not fit into an int but keeps the order of the int key */
+        private long getLongKey() {
+            return key * 10000000000L;
+        }
+
+        @Override
+        public String toString() {
+            return key + "@" + position;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelMergeSortTest extends SortTestBase {
+    @Override
+    <T extends Comparable<? super T>> void sort(T[] array) {
+        ParallelMergeSort.mergeSort(array);
+    }
+
+    @Test
+    void testLargeArrayIsSortedStably() {
+        // large enough to be split into many sorting and merging tasks
+        var random = new Random(209);
+        var array = new Key[200000];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = new Key(random.nextInt(100), i);
+        }
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected); // stable too
+        ParallelMergeSort.mergeSort(array, new ForkJoinPool(3));
+        // Key.equals is the identity, so this also checks the order of the equal keys
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void testComparator() {
+        checkSortWithComparator((array, comparator) -> ParallelMergeSort.mergeSort(array, new ForkJoinPool(3), comparator));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> ParallelMergeSort.mergeSort(null));
+        assertThrows(NullPointerException.class, () -> ParallelMergeSort.mergeSort(new Integer[]{1, 2}, (ForkJoinPool) null));
+        assertThrows(IllegalArgumentException.class, () -> ParallelMergeSort.mergeSort(new Integer[]{null, null}));
+    }
+
+    /** Compared by the key only, the position tells the original order */
+    private static class Key implements Comparable<Key> {
+        private final int key;
+        private final int position;
+
+        private Key(int key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return Integer.compare(key, other.key);
+        }
+
+        @Override
+        public String toString() {
+            return key + "@" + position;
+        }
+    }
+}
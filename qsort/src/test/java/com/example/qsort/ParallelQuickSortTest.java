@@ -10,6 +10,11 @@ class ParallelQuickSortTest extends SortTestBase {
         ParallelQuickSort.quickSort(array, 2);
     }
 
+    @Test
+    void testComparator() {
+        checkSortWithComparator((array, comparator) -> ParallelQuickSort.quickSort(array, 2, comparator));
+    }
+
     @Test
     void testExceptions() {
         assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort(null, 2));
@@ -3,9 +3,14 @@ package com.example.qsort;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
-import static com.example.qsort.QuickSortUtils.partition;
+import static com.example.qsort.QuickSortUtils.*;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PartitionTest {
@@ -24,9 +29,35 @@ class PartitionTest {
         checkPartitioningProcess(ArrayReorderingTestUtils.ARRAY_OF_50_ALTERNATING_INTEGERS, 10);
     }
 
+    @Test
+    void testParallelPartition() {
+        // few distinct values, so all three segments of each block are non-empty
+        var array = new Random(209).ints(1 << 19, 0, 10).boxed().toArray(Integer[]::new);
+        var partition = Arrays.copyOf(array, array.length);
+        int l = 1000;
+        int r = array.length - 1000;
+        var pool = new ForkJoinPool(4);
+        long equalRange = pool.invoke(ForkJoinTask.adapt(
+                () -> parallelPartitionRange(partition, new Integer[array.length], l, r, l + 7,
+                                             Comparator.naturalOrder(), 4)));
+        pool.shutdown();
+        var pivot = array[l + 7];
+        assertArrayEquals(Arrays.copyOfRange(array, 0, l), Arrays.copyOfRange(partition, 0, l));
+        assertArrayEquals(Arrays.copyOfRange(array, r, array.length),
+                          Arrays.copyOfRange(partition, r, array.length));
+        for (int i = l; i < r; ++i) {
+            int expectedComparison = i < rangeStart(equalRange) ? -1 : i < rangeEnd(equalRange) ? 0 : 1;
+            assertEquals(expectedComparison, Integer.signum(partition[i].compareTo(pivot)));
+        }
+        var arrayCopy = Arrays.copyOf(array, array.length);
+        Arrays.sort(arrayCopy);
+        Arrays.sort(partition);
+        assertArrayEquals(arrayCopy, partition);
+    }
+
     void checkPartitioningProcess(Integer[] array, int pivotPosition) {
         var partition = Arrays.copyOf(array, array.length);
-        int bound = partition(partition, 0, array.length, pivotPosition);
+        int bound = partition(partition, 0, array.length, pivotPosition, Comparator.naturalOrder());
         checkIsPartition(array, partition, bound);
     }
 
@@ -0,0 +1,127 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrimitiveQuickSortTest {
+    /** Large enough to be split into many tasks by the parallel sorts */
+    private static final int SIZE = 100000;
+    private static final ForkJoinPool POOL = new ForkJoinPool(3);
+
+    @Test
+    void testIntSingleThread() {
+        checkIntSort(SingleThreadQuickSort::quickSort);
+    }
+
+    @Test
+    void testIntParallel() {
+        checkIntSort(array -> ParallelQuickSort.quickSort(array, POOL));
+    }
+
+    @Test
+    void testLongSingleThread() {
+        checkLongSort(SingleThreadQuickSort::quickSort);
+    }
+
+    @Test
+    void testLongParallel() {
+        checkLongSort(array -> ParallelQuickSort.quickSort(array, POOL));
+    }
+
+    @Test
+    void testDoubleSingleThread() {
+        checkDoubleSort(SingleThreadQuickSort::quickSort);
+    }
+
+    @Test
+    void testDoubleParallel() {
+        checkDoubleSort(array -> ParallelQuickSort.quickSort(array, POOL));
+    }
+
+    @Test
+    void testHeapSortFallback() {
+        checkIntSort(array -> PrimitiveQuickSortUtils.sort(array, 0, array.length, 0));
+        checkLongSort(array -> PrimitiveQuickSortUtils.sort(array, 0, array.length, 0));
+        checkDoubleSort(array -> PrimitiveQuickSortUtils.sortWithSpecialValues(
+                array, (part, l, r) -> PrimitiveQuickSortUtils.sort(part, l, r, 0)));
+        checkIntSort(array -> PrimitiveQuickSortUtils.sort(array, 0, array.length, 3));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSort((int[]) null));
+        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSort((long[]) null));
+        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSort((double[]) null));
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort((int[]) null));
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort((long[]) null));
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort((double[]) null));
+        assertThrows(NullPointerException.class, () -> ParallelQuickSort.quickSort(new int[]{1}, null));
+    }
+
+    /** Random, few distinct values, sorted, reversed, all equal, organ pipe, and some short arrays */
+    static List<int[]> intInputs() {
+        var random = new Random(209);
+        var inputs = new ArrayList<int[]>();
+        inputs.add(random.ints(SIZE).toArray());
+        inputs.add(random.ints(SIZE, 0, 2).toArray());
+        inputs.add(random.ints(SIZE, 0, 100).toArray());
+        inputs.add(IntStream.range(0, SIZE).toArray());
+        inputs.add(IntStream.range(0, SIZE).map(i -> SIZE - i).toArray());
+        inputs.add(new int[SIZE]);
+        inputs.add(IntStream.range(0, SIZE).map(i -> Math.min(i, SIZE - i)).toArray());
+        inputs.add(new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE, 0, -1, 1});
+        inputs.add(new int[]{});
+        for (int size = 1; size < 100; size += 7) {
+            inputs.add(random.ints(size).toArray());
+        }
+        return inputs;
+    }
+
+    private void checkIntSort(Consumer<int[]> sort) {
+        for (var input: intInputs()) {
+            var expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            sort.accept(input);
+            assertArrayEquals(expected, input);
+        }
+    }
+
+    private void checkLongSort(Consumer<long[]> sort) {
+        for (var intInput: intInputs()) {
+            // multiply so the values do not fit in int
+            var input = Arrays.stream(intInput).mapToLong(i -> i * 12345678901L).toArray();
+            var expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            sort.accept(input);
+            assertArrayEquals(expected, input);
+        }
+    }
+
+    private void checkDoubleSort(Consumer<double[]> sort) {
+        var inputs = new ArrayList<double[]>();
+        for (var intInput: intInputs()) {
+            inputs.add(Arrays.stream(intInput).mapToDouble(i -> i / 7.0).toArray());
+        }
+        var random = new Random(209);
+        var special = new double[]{Double.NaN, -0.0d, 0.0d, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1, -1};
+        inputs.add(random.ints(SIZE, 0, special.length).mapToDouble(i -> special[i]).toArray());
+        inputs.add(new double[]{0.0d, -0.0d, 0.0d, -0.0d});
+        inputs.add(new double[]{Double.NaN, Double.NaN});
+        for (var input: inputs) {
+            var expected = Arrays.copyOf(input, input.length);
+            Arrays.sort(expected);
+            sort.accept(input);
+            assertArrayEquals(expected, input);
+        }
+    }
+}
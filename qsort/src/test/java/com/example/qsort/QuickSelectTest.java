@@ -0,0 +1,117 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuickSelectTest {
+    @Test
+    void testSelect() {
+        var array = new Random(209).ints(10000, 0, 1000).boxed().toArray(Integer[]::new);
+        for (int k : new int[]{0, 1, 17, 5000, 9999}) {
+            var copy = Arrays.copyOf(array, array.length);
+            QuickSelect.select(copy, k);
+            checkSelected(array, copy, k, Comparator.naturalOrder());
+        }
+    }
+
+    @Test
+    void testSelectAllEqual() {
+        var array = Arrays.copyOf(ArrayReorderingTestUtils.ARRAY_OF_50_SAME_INTEGERS, 50);
+        QuickSelect.select(array, 25);
+        assertArrayEquals(ArrayReorderingTestUtils.ARRAY_OF_50_SAME_INTEGERS, array);
+    }
+
+    @Test
+    void testParallelSelect() {
+        // large enough for the first partitions to be parallel
+        var array = new Random(209).ints(1 << 19).boxed().toArray(Integer[]::new);
+        var copy = Arrays.copyOf(array, array.length);
+        QuickSelect.select(copy, array.length / 3, new ForkJoinPool(4));
+        checkSelected(array, copy, array.length / 3, Comparator.naturalOrder());
+    }
+
+    @Test
+    void testSelectComparator() {
+        var array = new Random(209).ints(10000, 0, 1000).boxed().toArray(Integer[]::new);
+        array[7] = null;
+        Comparator<Integer> comparator = Comparator.nullsFirst(Comparator.reverseOrder());
+        var copy = Arrays.copyOf(array, array.length);
+        QuickSelect.select(copy, 100, comparator);
+        checkSelected(array, copy, 100, comparator);
+        QuickSelect.select(copy, 0, new ForkJoinPool(2), comparator);
+        assertNull(copy[0]);
+    }
+
+    @Test
+    void testPartialSort() {
+        var array = new Random(209).ints(10000).boxed().toArray(Integer[]::new);
+        var sorted = Arrays.copyOf(array, array.length);
+        Arrays.sort(sorted);
+        for (int k : new int[]{0, 10, 1000, 10000}) {
+            var copy = Arrays.copyOf(array, array.length);
+            QuickSelect.partialSort(copy, k);
+            assertArrayEquals(Arrays.copyOf(sorted, k), Arrays.copyOf(copy, k));
+            checkPermutation(array, copy);
+        }
+    }
+
+    @Test
+    void testParallelPartialSort() {
+        var array = new Random(209).ints(1 << 19).boxed().toArray(Integer[]::new);
+        var sorted = Arrays.copyOf(array, array.length);
+        Arrays.sort(sorted);
+        var copy = Arrays.copyOf(array, array.length);
+        QuickSelect.partialSort(copy, 100000, new ForkJoinPool(4));
+        assertArrayEquals(Arrays.copyOf(sorted, 100000), Arrays.copyOf(copy, 100000));
+        checkPermutation(array, copy);
+    }
+
+    @Test
+    void testTopK() {
+        var list = new Random(209).ints(10000).boxed().collect(Collectors.toList());
+        var sorted = list.stream().sorted().collect(Collectors.toList());
+        assertEquals(sorted.subList(0, 10), QuickSelect.topK(list, 10));
+        assertEquals(sorted, QuickSelect.topK(list, 20000));
+        assertEquals(List.of(), QuickSelect.topK(list, 0));
+        assertEquals(List.of(3, 2), QuickSelect.topK(List.of(1, 2, 3), 2, Comparator.reverseOrder()));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> QuickSelect.select((Integer[]) null, 0));
+        assertThrows(IllegalArgumentException.class, () -> QuickSelect.select(new Integer[]{1, 2}, 2));
+        assertThrows(IllegalArgumentException.class, () -> QuickSelect.select(new Integer[]{}, 0));
+        assertThrows(IllegalArgumentException.class, () -> QuickSelect.partialSort(new Integer[]{1, 2}, 3));
+        assertThrows(IllegalArgumentException.class, () -> QuickSelect.partialSort(new Integer[]{1, null}, 1));
+        assertThrows(NullPointerException.class,
+                     () -> QuickSelect.partialSort(new Integer[]{1, 2}, 1, (ForkJoinPool) null));
+        assertThrows(IllegalArgumentException.class, () -> QuickSelect.topK(List.of(1), -1));
+    }
+
+    private static void checkSelected(Integer[] array, Integer[] selected, int k, Comparator<Integer> comparator) {
+        var sorted = Arrays.copyOf(array, array.length);
+        Arrays.sort(sorted, comparator);
+        assertEquals(sorted[k], selected[k]);
+        for (int i = 0; i < selected.length; ++i) {
+            int comparison = comparator.compare(selected[i], selected[k]);
+            assertTrue(i < k ? comparison <= 0 : comparison >= 0);
+        }
+        checkPermutation(array, selected);
+    }
+
+    private static void checkPermutation(Integer[] array, Integer[] reordered) {
+        var arrayCopy = Arrays.copyOf(array, array.length);
+        var reorderedCopy = Arrays.copyOf(reordered, reordered.length);
+        Arrays.sort(arrayCopy, Comparator.nullsFirst(Comparator.naturalOrder()));
+        Arrays.sort(reorderedCopy, Comparator.nullsFirst(Comparator.naturalOrder()));
+        assertArrayEquals(arrayCopy, reorderedCopy);
+    }
+}
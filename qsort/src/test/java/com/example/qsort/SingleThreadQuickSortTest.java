@@ -11,9 +11,14 @@ class SingleThreadQuickSortTest extends SortTestBase
         SingleThreadQuickSort.quickSort(array);
     }
 
+    @Test
+    void testComparator() {
+        checkSortWithComparator((array, comparator) -> SingleThreadQuickSort.quickSort(array, comparator));
+    }
+
     @Test
     void testExceptions() {
-        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSort(null));
+        assertThrows(NullPointerException.class, () -> SingleThreadQuickSort.quickSort((Integer[]) null));
         assertThrows(IllegalArgumentException.class, () -> SingleThreadQuickSort.quickSort(new Integer[]{null, null}));
     }
 }
\ No newline at end of file
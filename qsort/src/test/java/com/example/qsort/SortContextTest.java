@@ -0,0 +1,107 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortContextTest extends SortTestBase {
+    private final SortContext context = new SortContext(3, 1000);
+
+    @AfterEach
+    void close() {
+        context.close();
+    }
+
+    @Override
+    <T extends Comparable<? super T>> void sort(T[] array) {
+        context.quickSort(array);
+    }
+
+    @Test
+    void testQuickSortLargeArrays() {
+        // larger than the bound for parallel partitions, then smaller arrays reusing the same scratch buffer
+        for (int size : new int[]{1 << 18, 100000, 500}) {
+            var array = new Random(size).ints(size, 0, 1000).boxed().toArray(Integer[]::new);
+            var expected = Arrays.copyOf(array, array.length);
+            Arrays.sort(expected);
+            context.quickSort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    void testMergeSortIsStable() {
+        for (int size : new int[]{100000, 500}) {
+            var random = new Random(size);
+            var array = new int[size][];
+            for (int i = 0; i < size; ++i) {
+                array[i] = new int[]{random.nextInt(100), i};
+            }
+            Comparator<int[]> byKey = Comparator.comparingInt(pair -> pair[0]);
+            var expected = Arrays.copyOf(array, array.length);
+            Arrays.sort(expected, byKey); // stable too
+            context.mergeSort(array, byKey);
+            // arrays are compared by identity, so this also checks the order of the equal keys
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    void testComparator() {
+        checkSortWithComparator(context::quickSort);
+        checkSortWithComparator(context::mergeSort);
+    }
+
+    @Test
+    void testConcurrentCallers() throws Exception {
+        int callers = 4;
+        var barrier = new CyclicBarrier(callers);
+        var failures = new ArrayList<Throwable>();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < callers; ++i) {
+            int seed = i;
+            var thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int j = 0; j < 20; ++j) {
+                        var array = new Random(seed * 100 + j).ints(20000).boxed().toArray(Integer[]::new);
+                        var expected = Arrays.copyOf(array, array.length);
+                        Arrays.sort(expected);
+                        if (j % 2 == 0) {
+                            context.quickSort(array);
+                        } else {
+                            context.mergeSort(array);
+                        }
+                        assertArrayEquals(expected, array);
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(new ArrayList<Throwable>(), failures);
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> context.quickSort((Integer[]) null));
+        assertThrows(IllegalArgumentException.class, () -> context.mergeSort(new Integer[]{1, null}));
+        assertThrows(IllegalArgumentException.class, () -> new SortContext(0));
+        context.close();
+        assertThrows(IllegalStateException.class, () -> context.quickSort(new Integer[]{2, 1}));
+    }
+}
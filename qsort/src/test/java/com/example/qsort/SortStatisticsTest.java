@@ -0,0 +1,124 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortStatisticsTest {
+    private static final int SIZE = 100000;
+
+    @Test
+    void testSingleThreadQuickSort() {
+        var array = randomArray(SIZE);
+        var comparisons = new AtomicLong();
+        var statistics = new SortStatistics();
+        SingleThreadQuickSort.quickSort(array, countingComparator(comparisons), statistics);
+        checkSorted(array);
+
+        assertEquals(comparisons.get(), statistics.getComparisons());
+        assertTrue(statistics.getSwaps() > 0);
+        assertTrue(statistics.getPartitions() > 0);
+        assertTrue(statistics.getMaxDepth() > 0);
+        assertTrue(statistics.getMaxDepth() <= QuickSortUtils.depthLimit(SIZE));
+        assertTrue(statistics.getAverageSmallerPartFraction() > 0.1);
+        assertEquals(0, statistics.getTasks());
+        assertTrue(statistics.getPhaseTime(SortListener.Phase.PARTITION) > 0);
+        assertTrue(statistics.getPhaseTime(SortListener.Phase.INSERTION_SORT) > 0);
+        assertEquals(0, statistics.getPhaseTime(SortListener.Phase.HEAP_SORT));
+        assertTrue(statistics.getTotalTime() > 0);
+    }
+
+    @Test
+    void testForkJoinQuickSort() {
+        var array = randomArray(SIZE);
+        var comparisons = new AtomicLong();
+        var statistics = new SortStatistics();
+        var pool = new ForkJoinPool(3);
+        try {
+            ParallelQuickSort.quickSort(array, pool, countingComparator(comparisons), statistics);
+        } finally {
+            pool.shutdown();
+        }
+        checkSorted(array);
+
+        assertEquals(comparisons.get(), statistics.getComparisons());
+        assertTrue(statistics.getSwaps() > 0);
+        assertTrue(statistics.getTasks() > 0);
+        assertTrue(statistics.getMaxDepth() <= QuickSortUtils.depthLimit(SIZE));
+    }
+
+    @Test
+    void testHeapSortFallback() {
+        var array = randomArray(1000);
+        var statistics = new SortStatistics();
+        SingleThreadQuickSort.sort(array, 0, array.length, 0, Comparator.naturalOrder(), statistics);
+        checkSorted(array);
+
+        assertEquals(0, statistics.getPartitions());
+        assertTrue(statistics.getSwaps() > 0);
+        assertTrue(statistics.getPhaseTime(SortListener.Phase.HEAP_SORT) > 0);
+    }
+
+    @Test
+    void testUnbalancedPartitions() {
+        // all elements equal the pivot, so both sides of each partition are empty
+        var array = new Integer[SIZE];
+        Arrays.fill(array, 1);
+        var statistics = new SortStatistics();
+        SingleThreadQuickSort.quickSort(array, Comparator.naturalOrder(), statistics);
+
+        assertEquals(1, statistics.getPartitions());
+        assertEquals(1, statistics.getUnbalancedPartitions());
+        assertEquals(0, statistics.getAverageSmallerPartFraction());
+    }
+
+    @Test
+    void testReport() {
+        var statistics = new SortStatistics();
+        SingleThreadQuickSort.quickSort(randomArray(1000), Comparator.naturalOrder(), statistics);
+        var report = statistics.toString();
+        assertTrue(report.contains("Sorted 1000 elements"));
+        assertTrue(report.contains("comparisons: " + statistics.getComparisons()));
+        assertTrue(report.contains("swaps: " + statistics.getSwaps()));
+        assertTrue(report.contains("max depth: " + statistics.getMaxDepth()));
+    }
+
+    @Test
+    void testNoListener() {
+        var array = randomArray(SIZE);
+        SingleThreadQuickSort.quickSort(array, Comparator.naturalOrder(), SortListener.NONE);
+        checkSorted(array);
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class,
+                     () -> SingleThreadQuickSort.quickSort(new Integer[]{1}, Comparator.naturalOrder(), null));
+        assertThrows(NullPointerException.class,
+                     () -> ParallelQuickSort.quickSort(new Integer[]{1}, ForkJoinPool.commonPool(),
+                                                       Comparator.naturalOrder(), null));
+    }
+
+    private static Integer[] randomArray(int size) {
+        return new Random(209).ints(size).boxed().toArray(Integer[]::new);
+    }
+
+    private static Comparator<Integer> countingComparator(AtomicLong comparisons) {
+        return (a, b) -> {
+            comparisons.incrementAndGet();
+            return a.compareTo(b);
+        };
+    }
+
+    private static void checkSorted(Integer[] array) {
+        for (int i = 1; i < array.length; ++i) {
+            assertTrue(array[i - 1] <= array[i]);
+        }
+    }
+}
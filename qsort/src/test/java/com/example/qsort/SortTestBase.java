@@ -3,6 +3,9 @@ package com.example.qsort;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.BiConsumer;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
@@ -24,6 +27,19 @@ abstract class SortTestBase {
         checkSort(ArrayReorderingTestUtils.ARRAY_OF_50_DECREASING_INTEGERS);
     }
 
+    /** Checks sorting in reverse order, with nulls first, on an array large enough for the parallel sorts to split */
+    void checkSortWithComparator(BiConsumer<Integer[], Comparator<Integer>> sort) {
+        var array = new Random(209).ints(100000, 0, 1000).boxed().toArray(Integer[]::new);
+        for (int i = 0; i < array.length; i += 100) {
+            array[i] = null;
+        }
+        Comparator<Integer> comparator = Comparator.nullsFirst(Comparator.reverseOrder());
+        var arrayCopy = Arrays.copyOf(array, array.length);
+        Arrays.sort(arrayCopy, comparator);
+        sort.accept(array, comparator);
+        assertArrayEquals(arrayCopy, array);
+    }
+
     private void checkSort(Integer[] array) {
         var arrayCopy = Arrays.copyOf(array, array.length);
         Arrays.sort(arrayCopy);
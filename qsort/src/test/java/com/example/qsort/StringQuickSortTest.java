@@ -0,0 +1,93 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringQuickSortTest {
+    @Test
+    void testSharedPrefix() {
+        var random = new Random(209);
+        checkSort(Stream.generate(random::nextInt).map(i -> "a".repeat(1000) + i).limit(1000).toArray(String[]::new));
+    }
+
+    @Test
+    void testManyTies() {
+        // the keys only see the first four chars after the prefix, so most strings tie on them
+        var random = new Random(209);
+        checkSort(Stream.generate(() -> random.nextInt(1000000)).map(i -> "a".repeat(10) + "1234" + i)
+                          .limit(100000).toArray(String[]::new));
+    }
+
+    @Test
+    void testLargeArray() {
+        var random = new Random(209);
+        checkSort(Stream.generate(random::nextInt).map(i -> "ab" + i).limit(200000).toArray(String[]::new));
+    }
+
+    @Test
+    void testPrefixesOfEachOther() {
+        checkSort(Stream.iterate("", s -> s + "b").limit(100).toArray(String[]::new));
+        checkSort(new String[]{"ab", "", "a", "abc", "", "ab", "a"});
+        checkSort(new String[]{"a\0", "a", "a\0\0\0\0\0", "a\0\0\0\0", "a\1"});
+    }
+
+    @Test
+    void testRandomStrings() {
+        var random = new Random(209);
+        var array = new String[10000];
+        for (int i = 0; i < array.length; ++i) {
+            var chars = new char[random.nextInt(8)];
+            for (int j = 0; j < chars.length; ++j) {
+                // chars with the highest bit set check the order of the keys is unsigned
+                chars[j] = (char) (random.nextBoolean() ? 'a' + random.nextInt(3) : 0xfff0 + random.nextInt(3));
+            }
+            array[i] = new String(chars);
+        }
+        checkSort(array);
+    }
+
+    @Test
+    void testAdversarialKeys() {
+        // one char after the prefix, so the cached keys are in the order of the killer keys of the key sort
+        var keys = new Adversary(20000).keySortKillerKeys();
+        checkSort(Arrays.stream(keys).mapToObj(key -> "prefix" + (char) key).toArray(String[]::new));
+    }
+
+    @Test
+    void testAllEqual() {
+        checkSort(Stream.generate(() -> "same").limit(100000).toArray(String[]::new));
+    }
+
+    @Test
+    void testSmallArrays() {
+        checkSort(new String[0]);
+        checkSort(new String[]{"a"});
+        checkSort(new String[]{"b", "a"});
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> StringQuickSort.quickSort(null));
+        assertThrows(NullPointerException.class, () -> StringQuickSort.quickSort(new String[]{"a"}, null));
+        assertThrows(IllegalArgumentException.class, () -> StringQuickSort.quickSort(new String[]{"a", null}));
+    }
+
+    private void checkSort(String[] array) {
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected);
+        var pool = new ForkJoinPool(3);
+        try {
+            StringQuickSort.quickSort(array, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, array);
+    }
+}
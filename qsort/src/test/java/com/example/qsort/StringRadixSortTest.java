@@ -0,0 +1,87 @@
+package com.example.qsort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringRadixSortTest {
+    @Test
+    void testSharedPrefix() {
+        var random = new Random(209);
+        checkSort(Stream.generate(random::nextInt).map(i -> "a".repeat(1000) + i).limit(1000).toArray(String[]::new));
+    }
+
+    @Test
+    void testPrefixesOfEachOther() {
+        checkSort(Stream.iterate("", s -> s + "b").limit(100).toArray(String[]::new));
+        checkSort(new String[]{"ab", "", "a", "abc", "", "ab", "a"});
+    }
+
+    @Test
+    void testRandomStrings() {
+        var random = new Random(209);
+        var array = new String[10000];
+        for (int i = 0; i < array.length; ++i) {
+            var chars = new char[random.nextInt(5)];
+            for (int j = 0; j < chars.length; ++j) {
+                // both digits of the chars matter, and few distinct chars give many equal strings
+                chars[j] = (char) (random.nextBoolean() ? 'a' + random.nextInt(3) : 0x3000 + random.nextInt(3));
+            }
+            array[i] = new String(chars);
+        }
+        checkSort(array);
+    }
+
+    @Test
+    void testDeeplyNestedPrefixes() {
+        // each string ends in a bucket of its own, the rest go on in the largest bucket
+        checkSort(Stream.iterate("a", s -> s + "a").limit(6000).toArray(String[]::new));
+    }
+
+    @Test
+    void testParallelLargeBuckets() {
+        var random = new Random(209);
+        var array = new String[100000];
+        for (int i = 0; i < array.length; ++i) {
+            var chars = new char[3 + random.nextInt(3)];
+            for (int j = 0; j < chars.length; ++j) {
+                chars[j] = (char) ('a' + random.nextInt(random.nextBoolean() ? 2 : 20));
+            }
+            array[i] = new String(chars);
+        }
+        checkSort(array);
+    }
+
+    @Test
+    void testAllEqual() {
+        checkSort(Stream.generate(() -> "same").limit(100).toArray(String[]::new));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> StringRadixSort.radixSort(null));
+        assertThrows(IllegalArgumentException.class, () -> StringRadixSort.radixSort(new String[]{"a", null}));
+        assertThrows(NullPointerException.class, () -> StringRadixSort.radixSort(new String[0], null));
+    }
+
+    private void checkSort(String[] array) {
+        var expected = Arrays.copyOf(array, array.length);
+        Arrays.sort(expected);
+        var parallelArray = Arrays.copyOf(array, array.length);
+        StringRadixSort.radixSort(array);
+        assertArrayEquals(expected, array);
+        var pool = new ForkJoinPool(3);
+        try {
+            StringRadixSort.radixSort(parallelArray, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expected, parallelArray);
+    }
+}
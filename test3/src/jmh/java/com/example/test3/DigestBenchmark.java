@@ -0,0 +1,73 @@
+package com.example.test3;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the digest algorithms: over a byte array in memory, and over a file in a fork-join pool, where
+ * BLAKE3 hashes the subtrees of large files in parallel. The {@code bytes} counter gives the bytes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DigestBenchmark {
+    @Param({"MD5", "SHA-256", "XXH64", "BLAKE3"})
+    public String algorithmName;
+
+    @Param({"4096", "67108864"})
+    public int size;
+
+    private DigestAlgorithm algorithm;
+    private byte[] input;
+    private Path file;
+    private ForkJoinPool pool;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createInput() throws IOException {
+        algorithm = DigestAlgorithm.forName(algorithmName);
+        input = new byte[size];
+        new Random(209).nextBytes(input);
+        file = Files.createTempFile("digest", ".bin");
+        Files.write(file, input);
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        pool.shutdown();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public byte[] memory(Bytes bytes) {
+        bytes.bytes += size;
+        return algorithm.newDigest().digest(input);
+    }
+
+    @Benchmark
+    public byte[] file(Bytes bytes) {
+        bytes.bytes += size;
+        return pool.submit(() -> {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return algorithm.digest(channel, size);
+            }
+        }).join();
+    }
+}
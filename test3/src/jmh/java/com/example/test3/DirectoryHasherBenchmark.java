@@ -0,0 +1,96 @@
+package com.example.test3;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of hashing a tree by a reused {@link DirectoryHasher} reading files on its separate I/O pool,
+ * by one reading files in its fork-join pool, and by {@link ForkJoinHashing}, which creates a pool per call.
+ * The {@code bytes} counter gives the throughput in bytes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DirectoryHasherBenchmark {
+    @Param({"40"})
+    public int directoryCount;
+
+    @Param({"50"})
+    public int filesPerDirectory;
+
+    @Param({"65536"})
+    public int fileSize;
+
+    @Param({"4"})
+    public int ioThreads;
+
+    private Path directory;
+    private Path root;
+    private HashingOptions options;
+    private DirectoryHasher separateIoHasher;
+    private DirectoryHasher inPoolHasher;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        directory = Files.createTempDirectory("hash");
+        root = directory.resolve("root");
+        var random = new Random(209);
+        var content = new byte[fileSize];
+        for (int i = 0; i < directoryCount; ++i) {
+            var subdirectory = root.resolve("d" + i);
+            Files.createDirectories(subdirectory);
+            for (int j = 0; j < filesPerDirectory; ++j) {
+                random.nextBytes(content);
+                Files.write(subdirectory.resolve("f" + j), content);
+            }
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        options = HashingOptions.DEFAULT.withMaxInFlightReads(ioThreads);
+        separateIoHasher = new DirectoryHasher(parallelism, options, true);
+        inPoolHasher = new DirectoryHasher(parallelism, options, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        separateIoHasher.close();
+        inPoolHasher.close();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public byte[] separateIo(Bytes bytes) {
+        bytes.bytes += treeSize();
+        return separateIoHasher.hash(root);
+    }
+
+    @Benchmark
+    public byte[] inPool(Bytes bytes) {
+        bytes.bytes += treeSize();
+        return inPoolHasher.hash(root);
+    }
+
+    @Benchmark
+    public byte[] forkJoinHashing(Bytes bytes) {
+        bytes.bytes += treeSize();
+        return ForkJoinHashing.hash(root, options);
+    }
+
+    private long treeSize() {
+        return (long) directoryCount * filesPerDirectory * fileSize;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.test3;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing of one file of random bytes: reading byte by byte through a {@link DigestInputStream}, as before,
+ * reading through a direct buffer and memory-mapping. The {@code bytes} counter gives the throughput in bytes
+ * per second. The largest file needs 10 GB of free disk space, run e.g. {@code -p size=1024,1048576} without it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FileHashBenchmark {
+    @Param({"1024", "1048576", "10737418240"})
+    public long size;
+
+    private Path file;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("hash", ".bin");
+        var random = new Random(209);
+        var buffer = ByteBuffer.allocate(1 << 20);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < size; written += buffer.capacity()) {
+                random.nextBytes(buffer.array());
+                buffer.clear().limit((int) Math.min(buffer.capacity(), size - written));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public byte[] byteStream(Bytes bytes) throws IOException, NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("MD5");
+        try (var digestStream = new DigestInputStream(new FileInputStream(file.toFile()), digest)) {
+            while (digestStream.read() != -1) {
+            }
+        }
+        bytes.bytes += size;
+        return digest.digest();
+    }
+
+    @Benchmark
+    public byte[] buffered(Bytes bytes) throws IOException, NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("MD5");
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            HashingUtils.updateBuffered(digest, channel);
+        }
+        bytes.bytes += size;
+        return digest.digest();
+    }
+
+    @Benchmark
+    public byte[] mapped(Bytes bytes) throws IOException, NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("MD5");
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            HashingUtils.updateMapped(digest, channel, size, HashingUtils.MAPPING_SIZE);
+        }
+        bytes.bytes += size;
+        return digest.digest();
+    }
+
+    @Benchmark
+    public byte[] getFileHash(Bytes bytes) {
+        bytes.bytes += size;
+        return HashingUtils.getFileHash(file);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.test3;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rehashing of a directory after 0.1% of its files were modified, from scratch and with a {@link HashCache}
+ * loaded from and saved to disk. Creating the 1M files takes a while, run e.g. {@code -p fileCount=10000}
+ * for a quick check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HashCacheBenchmark {
+    private static final Instant OLD_TIME = Instant.now().minus(1, ChronoUnit.DAYS);
+
+    @Param({"1000000"})
+    public int fileCount;
+
+    @Param({"1024"})
+    public int fileSize;
+
+    private Path directory;
+    private Path root;
+    private Path cacheFile;
+    private final Random random = new Random(209);
+    private int modification;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        directory = Files.createTempDirectory("hash");
+        root = directory.resolve("root");
+        Files.createDirectory(root);
+        for (int i = 0; i < fileCount; ++i) {
+            writeFile(i, FileTime.from(OLD_TIME));
+        }
+        cacheFile = directory.resolve("cache");
+        var cache = HashCache.load(cacheFile);
+        ForkJoinHashing.hash(root, cache);
+        cache.save();
+    }
+
+    @Setup(Level.Invocation)
+    public void modifyFiles() throws IOException {
+        ++modification;
+        for (int i = 0; i < Math.max(1, fileCount / 1000); ++i) {
+            writeFile(random.nextInt(fileCount), FileTime.from(OLD_TIME.plusSeconds(modification)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public byte[] withoutCache() {
+        return ForkJoinHashing.hash(root);
+    }
+
+    @Benchmark
+    public byte[] withCache() {
+        var cache = HashCache.load(cacheFile);
+        var hash = ForkJoinHashing.hash(root, cache);
+        cache.save();
+        return hash;
+    }
+
+    private void writeFile(int index, FileTime modificationTime) throws IOException {
+        var content = new byte[fileSize];
+        random.nextBytes(content);
+        var file = root.resolve("file" + index);
+        Files.write(file, content);
+        Files.setLastModifiedTime(file, modificationTime);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.test3;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing of a single large file by fork-join pools of different sizes, reading in the pool: by MD5, which reads
+ * the file serially whatever the pool, and by its chunked Merkle mode, which hashes the chunks in parallel.
+ * The file needs {@code size} bytes of free disk space.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LargeFileBenchmark {
+    @Param({"1073741824"})
+    public long size;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Path file;
+    private DirectoryHasher md5Hasher;
+    private DirectoryHasher chunkedHasher;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("large", ".bin");
+        var random = new Random(209);
+        var buffer = ByteBuffer.allocate(1 << 20);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < size; written += buffer.capacity()) {
+                random.nextBytes(buffer.array());
+                buffer.clear().limit((int) Math.min(buffer.capacity(), size - written));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+        md5Hasher = new DirectoryHasher(parallelism, HashingOptions.DEFAULT, false);
+        chunkedHasher = new DirectoryHasher(
+                parallelism, HashingOptions.DEFAULT.withAlgorithm(DigestAlgorithm.chunked(DigestAlgorithm.MD5)), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        md5Hasher.close();
+        chunkedHasher.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public byte[] md5() {
+        return md5Hasher.hash(file);
+    }
+
+    @Benchmark
+    public byte[] chunkedMd5() {
+        return chunkedHasher.hash(file);
+    }
+}
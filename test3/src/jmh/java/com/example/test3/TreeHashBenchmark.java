@@ -0,0 +1,78 @@
+package com.example.test3;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing of a deep tree (a chain of directories, each with a few files) and of a wide one (a root with many
+ * directories of many files), in one thread and in parallel with different bounds of in-flight reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TreeHashBenchmark {
+    @Param({"deep", "wide"})
+    public String shape;
+
+    @Param({"1", "16"})
+    public int maxInFlightReads;
+
+    @Param({"65536"})
+    public int fileSize;
+
+    private Path directory;
+    private Path root;
+    private HashingOptions options;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        directory = Files.createTempDirectory("hash");
+        root = directory.resolve("root");
+        var random = new Random(209);
+        if (shape.equals("deep")) {
+            var current = root;
+            for (int depth = 0; depth < 200; ++depth) {
+                createFiles(current, 10, random);
+                current = current.resolve("d" + depth);
+            }
+        } else {
+            for (int i = 0; i < 40; ++i) {
+                createFiles(root.resolve("d" + i), 50, random);
+            }
+        }
+        options = HashingOptions.DEFAULT.withMaxInFlightReads(maxInFlightReads);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public byte[] singleThread() {
+        return SingleThreadHashing.hash(root, options);
+    }
+
+    @Benchmark
+    public byte[] forkJoin() {
+        return ForkJoinHashing.hash(root, options);
+    }
+
+    private void createFiles(Path directory, int count, Random random) throws IOException {
+        Files.createDirectories(directory);
+        var content = new byte[fileSize];
+        for (int i = 0; i < count; ++i) {
+            random.nextBytes(content);
+            Files.write(directory.resolve("f" + i), content);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.test3;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of keeping the hash of a tree of {@code directories} x {@code filesPerDirectory} files current after one
+ * file changes: the time from writing the file until {@link WatchingHasher} has the new hash, including the delivery
+ * of the event, against rehashing the whole tree by {@link ForkJoinHashing}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WatchingHasherBenchmark {
+    @Param({"100"})
+    public int directories;
+
+    @Param({"100"})
+    public int filesPerDirectory;
+
+    private Path root;
+    private WatchingHasher hasher;
+    private byte[] digest;
+    private final Random random = new Random(209);
+    private final byte[] content = new byte[4096];
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("watched");
+        for (int i = 0; i < directories; ++i) {
+            var directory = Files.createDirectory(root.resolve("d" + i));
+            for (int j = 0; j < filesPerDirectory; ++j) {
+                random.nextBytes(content);
+                Files.write(directory.resolve("f" + j), content);
+            }
+        }
+        hasher = new WatchingHasher(root, HashingOptions.DEFAULT, Runtime.getRuntime().availableProcessors());
+        digest = hasher.getRootDigest();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        hasher.close();
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Benchmark
+    public byte[] watchedUpdate() throws IOException, InterruptedException {
+        changeFile();
+        digest = hasher.awaitChange(digest, 10, TimeUnit.SECONDS);
+        return digest;
+    }
+
+    @Benchmark
+    public byte[] fullRehash() throws IOException {
+        changeFile();
+        return ForkJoinHashing.hash(root);
+    }
+
+    private void changeFile() throws IOException {
+        random.nextBytes(content);
+        var file = root.resolve("d" + random.nextInt(directories)).resolve("f" + random.nextInt(filesPerDirectory));
+        Files.write(file, content);
+    }
+}
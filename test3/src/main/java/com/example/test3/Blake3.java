@@ -0,0 +1,337 @@
+package com.example.test3;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cryptographic tree hash BLAKE3 with the default 32-byte output. The input is split into 1 KB chunks which are
+ * the leaves of a binary tree, so large files are hashed by subtrees in parallel in the current fork-join pool.
+ */
+class Blake3 implements DigestAlgorithm {
+    private static final int CHUNK_LENGTH = 1024;
+    private static final int BLOCK_LENGTH = 64;
+    private static final int CHUNK_START = 1;
+    private static final int CHUNK_END = 2;
+    private static final int PARENT = 4;
+    private static final int ROOT = 8;
+    private static final int[] IV = {
+            0x6A09E667, 0xBB67AE85, 0x3C6EF372, 0xA54FF53A, 0x510E527F, 0x9B05688C, 0x1F83D9AB, 0x5BE0CD19
+    };
+    private static final int[] MESSAGE_PERMUTATION = {2, 6, 3, 10, 7, 0, 4, 13, 1, 11, 12, 5, 9, 14, 15, 8};
+    /** Indices of the block words used by each of the 7 rounds, the permutation applied before each next round */
+    private static final int[][] MESSAGE_SCHEDULE = new int[7][16];
+
+    static {
+        for (int i = 0; i < 16; ++i) {
+            MESSAGE_SCHEDULE[0][i] = i;
+        }
+        for (int round = 1; round < 7; ++round) {
+            for (int i = 0; i < 16; ++i) {
+                MESSAGE_SCHEDULE[round][i] = MESSAGE_SCHEDULE[round - 1][MESSAGE_PERMUTATION[i]];
+            }
+        }
+    }
+    /** Files not smaller than this are hashed by subtrees in parallel */
+    static final long PARALLEL_THRESHOLD = 1 << 20;
+    /** Subtrees not larger than this are read and hashed by one task, a power of two number of chunks */
+    static final int LEAF_SUBTREE_LENGTH = 1 << 18;
+
+    @Override
+    public @NonNull String getName() {
+        return "BLAKE3";
+    }
+
+    @Override
+    public @NonNull MessageDigest newDigest() {
+        return new Digest();
+    }
+
+    @Override
+    public byte @NonNull [] digest(@NonNull FileChannel channel, long size, @NonNull BooleanSupplier cancelled)
+            throws IOException {
+        if (size < PARALLEL_THRESHOLD) {
+            return DigestAlgorithm.super.digest(channel, size, cancelled);
+        }
+        long leftLength = leftSubtreeLength(size);
+        var left = new FileSubtree(channel, 0, leftLength, cancelled);
+        var right = new FileSubtree(channel, leftLength, size - leftLength, cancelled);
+        int[] leftCv;
+        int[] rightCv;
+        if (ForkJoinTask.inForkJoinPool()) {
+            right.fork();
+            leftCv = left.compute();
+            rightCv = right.join();
+        } else {
+            leftCv = left.compute();
+            rightCv = right.compute();
+        }
+        return rootBytes(compress(IV, parentBlock(leftCv, rightCv), 0, BLOCK_LENGTH, PARENT | ROOT));
+    }
+
+    /** Returns the length of the left subtree of a tree over {@code length} bytes: the most chunks of a power of two */
+    private static long leftSubtreeLength(long length) {
+        return Long.highestOneBit((length - 1) / CHUNK_LENGTH) * CHUNK_LENGTH;
+    }
+
+    /**
+     * Returns the chaining value of the subtree over {@code length} bytes of the {@code input} from {@code offset},
+     * which starts with the chunk number {@code chunkCounter}. The subtree has more than one chunk or is a chunk
+     * which is not the root.
+     */
+    private static int @NonNull [] subtreeCv(byte @NonNull [] input, int offset, int length, long chunkCounter) {
+        if (length <= CHUNK_LENGTH) {
+            var chunk = new ChunkState(chunkCounter);
+            chunk.update(input, offset, length);
+            return chunk.output().chainingValue();
+        }
+        int leftLength = (int) leftSubtreeLength(length);
+        var leftCv = subtreeCv(input, offset, leftLength, chunkCounter);
+        var rightCv = subtreeCv(input, offset + leftLength, length - leftLength,
+                                chunkCounter + leftLength / CHUNK_LENGTH);
+        return parentCv(leftCv, rightCv);
+    }
+
+    private static int @NonNull [] parentCv(int @NonNull [] leftCv, int @NonNull [] rightCv) {
+        return chainingValue(compress(IV, parentBlock(leftCv, rightCv), 0, BLOCK_LENGTH, PARENT));
+    }
+
+    private static int @NonNull [] parentBlock(int @NonNull [] leftCv, int @NonNull [] rightCv) {
+        var block = new int[16];
+        System.arraycopy(leftCv, 0, block, 0, 8);
+        System.arraycopy(rightCv, 0, block, 8, 8);
+        return block;
+    }
+
+    private static int @NonNull [] chainingValue(int @NonNull [] output) {
+        var cv = new int[8];
+        System.arraycopy(output, 0, cv, 0, 8);
+        return cv;
+    }
+
+    private static byte @NonNull [] rootBytes(int @NonNull [] output) {
+        var bytes = new byte[32];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(output, 0, 8);
+        return bytes;
+    }
+
+    /** The compression function, returns the 16 words of its output */
+    private static int @NonNull [] compress(int @NonNull [] cv, int @NonNull [] block, long counter, int blockLength,
+                                            int flags) {
+        var state = new int[]{
+                cv[0], cv[1], cv[2], cv[3], cv[4], cv[5], cv[6], cv[7],
+                IV[0], IV[1], IV[2], IV[3], (int) counter, (int) (counter >>> 32), blockLength, flags
+        };
+        for (var schedule : MESSAGE_SCHEDULE) {
+            g(state, 0, 4, 8, 12, block[schedule[0]], block[schedule[1]]);
+            g(state, 1, 5, 9, 13, block[schedule[2]], block[schedule[3]]);
+            g(state, 2, 6, 10, 14, block[schedule[4]], block[schedule[5]]);
+            g(state, 3, 7, 11, 15, block[schedule[6]], block[schedule[7]]);
+            g(state, 0, 5, 10, 15, block[schedule[8]], block[schedule[9]]);
+            g(state, 1, 6, 11, 12, block[schedule[10]], block[schedule[11]]);
+            g(state, 2, 7, 8, 13, block[schedule[12]], block[schedule[13]]);
+            g(state, 3, 4, 9, 14, block[schedule[14]], block[schedule[15]]);
+        }
+        for (int i = 0; i < 8; ++i) {
+            state[i] ^= state[i + 8];
+            state[i + 8] ^= cv[i];
+        }
+        return state;
+    }
+
+    private static void g(int @NonNull [] state, int a, int b, int c, int d, int x, int y) {
+        state[a] += state[b] + x;
+        state[d] = Integer.rotateRight(state[d] ^ state[a], 16);
+        state[c] += state[d];
+        state[b] = Integer.rotateRight(state[b] ^ state[c], 12);
+        state[a] += state[b] + y;
+        state[d] = Integer.rotateRight(state[d] ^ state[a], 8);
+        state[c] += state[d];
+        state[b] = Integer.rotateRight(state[b] ^ state[c], 7);
+    }
+
+    /** Input of the last compression of a chunk or a parent, whose output is a chaining value or the root hash */
+    private static class Output {
+        private final int[] cv;
+        private final int[] block;
+        private final long counter;
+        private final int blockLength;
+        private final int flags;
+
+        private Output(int @NonNull [] cv, int @NonNull [] block, long counter, int blockLength, int flags) {
+            this.cv = cv;
+            this.block = block;
+            this.counter = counter;
+            this.blockLength = blockLength;
+            this.flags = flags;
+        }
+
+        private int @NonNull [] chainingValue() {
+            return Blake3.chainingValue(compress(cv, block, counter, blockLength, flags));
+        }
+
+        private byte @NonNull [] rootBytes() {
+            return Blake3.rootBytes(compress(cv, block, 0, blockLength, flags | ROOT));
+        }
+    }
+
+    /** State of hashing one chunk */
+    private static class ChunkState {
+        private int[] cv = IV.clone();
+        private final long chunkCounter;
+        private final byte[] block = new byte[BLOCK_LENGTH];
+        private int blockLength;
+        private int blocksCompressed;
+
+        private ChunkState(long chunkCounter) {
+            this.chunkCounter = chunkCounter;
+        }
+
+        private int length() {
+            return BLOCK_LENGTH * blocksCompressed + blockLength;
+        }
+
+        private int startFlag() {
+            return blocksCompressed == 0 ? CHUNK_START : 0;
+        }
+
+        /** Adds at most the rest of the chunk from the input, a full block is kept until more input comes */
+        private void update(byte @NonNull [] input, int offset, int length) {
+            while (length > 0) {
+                if (blockLength == BLOCK_LENGTH) {
+                    cv = chainingValue(compress(cv, words(block), chunkCounter, BLOCK_LENGTH, startFlag()));
+                    ++blocksCompressed;
+                    blockLength = 0;
+                }
+                int copied = Math.min(BLOCK_LENGTH - blockLength, length);
+                System.arraycopy(input, offset, block, blockLength, copied);
+                blockLength += copied;
+                offset += copied;
+                length -= copied;
+            }
+        }
+
+        private @NonNull Output output() {
+            var paddedBlock = new byte[BLOCK_LENGTH];
+            System.arraycopy(block, 0, paddedBlock, 0, blockLength);
+            return new Output(cv, words(paddedBlock), chunkCounter, blockLength, startFlag() | CHUNK_END);
+        }
+    }
+
+    private static int @NonNull [] words(byte @NonNull [] block) {
+        var words = new int[16];
+        ByteBuffer.wrap(block).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(words);
+        return words;
+    }
+
+    /** Streaming BLAKE3: completed chunks are merged into a stack of subtrees, as in the reference implementation */
+    private static class Digest extends MessageDigest {
+        private ChunkState chunk = new ChunkState(0);
+        /** Chaining values of complete subtrees, the largest at the bottom */
+        private final Deque<int[]> cvStack = new ArrayDeque<>();
+
+        private Digest() {
+            super("BLAKE3");
+        }
+
+        @Override
+        protected void engineUpdate(byte input) {
+            engineUpdate(new byte[]{input}, 0, 1);
+        }
+
+        @Override
+        protected void engineUpdate(byte @NonNull [] input, int offset, int length) {
+            while (length > 0) {
+                if (chunk.length() == CHUNK_LENGTH) {
+                    // the chunk is not the last one, so it is not the root
+                    var cv = chunk.output().chainingValue();
+                    long totalChunks = chunk.chunkCounter + 1;
+                    for (; (totalChunks & 1) == 0; totalChunks >>= 1) {
+                        cv = parentCv(cvStack.pop(), cv);
+                    }
+                    cvStack.push(cv);
+                    chunk = new ChunkState(chunk.chunkCounter + 1);
+                }
+                int copied = Math.min(CHUNK_LENGTH - chunk.length(), length);
+                chunk.update(input, offset, copied);
+                offset += copied;
+                length -= copied;
+            }
+        }
+
+        @Override
+        protected byte @NonNull [] engineDigest() {
+            var output = chunk.output();
+            for (var cv : cvStack) {
+                output = new Output(IV, parentBlock(cv, output.chainingValue()), 0, BLOCK_LENGTH, PARENT);
+            }
+            var digest = output.rootBytes();
+            engineReset();
+            return digest;
+        }
+
+        @Override
+        protected int engineGetDigestLength() {
+            return 32;
+        }
+
+        @Override
+        protected void engineReset() {
+            chunk = new ChunkState(0);
+            cvStack.clear();
+        }
+    }
+
+    /** Task computing the chaining value of a subtree over a part of a file */
+    private static class FileSubtree extends RecursiveTask<int[]> {
+        private final FileChannel channel;
+        private final long offset;
+        private final long length;
+        private final BooleanSupplier cancelled;
+
+        private FileSubtree(@NonNull FileChannel channel, long offset, long length,
+                            @NonNull BooleanSupplier cancelled) {
+            this.channel = channel;
+            this.offset = offset;
+            this.length = length;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected int @NonNull [] compute() {
+            HashingUtils.checkCancelled(cancelled);
+            if (length <= LEAF_SUBTREE_LENGTH) {
+                var input = new byte[(int) length];
+                var buffer = ByteBuffer.wrap(input);
+                try {
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, offset + buffer.position()) < 0) {
+                            throw new DirectoryHashComputingException("File is shorter than expected");
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new DirectoryHashComputingException("Error reading file", e);
+                }
+                return subtreeCv(input, 0, input.length, offset / CHUNK_LENGTH);
+            }
+            long leftLength = leftSubtreeLength(length);
+            var left = new FileSubtree(channel, offset, leftLength, cancelled);
+            var right = new FileSubtree(channel, offset + leftLength, length - leftLength, cancelled);
+            if (!ForkJoinTask.inForkJoinPool()) {
+                return parentCv(left.compute(), right.compute());
+            }
+            right.fork();
+            var leftCv = left.compute();
+            return parentCv(leftCv, right.join());
+        }
+    }
+}
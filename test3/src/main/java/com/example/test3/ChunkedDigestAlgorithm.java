@@ -0,0 +1,154 @@
+package com.example.test3;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Chunked Merkle mode of another algorithm: the input is split into chunks of a fixed size, and the digest is
+ * the digest of the concatenated digests of the chunks, both by the other algorithm. An empty input is one empty
+ * chunk. Since the chunks are independent, the chunks of a large file are hashed in parallel in the current
+ * fork-join pool.
+ */
+class ChunkedDigestAlgorithm implements DigestAlgorithm {
+    static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+    private final @NonNull DigestAlgorithm algorithm;
+    private final int chunkSize;
+
+    ChunkedDigestAlgorithm(@NonNull DigestAlgorithm algorithm, int chunkSize) {
+        Validate.notNull(algorithm);
+        Validate.isTrue(chunkSize > 0, "Chunk size should be positive");
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return algorithm.getName() + "-CHUNKED-" + chunkSize;
+    }
+
+    @Override
+    public @NonNull MessageDigest newDigest() {
+        return new Digest();
+    }
+
+    @Override
+    public byte @NonNull [] digest(@NonNull FileChannel channel, long size, @NonNull BooleanSupplier cancelled)
+            throws IOException {
+        if (size <= chunkSize) {
+            return DigestAlgorithm.super.digest(channel, size, cancelled);
+        }
+        var chunkDigests = new byte[(int) ((size - 1) / chunkSize + 1)][];
+        var task = new ChunksDigest(channel, size, chunkDigests, 0, chunkDigests.length, cancelled);
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            task.compute();
+        }
+        var treeDigest = algorithm.newDigest();
+        for (var chunkDigest : chunkDigests) {
+            treeDigest.update(chunkDigest);
+        }
+        return treeDigest.digest();
+    }
+
+    /** Streaming digest: the digest of each chunk is added to the tree digest as soon as the chunk is complete */
+    private class Digest extends MessageDigest {
+        private final MessageDigest treeDigest = algorithm.newDigest();
+        private final MessageDigest chunkDigest = algorithm.newDigest();
+        private int chunkLength;
+        private boolean hasChunks;
+
+        private Digest() {
+            super(ChunkedDigestAlgorithm.this.getName());
+        }
+
+        @Override
+        protected void engineUpdate(byte input) {
+            engineUpdate(new byte[]{input}, 0, 1);
+        }
+
+        @Override
+        protected void engineUpdate(byte @NonNull [] input, int offset, int length) {
+            while (length > 0) {
+                int copied = Math.min(chunkSize - chunkLength, length);
+                chunkDigest.update(input, offset, copied);
+                chunkLength += copied;
+                offset += copied;
+                length -= copied;
+                if (chunkLength == chunkSize) {
+                    treeDigest.update(chunkDigest.digest());
+                    chunkLength = 0;
+                    hasChunks = true;
+                }
+            }
+        }
+
+        @Override
+        protected byte @NonNull [] engineDigest() {
+            if (chunkLength > 0 || !hasChunks) {
+                treeDigest.update(chunkDigest.digest());
+            }
+            var digest = treeDigest.digest();
+            engineReset();
+            return digest;
+        }
+
+        @Override
+        protected void engineReset() {
+            treeDigest.reset();
+            chunkDigest.reset();
+            chunkLength = 0;
+            hasChunks = false;
+        }
+    }
+
+    /** Task computing the digests of the chunks from {@code from} (inclusive) to {@code to} (exclusive) */
+    private class ChunksDigest extends RecursiveAction {
+        private final FileChannel channel;
+        private final long size;
+        private final byte[][] chunkDigests;
+        private final int from;
+        private final int to;
+        private final BooleanSupplier cancelled;
+
+        private ChunksDigest(@NonNull FileChannel channel, long size, byte @NonNull [] @NonNull [] chunkDigests,
+                             int from, int to, @NonNull BooleanSupplier cancelled) {
+            this.channel = channel;
+            this.size = size;
+            this.chunkDigests = chunkDigests;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && ForkJoinTask.inForkJoinPool()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunksDigest(channel, size, chunkDigests, from, middle, cancelled),
+                          new ChunksDigest(channel, size, chunkDigests, middle, to, cancelled));
+                return;
+            }
+            for (int chunk = from; chunk < to; ++chunk) {
+                HashingUtils.checkCancelled(cancelled);
+                long position = (long) chunk * chunkSize;
+                var digest = algorithm.newDigest();
+                try {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                              Math.min(chunkSize, size - position)));
+                } catch (IOException e) {
+                    throw new DirectoryHashComputingException("Error reading file", e);
+                }
+                chunkDigests[chunk] = digest.digest();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.test3;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/** Algorithm of the digests of files and directories */
+public interface DigestAlgorithm {
+    /** MD5, the algorithm of the hashes computed before the algorithm could be chosen */
+    DigestAlgorithm MD5 = ofMessageDigest("MD5");
+    DigestAlgorithm SHA_256 = ofMessageDigest("SHA-256");
+    /** Fast non-cryptographic 64-bit XXH64 */
+    DigestAlgorithm XXH64 = of("XXH64", XxHash64::new);
+    /** Cryptographic tree hash BLAKE3, which hashes large files by parts in parallel in the fork-join pool */
+    DigestAlgorithm BLAKE3 = new Blake3();
+
+    /** Returns the name of the algorithm, digests of different algorithms are never mixed up in a cache */
+    @NonNull String getName();
+
+    @NonNull MessageDigest newDigest();
+
+    /** Returns the digest of the first {@code size} bytes of the channel, the file is digested to the end */
+    default byte @NonNull [] digest(@NonNull FileChannel channel, long size) throws IOException {
+        return digest(channel, size, () -> false);
+    }
+
+    /**
+     * Returns the digest of the first {@code size} bytes of the channel, stopping with
+     * a {@link java.util.concurrent.CancellationException} once {@code cancelled} returns true. By default
+     * the bytes are digested sequentially through a buffer or, for large files, a memory mapping, checking
+     * {@code cancelled} between the buffers. The algorithms reading files differently override this method.
+     */
+    default byte @NonNull [] digest(@NonNull FileChannel channel, long size, @NonNull BooleanSupplier cancelled)
+            throws IOException {
+        var digest = newDigest();
+        if (size >= HashingUtils.MAPPING_THRESHOLD) {
+            HashingUtils.updateMapped(digest, channel, size, HashingUtils.MAPPING_SIZE, cancelled);
+        } else {
+            HashingUtils.updateBuffered(digest, channel, cancelled);
+        }
+        return digest.digest();
+    }
+
+    /** Returns the algorithm creating digests by {@code digests} */
+    static @NonNull DigestAlgorithm of(@NonNull String name, @NonNull Supplier<MessageDigest> digests) {
+        Validate.notNull(name);
+        Validate.notNull(digests);
+        return new DigestAlgorithm() {
+            @Override
+            public @NonNull String getName() {
+                return name;
+            }
+
+            @Override
+            public @NonNull MessageDigest newDigest() {
+                return digests.get();
+            }
+        };
+    }
+
+    /**
+     * Returns the chunked Merkle mode of the {@code algorithm}, which digests the digests of the chunks of
+     * {@code chunkSize} bytes, so the chunks of a large file are hashed in parallel in the fork-join pool.
+     * Its digests differ from those of the {@code algorithm} itself.
+     */
+    static @NonNull DigestAlgorithm chunked(@NonNull DigestAlgorithm algorithm, int chunkSize) {
+        return new ChunkedDigestAlgorithm(algorithm, chunkSize);
+    }
+
+    /** Returns the chunked Merkle mode of the {@code algorithm} with chunks of 16 MB */
+    static @NonNull DigestAlgorithm chunked(@NonNull DigestAlgorithm algorithm) {
+        return chunked(algorithm, ChunkedDigestAlgorithm.DEFAULT_CHUNK_SIZE);
+    }
+
+    /** Returns the algorithm of {@link MessageDigest#getInstance(String)} */
+    static @NonNull DigestAlgorithm ofMessageDigest(@NonNull String name) {
+        return of(name, () -> {
+            try {
+                return MessageDigest.getInstance(name);
+            } catch (NoSuchAlgorithmException e) {
+                throw new DirectoryHashComputingException(name + " algorithm not available", e);
+            }
+        });
+    }
+
+    /**
+     * Returns one of the algorithms above by name, or that of {@link MessageDigest#getInstance(String)}.
+     * Throws {@link DirectoryHashComputingException} at once if there is no such algorithm.
+     */
+    static @NonNull DigestAlgorithm forName(@NonNull String name) {
+        Validate.notNull(name);
+        for (var algorithm : new DigestAlgorithm[]{MD5, SHA_256, XXH64, BLAKE3}) {
+            if (algorithm.getName().equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        var algorithm = ofMessageDigest(name);
+        algorithm.newDigest();
+        return algorithm;
+    }
+}
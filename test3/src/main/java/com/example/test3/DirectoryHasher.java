@@ -0,0 +1,191 @@
+package com.example.test3;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Reusable parallel hasher of directories computing the same hashes as {@link ForkJoinHashing}. It owns
+ * a fork-join pool, which lists directories and digests files, and a fixed pool of
+ * {@link HashingOptions#getMaxInFlightReads()} threads, which only read files, so the fork-join workers do not
+ * block on reads. A file is read by chunks, the next chunk is read while the previous one is digested.
+ * The hasher can be used from many threads at once, and should be closed to stop the pools.
+ */
+public class DirectoryHasher implements AutoCloseable {
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final @NonNull ForkJoinPool pool;
+    private final @Nullable ExecutorService io;
+    private final @NonNull HashingOptions options;
+    private final @NonNull FileHasher fileHasher;
+
+    /** Creates a hasher with the default options and a pool of a thread per processor */
+    public DirectoryHasher() {
+        this(Runtime.getRuntime().availableProcessors(), HashingOptions.DEFAULT);
+    }
+
+    /** Creates a hasher with a fork-join pool of {@code parallelism} threads, hashing as set by the {@code options} */
+    public DirectoryHasher(int parallelism, @NonNull HashingOptions options) {
+        this(parallelism, options, true);
+    }
+
+    /**
+     * Creates a hasher which reads files on a separate pool if {@code separateIo} is true, otherwise in
+     * the fork-join pool like {@link ForkJoinHashing}.
+     */
+    DirectoryHasher(int parallelism, @NonNull HashingOptions options, boolean separateIo) {
+        Validate.isTrue(parallelism > 0, "Parallelism should be positive");
+        Validate.notNull(options);
+        int ioThreads = options.getMaxInFlightReads();
+        // workers waiting for reads are compensated by at most as many extra threads as there are readers
+        pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                                0, parallelism + ioThreads, 1, saturatedPool -> true, 60, TimeUnit.SECONDS);
+        this.options = options;
+        if (separateIo) {
+            io = Executors.newFixedThreadPool(ioThreads, runnable -> {
+                var thread = new Thread(runnable, "hashing-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fileHasher = this::hashFile;
+        } else {
+            io = null;
+            fileHasher = ForkJoinHashing.blockingFileHasher(options);
+        }
+    }
+
+    /** Computes the hash of the file or the directory tree */
+    public byte[] hash(@NonNull Path root) {
+        Validate.notNull(root);
+        Validate.validState(!pool.isShutdown(), "Hasher is closed");
+        return pool.invoke(new ForkJoinHashing.HashingTask(root, options, fileHasher));
+    }
+
+    /**
+     * Starts computing the hash of the file or the directory tree in the pool, the {@code listener} gets
+     * the digest of each file as soon as it is computed. Cancelling the returned future stops the hashing:
+     * the tasks which have not started fail at once, and the files being read stop after the current chunk.
+     */
+    public @NonNull CompletableFuture<byte[]> hashAsync(@NonNull Path root, @NonNull HashingListener listener) {
+        Validate.notNull(root);
+        Validate.notNull(listener);
+        Validate.validState(!pool.isShutdown(), "Hasher is closed");
+        var job = new HashingJob(listener);
+        var task = new ForkJoinHashing.HashingTask(root, options, fileHasher, job);
+        var result = new CompletableFuture<byte[]>();
+        result.whenComplete((hash, e) -> {
+            if (result.isCancelled()) {
+                job.cancel();
+            }
+        });
+        pool.execute(() -> {
+            try {
+                result.complete(task.invoke());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        if (io != null) {
+            io.shutdown();
+        }
+    }
+
+    /** Hashes the file reading it on the I/O pool, through the cache of the options if there is one */
+    byte @NonNull [] hashFile(@NonNull Path file, @Nullable HashingJob job) {
+        var cache = options.getCache();
+        if (cache == null) {
+            return digest(file, job);
+        }
+        var attributes = onIo(() -> HashingUtils.readAttributes(file));
+        var hash = cache.get(file, attributes, options.getAlgorithm());
+        if (hash == null) {
+            hash = digest(file, job);
+            cache.put(file, attributes, options.getAlgorithm(), hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Digests the file in the current worker, with chunks read on the I/O pool one chunk ahead. Opening the file
+     * and getting its size are cheap, so they are done in the worker, and the file is read up to that size.
+     * The bytes read are added to the progress of the {@code job} if any, which is checked for cancellation
+     * after each chunk.
+     */
+    private byte @NonNull [] digest(@NonNull Path file, @Nullable HashingJob job) {
+        var digest = options.getAlgorithm().newDigest();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int capacity = (int) Math.min(CHUNK_SIZE, size);
+            var buffers = new ByteBuffer[]{ByteBuffer.allocate(capacity), ByteBuffer.allocate(capacity)};
+            long position = 0;
+            var pending = position < size ? readAsync(channel, buffers[0], position) : null;
+            for (int i = 0; pending != null; ++i) {
+                int read = await(pending);
+                position += Math.max(read, 0);
+                // no read is pending here, so the channel can be closed at once
+                if (job != null) {
+                    job.checkCancelled();
+                }
+                pending = read >= 0 && position < size ? readAsync(channel, buffers[(i + 1) % 2], position) : null;
+                digest.update(buffers[i % 2].flip());
+            }
+            if (job != null) {
+                job.bytesRead(position);
+            }
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error reading file", e);
+        }
+        return digest.digest();
+    }
+
+    /** Reads from the {@code position} until the buffer is full or the file ends, returns -1 if nothing was read */
+    private @NonNull CompletableFuture<Integer> readAsync(@NonNull FileChannel channel, @NonNull ByteBuffer buffer,
+                                                          long position) {
+        return CompletableFuture.supplyAsync(() -> {
+            buffer.clear();
+            try {
+                int total = 0;
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position + total);
+                    if (read < 0) {
+                        break;
+                    }
+                    total += read;
+                }
+                return total == 0 ? -1 : total;
+            } catch (IOException e) {
+                throw new DirectoryHashComputingException("Error reading file", e);
+            }
+        }, io);
+    }
+
+    private <T> T onIo(@NonNull Supplier<T> action) {
+        return await(CompletableFuture.supplyAsync(action, io));
+    }
+
+    /** Waits for the future in a way that lets the fork-join pool compensate for the blocked worker */
+    private static <T> T await(@NonNull CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DirectoryHashComputingException) {
+                throw (DirectoryHashComputingException) e.getCause();
+            }
+            throw new DirectoryHashComputingException(e.getCause());
+        }
+    }
+}
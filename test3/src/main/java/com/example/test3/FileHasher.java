@@ -0,0 +1,16 @@
+package com.example.test3;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.file.Path;
+
+/** Hasher of the files of a tree used by the hashing tasks */
+@FunctionalInterface
+interface FileHasher {
+    /**
+     * Returns the digest of the file. If there is a {@code job}, the bytes read are added to its progress,
+     * and the parts of a large file hashed in parallel stop once it is cancelled.
+     */
+    byte @NonNull [] hash(@NonNull Path file, @Nullable HashingJob job);
+}
@@ -2,66 +2,153 @@ package com.example.test3;
 
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
-import java.util.stream.Collectors;
+import java.util.concurrent.Semaphore;
 
-/** Class for computing MD5 hash of a directory using ForkJoinPool */
+/**
+ * Class for computing hash of a directory using ForkJoinPool, by the {@link HashingOptions#getAlgorithm()}.
+ * Directories are listed in the same tasks that hash their files, so listing and reading are pipelined. At most
+ * {@link HashingOptions#getMaxInFlightReads()} files are read at once, and the pool is given extra threads
+ * while they block, so listing goes on meanwhile. Each call creates its own pool, use {@link DirectoryHasher}
+ * to hash repeatedly.
+ */
 public class ForkJoinHashing {
 
     public static byte[] hash(@NonNull Path root) {
+        return hash(root, HashingOptions.DEFAULT);
+    }
+
+    /** Computes the hash reusing the digests of unchanged files from the {@code cache} */
+    public static byte[] hash(@NonNull Path root, @NonNull HashCache cache) {
+        return hash(root, HashingOptions.DEFAULT.withCache(cache));
+    }
+
+    /** Computes the hash of the tree walked as set by the {@code options} */
+    public static byte[] hash(@NonNull Path root, @NonNull HashingOptions options) {
         Validate.notNull(root);
-        var rootTask = new HashingTask(root);
+        Validate.notNull(options);
         var pool = new ForkJoinPool();
-        pool.execute(rootTask);
-        return rootTask.compute();
+        try {
+            return pool.invoke(new HashingTask(root, options, blockingFileHasher(options)));
+        } finally {
+            pool.shutdown();
+        }
     }
 
-    private static class HashingTask extends RecursiveTask<byte[]> {
+    /**
+     * Returns a function hashing files in the calling fork-join worker, at most
+     * {@link HashingOptions#getMaxInFlightReads()} at once. Waiting for a read permit occupies the worker,
+     * but the read itself is a managed block, so the pool can list other directories meanwhile.
+     */
+    static @NonNull FileHasher blockingFileHasher(@NonNull HashingOptions options) {
+        var reads = new Semaphore(options.getMaxInFlightReads());
+        return (file, job) -> {
+            try {
+                reads.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DirectoryHashComputingException("Interrupted", e);
+            }
+            try {
+                var read = new FileRead(file, options, job);
+                ForkJoinPool.managedBlock(read);
+                return read.hash;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DirectoryHashComputingException("Interrupted", e);
+            } finally {
+                reads.release();
+            }
+        };
+    }
+
+    /** Task hashing a file or a directory, it lists directories itself and hashes files by {@code fileHasher} */
+    static class HashingTask extends RecursiveTask<byte[]> {
         private @NonNull Path root;
+        private int depth;
+        private @Nullable Set<Object> ancestors;
+        private @NonNull HashingOptions options;
+        private @NonNull FileHasher fileHasher;
+        private @Nullable HashingJob job;
+
+        HashingTask(@NonNull Path root, @NonNull HashingOptions options, @NonNull FileHasher fileHasher) {
+            this(root, 0, null, options, fileHasher, null);
+        }
+
+        /** Creates a task which stops with a {@link java.util.concurrent.CancellationException} when the job is */
+        HashingTask(@NonNull Path root, @NonNull HashingOptions options, @NonNull FileHasher fileHasher,
+                    @NonNull HashingJob job) {
+            this(root, 0, null, options, fileHasher, job);
+        }
 
-        private HashingTask(@NonNull Path root) {
+        private HashingTask(@NonNull Path root, int depth, @Nullable Set<Object> ancestors,
+                            @NonNull HashingOptions options, @NonNull FileHasher fileHasher,
+                            @Nullable HashingJob job) {
             Validate.notNull(root);
             this.root = root;
+            this.depth = depth;
+            this.ancestors = ancestors;
+            this.options = options;
+            this.fileHasher = fileHasher;
+            this.job = job;
         }
 
         @Override
         protected byte[] compute() {
+            if (job != null) {
+                job.checkCancelled();
+            }
             if (Files.isDirectory(root)) {
-                MessageDigest treeDigest;
-                try {
-                    treeDigest = MessageDigest.getInstance("MD5");
-                } catch (NoSuchAlgorithmException e) {
-                    throw new DirectoryHashComputingException("MD5 algorithm not available", e);
+                var directoryAncestors = HashingUtils.enterDirectory(root, ancestors, options);
+                var treeDigest = HashingUtils.startDirectoryDigest(root, options.getAlgorithm());
+                var tasks = new ArrayList<HashingTask>();
+                for (var entry : HashingUtils.listEntries(root, depth, options)) {
+                    var newTask = new HashingTask(entry, depth + 1, directoryAncestors, options, fileHasher, job);
+                    newTask.fork();
+                    tasks.add(newTask);
                 }
-                treeDigest.update(root.getFileName().toString().getBytes(Charset.forName("UTF-8")));
-                try {
-                    var tasks = new ArrayList<HashingTask>();
-                    for (var containingFile: Files.list(root).filter(path -> Files.isRegularFile(path)).sorted(Comparator.comparing(Path::getFileName)).collect(Collectors
-                                                                                                                                                                        .toList())) {
-                        var newTask = new HashingTask(containingFile);
-                        newTask.fork();
-                        tasks.add(newTask);
-                    }
-                    for (var task: tasks) {
-                        treeDigest.update(task.join());
-                    }
-                } catch (IOException e) {
-                    throw new DirectoryHashComputingException("Error listing directory", e);
+                for (var task : tasks) {
+                    treeDigest.update(task.join());
                 }
                 return treeDigest.digest();
             } else {
-                return HashingUtils.getFileHash(root);
+                var digest = fileHasher.hash(root, job);
+                if (job != null) {
+                    job.fileHashed(root, digest);
+                }
+                return digest;
             }
         }
     }
+
+    private static class FileRead implements ForkJoinPool.ManagedBlocker {
+        private @NonNull Path file;
+        private @NonNull HashingOptions options;
+        private @Nullable HashingJob job;
+        private byte @Nullable [] hash;
+
+        private FileRead(@NonNull Path file, @NonNull HashingOptions options, @Nullable HashingJob job) {
+            this.file = file;
+            this.options = options;
+            this.job = job;
+        }
+
+        @Override
+        public boolean block() {
+            hash = HashingUtils.getFileHash(file, options, job);
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return hash != null;
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package com.example.test3;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent cache of file digests keyed by the path, size, modification time and file key (inode) of a file
+ * and the digest algorithm, so rehashing a mostly unchanged tree only reads the changed files.
+ * The cache is thread-safe.
+ * Directory digests are not cached: the modification time of a directory does not change with the contents
+ * of its files, and its digest is cheap to recompute from the cached digests of its entries.
+ */
+public class HashCache {
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * Files modified less than this before they were hashed are not cached: they could be modified again
+     * within the precision of the modification time without it changing.
+     */
+    private static final long RACY_INTERVAL_MILLIS = 2000;
+
+    private final @NonNull Path file;
+    private final @NonNull Map<Path, Entry> entries;
+    private final @NonNull Set<Path> usedPaths = ConcurrentHashMap.newKeySet();
+
+    private HashCache(@NonNull Path file, @NonNull Map<Path, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /** Loads the cache from the {@code file}. A missing or unreadable file gives an empty cache. */
+    public static @NonNull HashCache load(@NonNull Path file) {
+        Validate.notNull(file);
+        var entries = new ConcurrentHashMap<Path, Entry>();
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() == FORMAT_VERSION) {
+                int count = input.readInt();
+                for (int i = 0; i < count; ++i) {
+                    var path = Path.of(input.readUTF());
+                    long size = input.readLong();
+                    long modificationTime = input.readLong();
+                    var fileKey = input.readUTF();
+                    var algorithm = input.readUTF();
+                    var digest = new byte[input.readUnsignedShort()];
+                    input.readFully(digest);
+                    entries.put(path, new Entry(size, modificationTime, fileKey, algorithm, digest));
+                }
+            }
+        } catch (IOException e) {
+            entries.clear();
+        }
+        return new HashCache(file, entries);
+    }
+
+    /**
+     * Writes the cache to its file, replacing it atomically. Only the entries of the files hashed with this cache
+     * since it was loaded are kept, so the entries of deleted files do not pile up.
+     */
+    public void save() {
+        var temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            // entries may be added or removed meanwhile, so the count is of a snapshot
+            var saved = new ArrayList<Map.Entry<Path, Entry>>();
+            for (var path : usedPaths) {
+                var entry = entries.get(path);
+                if (entry != null) {
+                    saved.add(Map.entry(path, entry));
+                }
+            }
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(saved.size());
+            for (var savedEntry : saved) {
+                var path = savedEntry.getKey();
+                var entry = savedEntry.getValue();
+                output.writeUTF(path.toString());
+                output.writeLong(entry.size);
+                output.writeLong(entry.modificationTime);
+                output.writeUTF(entry.fileKey);
+                output.writeUTF(entry.algorithm);
+                output.writeShort(entry.digest.length);
+                output.write(entry.digest);
+            }
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error writing hash cache", e);
+        }
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error writing hash cache", e);
+        }
+    }
+
+    /** Returns the cached digest of the file by the algorithm if the file has the given attributes, or null */
+    byte @Nullable [] get(@NonNull Path path, @NonNull BasicFileAttributes attributes,
+                          @NonNull DigestAlgorithm algorithm) {
+        var key = key(path);
+        usedPaths.add(key);
+        var entry = entries.get(key);
+        if (entry == null || !entry.matches(attributes) || !entry.algorithm.equals(algorithm.getName())) {
+            return null;
+        }
+        return entry.digest;
+    }
+
+    /** Caches the digest of the file by the algorithm, the file had the given attributes before it was read */
+    void put(@NonNull Path path, @NonNull BasicFileAttributes attributes, @NonNull DigestAlgorithm algorithm,
+             byte @NonNull [] digest) {
+        var key = key(path);
+        usedPaths.add(key);
+        var modificationTime = attributes.lastModifiedTime().toMillis();
+        if (modificationTime > System.currentTimeMillis() - RACY_INTERVAL_MILLIS) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                                   fileKey(attributes), algorithm.getName(), digest));
+    }
+
+    /** Returns the number of cached digests */
+    int size() {
+        return entries.size();
+    }
+
+    private static @NonNull Path key(@NonNull Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static @NonNull String fileKey(@NonNull BasicFileAttributes attributes) {
+        return Objects.toString(attributes.fileKey(), "");
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long modificationTime;
+        private final @NonNull String fileKey;
+        private final @NonNull String algorithm;
+        private final byte @NonNull [] digest;
+
+        private Entry(long size, long modificationTime, @NonNull String fileKey, @NonNull String algorithm,
+                      byte @NonNull [] digest) {
+            this.size = size;
+            this.modificationTime = modificationTime;
+            this.fileKey = fileKey;
+            this.algorithm = algorithm;
+            this.digest = digest;
+        }
+
+        private boolean matches(@NonNull BasicFileAttributes attributes) {
+            return size == attributes.size()
+                   && modificationTime == attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                   && fileKey.equals(fileKey(attributes));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.test3;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** State of one asynchronous hashing shared by its tasks: the progress reported to the listener and cancellation */
+class HashingJob {
+    private final @NonNull HashingListener listener;
+    private final long startTime = System.nanoTime();
+    private final AtomicLong filesDone = new AtomicLong();
+    private final AtomicLong bytesDone = new AtomicLong();
+    private volatile boolean cancelled;
+
+    HashingJob(@NonNull HashingListener listener) {
+        this.listener = listener;
+    }
+
+    /** Adds the bytes read from a file to the progress, before the file is reported by {@link #fileHashed} */
+    void bytesRead(long bytes) {
+        bytesDone.addAndGet(bytes);
+    }
+
+    /** Reports the hashed file to the listener */
+    void fileHashed(@NonNull Path file, byte @NonNull [] digest) {
+        // the counters are updated separately, so the bytes of a concurrent file may be counted before the file
+        var progress = new HashingProgress(filesDone.incrementAndGet(), bytesDone.get(),
+                                           System.nanoTime() - startTime);
+        listener.fileHashed(file, digest, progress);
+    }
+
+    /** Makes the tasks which have not finished yet fail with a {@link CancellationException} */
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Hashing cancelled");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.test3;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.nio.file.Path;
+
+/**
+ * Listener of an asynchronous hashing started by {@link DirectoryHasher#hashAsync(Path, HashingListener)}.
+ * It is called from the hashing threads, possibly concurrently, so it should be thread-safe and quick.
+ */
+@FunctionalInterface
+public interface HashingListener {
+    /** Listener doing nothing */
+    HashingListener NONE = (file, digest, progress) -> {
+    };
+
+    /** Called when a file is hashed, with its digest and the progress including the file */
+    void fileHashed(@NonNull Path file, byte @NonNull [] digest, @NonNull HashingProgress progress);
+}
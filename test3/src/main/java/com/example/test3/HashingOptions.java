@@ -0,0 +1,91 @@
+package com.example.test3;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/** Immutable options of directory hashing */
+public class HashingOptions {
+    /** Options to hash the whole tree by MD5 following symbolic links, without a cache */
+    public static final @NonNull HashingOptions DEFAULT =
+            new HashingOptions(Integer.MAX_VALUE, SymbolicLinks.FOLLOW, 2 * Runtime.getRuntime().availableProcessors(),
+                               null, DigestAlgorithm.MD5);
+
+    /** What to do with symbolic links in the tree */
+    public enum SymbolicLinks {
+        /** Hash the target of a link under the name of the link, a link to an ancestor directory is an error */
+        FOLLOW,
+        /** Leave links out of the hash */
+        SKIP
+    }
+
+    private final int maxDepth;
+    private final @NonNull SymbolicLinks symbolicLinks;
+    private final int maxInFlightReads;
+    private final @Nullable HashCache cache;
+    private final @NonNull DigestAlgorithm algorithm;
+
+    private HashingOptions(int maxDepth, @NonNull SymbolicLinks symbolicLinks, int maxInFlightReads,
+                           @Nullable HashCache cache, @NonNull DigestAlgorithm algorithm) {
+        this.maxDepth = maxDepth;
+        this.symbolicLinks = symbolicLinks;
+        this.maxInFlightReads = maxInFlightReads;
+        this.cache = cache;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns the options with entries deeper than {@code maxDepth} levels below the root left out.
+     * Directories on the last level are left out too, so with 1 only the files directly in the root are hashed.
+     */
+    public @NonNull HashingOptions withMaxDepth(int maxDepth) {
+        Validate.isTrue(maxDepth >= 0, "Max depth can not be negative");
+        return new HashingOptions(maxDepth, symbolicLinks, maxInFlightReads, cache, algorithm);
+    }
+
+    public @NonNull HashingOptions withSymbolicLinks(@NonNull SymbolicLinks symbolicLinks) {
+        Validate.notNull(symbolicLinks);
+        return new HashingOptions(maxDepth, symbolicLinks, maxInFlightReads, cache, algorithm);
+    }
+
+    /**
+     * Returns the options with at most {@code maxInFlightReads} files read at once by the parallel hashing,
+     * e.g. 1 or 2 for a spinning disk and more for an SSD. Directories are listed meanwhile.
+     */
+    public @NonNull HashingOptions withMaxInFlightReads(int maxInFlightReads) {
+        Validate.isTrue(maxInFlightReads > 0, "Max in-flight reads should be positive");
+        return new HashingOptions(maxDepth, symbolicLinks, maxInFlightReads, cache, algorithm);
+    }
+
+    /** Returns the options with the digests of unchanged files taken from the {@code cache} */
+    public @NonNull HashingOptions withCache(@NonNull HashCache cache) {
+        Validate.notNull(cache);
+        return new HashingOptions(maxDepth, symbolicLinks, maxInFlightReads, cache, algorithm);
+    }
+
+    /** Returns the options with files and directories digested by the {@code algorithm} */
+    public @NonNull HashingOptions withAlgorithm(@NonNull DigestAlgorithm algorithm) {
+        Validate.notNull(algorithm);
+        return new HashingOptions(maxDepth, symbolicLinks, maxInFlightReads, cache, algorithm);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public @NonNull SymbolicLinks getSymbolicLinks() {
+        return symbolicLinks;
+    }
+
+    public int getMaxInFlightReads() {
+        return maxInFlightReads;
+    }
+
+    public @Nullable HashCache getCache() {
+        return cache;
+    }
+
+    public @NonNull DigestAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.test3;
+
+/** Immutable snapshot of the progress of a hashing: how many files and bytes are hashed and in what time */
+public class HashingProgress {
+    private final long filesDone;
+    private final long bytesDone;
+    private final long elapsedNanos;
+
+    HashingProgress(long filesDone, long bytesDone, long elapsedNanos) {
+        this.filesDone = filesDone;
+        this.bytesDone = bytesDone;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getFilesDone() {
+        return filesDone;
+    }
+
+    public long getBytesDone() {
+        return bytesDone;
+    }
+
+    /** Returns the time since the hashing started */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** Returns the bytes hashed per second since the hashing started */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesDone * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return filesDone + " files, " + bytesDone + " bytes in " + elapsedNanos / 1_000_000 + " ms";
+    }
+}
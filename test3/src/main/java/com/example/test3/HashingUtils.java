@@ -1,33 +1,201 @@
 package com.example.test3;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.security.DigestInputStream;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /** Routines common for hashing algorithms */
 public class HashingUtils {
+    /** Files not smaller than this are memory-mapped instead of read through a buffer */
+    static final long MAPPING_THRESHOLD = 1 << 24;
+    /** Size of the part of a file mapped at once, a mapping can not be larger than 2 GB */
+    static final long MAPPING_SIZE = 1 << 30;
+    private static final int BUFFER_SIZE = 1 << 20;
+    /** Direct buffers are expensive to allocate, so each thread reuses its own */
+    private static final ThreadLocal<ByteBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
 
     public static byte @NonNull [] getFileHash(@NonNull Path filePath) {
-        MessageDigest fileDigest;
-        try {
-            fileDigest = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new DirectoryHashComputingException("MD5 algorithm not available", e);
-        }
-        File file = filePath.toFile();
-        try (var inputStream = new FileInputStream(file);
-             var digestStream = new DigestInputStream(inputStream, fileDigest)) {
-            while (digestStream.read() != -1) {
+        return getFileHash(filePath, DigestAlgorithm.MD5);
+    }
+
+    /** Computes the hash of the file by the given {@code algorithm} */
+    public static byte @NonNull [] getFileHash(@NonNull Path filePath, @NonNull DigestAlgorithm algorithm) {
+        return getFileHash(filePath, algorithm, null);
+    }
+
+    /** Computes the hash of the file, the {@code job} if any gets the bytes read and can cancel the hashing */
+    static byte @NonNull [] getFileHash(@NonNull Path filePath, @NonNull DigestAlgorithm algorithm,
+                                        @Nullable HashingJob job) {
+        try (var channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (job == null) {
+                return algorithm.digest(channel, size);
             }
+            var hash = algorithm.digest(channel, size, job::isCancelled);
+            job.bytesRead(size);
+            return hash;
         } catch (IOException e) {
             throw new DirectoryHashComputingException("Error reading file", e);
         }
-        return fileDigest.digest();
+    }
+
+    /**
+     * Returns the hash of the file from the {@code cache} if the file did not change since it was cached,
+     * otherwise computes it and puts it into the cache.
+     */
+    public static byte @NonNull [] getFileHash(@NonNull Path filePath, @NonNull HashCache cache) {
+        return getFileHash(filePath, cache, DigestAlgorithm.MD5, null);
+    }
+
+    private static byte @NonNull [] getFileHash(@NonNull Path filePath, @NonNull HashCache cache,
+                                                @NonNull DigestAlgorithm algorithm, @Nullable HashingJob job) {
+        var attributes = readAttributes(filePath);
+        var hash = cache.get(filePath, attributes, algorithm);
+        if (hash == null) {
+            hash = getFileHash(filePath, algorithm, job);
+            cache.put(filePath, attributes, algorithm, hash);
+        }
+        return hash;
+    }
+
+    /** Returns the hash of the file by the algorithm and from the cache of the {@code options} */
+    static byte @NonNull [] getFileHash(@NonNull Path filePath, @NonNull HashingOptions options) {
+        return getFileHash(filePath, options, null);
+    }
+
+    /** Like {@link #getFileHash(Path, HashingOptions)}, the {@code job} if any gets the bytes read */
+    static byte @NonNull [] getFileHash(@NonNull Path filePath, @NonNull HashingOptions options,
+                                        @Nullable HashingJob job) {
+        var cache = options.getCache();
+        return cache == null ? getFileHash(filePath, options.getAlgorithm(), job)
+                             : getFileHash(filePath, cache, options.getAlgorithm(), job);
+    }
+
+    static @NonNull BasicFileAttributes readAttributes(@NonNull Path filePath) {
+        try {
+            return Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error reading file", e);
+        }
+    }
+
+    /** Returns a digest of a directory updated with its name */
+    static @NonNull MessageDigest startDirectoryDigest(@NonNull Path directory, @NonNull DigestAlgorithm algorithm) {
+        var treeDigest = algorithm.newDigest();
+        treeDigest.update(Objects.toString(directory.getFileName(), "").getBytes(StandardCharsets.UTF_8));
+        return treeDigest;
+    }
+
+    /**
+     * Returns the entries of the directory on the given {@code depth} (the root is on depth 0) to be hashed,
+     * sorted by name: regular files and directories within the max depth, following symbolic links or not.
+     * Other entries and broken links are left out.
+     */
+    static @NonNull List<Path> listEntries(@NonNull Path directory, int depth, @NonNull HashingOptions options) {
+        var entries = new ArrayList<Path>();
+        boolean followLinks = options.getSymbolicLinks() == HashingOptions.SymbolicLinks.FOLLOW;
+        var linkOptions = followLinks ? new LinkOption[0] : new LinkOption[]{LinkOption.NOFOLLOW_LINKS};
+        try (var directoryStream = Files.newDirectoryStream(directory)) {
+            for (var entry : directoryStream) {
+                if (!followLinks && Files.isSymbolicLink(entry)) {
+                    continue;
+                }
+                if (Files.isDirectory(entry, linkOptions) ? depth + 1 < options.getMaxDepth()
+                                                          : Files.isRegularFile(entry, linkOptions)
+                                                            && depth + 1 <= options.getMaxDepth()) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error listing directory", e);
+        }
+        entries.sort(Comparator.comparing(Path::getFileName));
+        return entries;
+    }
+
+    /**
+     * Returns the keys of the directories from the root to the {@code directory} when following symbolic links,
+     * so that a link to an ancestor is found instead of recursing forever, otherwise null.
+     */
+    static @Nullable Set<Object> enterDirectory(@NonNull Path directory, @Nullable Set<Object> ancestors,
+                                                @NonNull HashingOptions options) {
+        if (options.getSymbolicLinks() != HashingOptions.SymbolicLinks.FOLLOW) {
+            return null;
+        }
+        Object key;
+        try {
+            key = Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+            if (key == null) {
+                key = directory.toRealPath();
+            }
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error reading directory", e);
+        }
+        var keys = ancestors == null ? new HashSet<Object>() : new HashSet<>(ancestors);
+        if (!keys.add(key)) {
+            throw new DirectoryHashComputingException("Symbolic link cycle at " + directory);
+        }
+        return keys;
+    }
+
+    /** Updates the digest with the rest of the channel, read through a direct buffer of the current thread */
+    static void updateBuffered(@NonNull MessageDigest digest, @NonNull FileChannel channel) throws IOException {
+        updateBuffered(digest, channel, () -> false);
+    }
+
+    /** Like {@link #updateBuffered(MessageDigest, FileChannel)}, checking {@code cancelled} before each read */
+    static void updateBuffered(@NonNull MessageDigest digest, @NonNull FileChannel channel,
+                               @NonNull BooleanSupplier cancelled) throws IOException {
+        var buffer = BUFFER.get();
+        buffer.clear();
+        checkCancelled(cancelled);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+            checkCancelled(cancelled);
+        }
+    }
+
+    /** Updates the digest with the first {@code size} bytes of the channel, mapped by parts of {@code mappingSize} */
+    static void updateMapped(@NonNull MessageDigest digest, @NonNull FileChannel channel, long size, long mappingSize)
+            throws IOException {
+        updateMapped(digest, channel, size, mappingSize, () -> false);
+    }
+
+    /**
+     * Like {@link #updateMapped(MessageDigest, FileChannel, long, long)}, digesting a mapping by parts of
+     * the buffer size and checking {@code cancelled} before each of them.
+     */
+    static void updateMapped(@NonNull MessageDigest digest, @NonNull FileChannel channel, long size, long mappingSize,
+                             @NonNull BooleanSupplier cancelled) throws IOException {
+        for (long position = 0; position < size; position += mappingSize) {
+            var mapping = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(mappingSize, size - position));
+            for (int offset = 0; offset < mapping.capacity(); offset += BUFFER_SIZE) {
+                checkCancelled(cancelled);
+                digest.update(mapping.limit(Math.min(offset + BUFFER_SIZE, mapping.capacity())).position(offset));
+            }
+        }
+    }
+
+    /** Throws a {@link CancellationException} if {@code cancelled} returns true */
+    static void checkCancelled(@NonNull BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Hashing cancelled");
+        }
     }
 }
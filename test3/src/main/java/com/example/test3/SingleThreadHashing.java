@@ -2,41 +2,41 @@ package com.example.test3;
 
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Comparator;
-import java.util.stream.Collectors;
+import java.util.Set;
 
-/** Class for computing MD5 hash of a directory in one thread */
+/** Class for computing hash of a directory in one thread, by the {@link HashingOptions#getAlgorithm()} */
 public class SingleThreadHashing {
     public static byte[] hash(@NonNull Path root) {
+        return hash(root, HashingOptions.DEFAULT);
+    }
+
+    /** Computes the hash reusing the digests of unchanged files from the {@code cache} */
+    public static byte[] hash(@NonNull Path root, @NonNull HashCache cache) {
+        return hash(root, HashingOptions.DEFAULT.withCache(cache));
+    }
+
+    /** Computes the hash of the tree walked as set by the {@code options} */
+    public static byte[] hash(@NonNull Path root, @NonNull HashingOptions options) {
         Validate.notNull(root);
-        MessageDigest treeDigest;
-        try {
-            treeDigest = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new DirectoryHashComputingException("MD5 algorithm not available", e);
-        }
+        Validate.notNull(options);
+        return computeHash(root, 0, null, options);
+    }
+
+    private static byte[] computeHash(@NonNull Path root, int depth, @Nullable Set<Object> ancestors,
+                                      @NonNull HashingOptions options) {
         if (Files.isDirectory(root)) {
-            treeDigest.update(root.getFileName().toString().getBytes(Charset.forName("UTF-8")));
-            try {
-                for (var containingFile: Files.list(root)
-                                              .filter(path -> Files.isRegularFile(path))
-                                              .sorted(Comparator.comparing(Path::getFileName))
-                                              .collect(Collectors.toList())) {
-                    treeDigest.update(hash(containingFile));
-                }
-                return treeDigest.digest();
-            } catch (IOException e) {
-                throw new DirectoryHashComputingException("Error listing directory", e);
+            var directoryAncestors = HashingUtils.enterDirectory(root, ancestors, options);
+            var treeDigest = HashingUtils.startDirectoryDigest(root, options.getAlgorithm());
+            for (var entry : HashingUtils.listEntries(root, depth, options)) {
+                treeDigest.update(computeHash(entry, depth + 1, directoryAncestors, options));
             }
+            return treeDigest.digest();
         } else {
-            return HashingUtils.getFileHash(root);
+            return HashingUtils.getFileHash(root, options);
         }
     }
 }
@@ -0,0 +1,389 @@
+package com.example.test3;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Hasher keeping the hash of a live directory tree current. The tree is hashed once by a fork-join pool like
+ * {@link ForkJoinHashing}, keeping the digests of all its files and directories in memory, and its directories
+ * are watched by a {@link WatchService}. On changes only the changed entries are rehashed, and the digests of
+ * their ancestors are recomputed from the kept digests of their entries. The hash is the same as that of
+ * {@link ForkJoinHashing#hash(Path, HashingOptions)} once the changes are processed. The hasher should be closed
+ * to stop watching.
+ */
+public class WatchingHasher implements AutoCloseable {
+    private final @NonNull Path rootPath;
+    private final @NonNull HashingOptions options;
+    private final @NonNull ForkJoinPool pool;
+    private final @NonNull FileHasher fileHasher;
+    private final @NonNull WatchService watchService;
+    private final Map<WatchKey, Node> watchedDirectories = new ConcurrentHashMap<>();
+    /** Accessed only by the watcher thread after the initial hashing */
+    private @NonNull Node root;
+    private volatile byte @NonNull [] rootDigest;
+    private volatile @Nullable RuntimeException failure;
+    private volatile boolean closed;
+
+    /** Hashes the directory {@code root} with the default options and starts watching it */
+    public WatchingHasher(@NonNull Path root) {
+        this(root, HashingOptions.DEFAULT, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Hashes the directory {@code root} as set by the {@code options} by a pool of {@code parallelism} threads,
+     * which also rehashes the changes, and starts watching it.
+     */
+    public WatchingHasher(@NonNull Path root, @NonNull HashingOptions options, int parallelism) {
+        Validate.notNull(root);
+        Validate.notNull(options);
+        Validate.isTrue(parallelism > 0, "Parallelism should be positive");
+        Validate.isTrue(Files.isDirectory(root), "Root should be a directory");
+        rootPath = root;
+        this.options = options;
+        pool = new ForkJoinPool(parallelism);
+        fileHasher = ForkJoinHashing.blockingFileHasher(options);
+        try {
+            watchService = root.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            pool.shutdown();
+            throw new DirectoryHashComputingException("Error watching directory", e);
+        }
+        try {
+            this.root = pool.invoke(new BuildTask(root, 0, null, null));
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        rootDigest = this.root.digest;
+        var watcher = new Thread(this::watch, "hash-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /** Returns the hash of the tree with the changes processed so far */
+    public byte @NonNull [] getRootDigest() {
+        var failure = this.failure;
+        if (failure != null) {
+            throw new DirectoryHashComputingException("Error updating hash", failure);
+        }
+        return rootDigest.clone();
+    }
+
+    /**
+     * Waits until the hash of the tree differs from the {@code digest} or the {@code timeout} passes,
+     * returns the current hash.
+     */
+    public byte @NonNull [] awaitChange(byte @NonNull [] digest, long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException {
+        Validate.notNull(digest);
+        Validate.notNull(unit);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            long remaining = unit.toNanos(timeout);
+            while (Arrays.equals(rootDigest, digest) && failure == null && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        return getRootDigest();
+    }
+
+    /** Stops watching the tree, the hash is not updated anymore */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new DirectoryHashComputingException("Error closing watch service", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Processes the events until the watch service is closed, taking all the events pending at once */
+    private void watch() {
+        try {
+            while (true) {
+                var keys = new ArrayList<WatchKey>();
+                keys.add(watchService.take());
+                for (var key = watchService.poll(); key != null; key = watchService.poll()) {
+                    keys.add(key);
+                }
+                update(keys);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        } catch (RuntimeException e) {
+            if (closed) {
+                return;
+            }
+            failure = e;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /** Applies the events of the {@code keys}: rehashes the changed entries and recomputes their ancestors */
+    private void update(@NonNull List<WatchKey> keys) {
+        var changes = new LinkedHashMap<Node, Set<Path>>();
+        boolean overflow = false;
+        for (var key : keys) {
+            var directory = watchedDirectories.get(key);
+            for (var event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    overflow = true;
+                } else if (directory != null) {
+                    changes.computeIfAbsent(directory, d -> new HashSet<>()).add((Path) event.context());
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+                // the directory was removed or replaced, its parent relists it and rebuilds it if it is still there
+                if (directory != null && !directory.removed && directory.parent != null) {
+                    changes.computeIfAbsent(directory.parent, d -> new HashSet<>()).add(directory.path.getFileName());
+                }
+            }
+        }
+        if (overflow) {
+            unwatch(root);
+            root = pool.invoke(new BuildTask(rootPath, 0, null, null));
+        } else {
+            var changedDirectories = new ArrayList<Node>();
+            for (var change : changes.entrySet()) {
+                if (updateEntries(change.getKey(), change.getValue())) {
+                    changedDirectories.add(change.getKey());
+                }
+            }
+            updateDigests(changedDirectories);
+        }
+        synchronized (this) {
+            rootDigest = root.digest;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Relists the {@code directory}, rehashing the entries with the {@code changedNames} and the new ones, but not
+     * the changed directories still watched by their nodes, whose entries have their own events. Returns false
+     * if the directory is not in the tree anymore or was replaced, then its parent rebuilds it.
+     */
+    private boolean updateEntries(@NonNull Node directory, @NonNull Set<Path> changedNames) {
+        if (directory.removed || !isWatched(directory)) {
+            return false;
+        }
+        List<Path> paths;
+        try {
+            paths = HashingUtils.listEntries(directory.path, directory.depth, options);
+        } catch (DirectoryHashComputingException e) {
+            // removed or replaced since it was checked, the event of its parent follows
+            if (!isWatched(directory) || isRemoved(directory.path, e)) {
+                return false;
+            }
+            throw e;
+        }
+        var oldEntries = Objects.requireNonNull(directory.entries);
+        var entries = new TreeMap<Path, Node>();
+        var tasks = new ArrayList<BuildTask>();
+        for (var path : paths) {
+            var name = path.getFileName();
+            var oldEntry = oldEntries.get(name);
+            if (oldEntry != null && (!changedNames.contains(name) || isWatched(oldEntry))) {
+                entries.put(name, oldEntry);
+            } else {
+                var task = new BuildTask(path, directory.depth + 1, directory.ancestors, directory);
+                pool.execute(task);
+                tasks.add(task);
+            }
+        }
+        joinEntries(tasks, entries);
+        for (var oldEntry : oldEntries.entrySet()) {
+            if (entries.get(oldEntry.getKey()) != oldEntry.getValue()) {
+                unwatch(oldEntry.getValue());
+            }
+        }
+        directory.entries = entries;
+        return true;
+    }
+
+    /**
+     * Joins the {@code tasks} building entries into the {@code entries}. An entry removed while it was built is
+     * left out, the event of its removal follows. Every task is joined before a failure is thrown.
+     */
+    private static void joinEntries(@NonNull List<BuildTask> tasks, @NonNull Map<Path, Node> entries) {
+        DirectoryHashComputingException failure = null;
+        for (var task : tasks) {
+            try {
+                entries.put(task.path.getFileName(), task.join());
+            } catch (DirectoryHashComputingException e) {
+                if (failure == null && !isRemoved(task.path, e)) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns whether the {@code failure} to hash the {@code path} comes from its removal or replacement. The
+     * removals deeper in its subtree are left out by their own tasks, so a missing file is the path itself.
+     */
+    private static boolean isRemoved(@NonNull Path path, @NonNull RuntimeException failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NoSuchFileException || cause instanceof NotDirectoryException) {
+                return true;
+            }
+        }
+        return !Files.exists(path, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /** Recomputes the digests of the {@code directories} and their ancestors, the deepest first */
+    private void updateDigests(@NonNull List<Node> directories) {
+        var toUpdate = new HashSet<Node>();
+        for (var directory : directories) {
+            var node = directory;
+            while (node != null && !node.removed && toUpdate.add(node)) {
+                node = node.parent;
+            }
+        }
+        var ordered = new ArrayList<>(toUpdate);
+        ordered.sort(Comparator.comparingInt((Node node) -> node.depth).reversed());
+        for (var directory : ordered) {
+            directory.updateDigest();
+        }
+    }
+
+    /**
+     * Returns whether the directory {@code node} still watches the directory at its path. It does not if the key
+     * is invalid, if a new node got the same key, which happens when a directory moved within the tree is
+     * registered again, or if another directory has replaced it.
+     */
+    private boolean isWatched(@NonNull Node node) {
+        if (node.entries == null || node.watchKey == null || !node.watchKey.isValid()
+            || watchedDirectories.get(node.watchKey) != node) {
+            return false;
+        }
+        try {
+            var attributes = Files.readAttributes(node.path, BasicFileAttributes.class);
+            return attributes.isDirectory() && Objects.equals(node.fileKey, attributes.fileKey());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stops watching the directories of the subtree removed from the tree. A key is cancelled only if the node
+     * still owns it, a moved directory shares its key with its new node.
+     */
+    private void unwatch(@NonNull Node node) {
+        node.removed = true;
+        if (node.watchKey != null && watchedDirectories.remove(node.watchKey, node)) {
+            node.watchKey.cancel();
+        }
+        if (node.entries != null) {
+            for (var entry : node.entries.values()) {
+                unwatch(entry);
+            }
+        }
+    }
+
+    /** File or directory of the tree with its digest, a directory keeps its entries by name */
+    private class Node {
+        private final @NonNull Path path;
+        private final int depth;
+        private final @Nullable Node parent;
+        private final @Nullable Set<Object> ancestors;
+        private @Nullable TreeMap<Path, Node> entries;
+        private @Nullable WatchKey watchKey;
+        /** File key of a directory, to tell it from another directory created at its path */
+        private @Nullable Object fileKey;
+        private byte @NonNull [] digest = new byte[0];
+        private boolean removed;
+
+        private Node(@NonNull Path path, int depth, @Nullable Node parent, @Nullable Set<Object> ancestors) {
+            this.path = path;
+            this.depth = depth;
+            this.parent = parent;
+            this.ancestors = ancestors;
+        }
+
+        private void updateDigest() {
+            var treeDigest = HashingUtils.startDirectoryDigest(path, options.getAlgorithm());
+            for (var entry : Objects.requireNonNull(entries).values()) {
+                treeDigest.update(entry.digest);
+            }
+            digest = treeDigest.digest();
+        }
+    }
+
+    /**
+     * Task hashing a file or a directory into a new node, like {@link ForkJoinHashing.HashingTask}. A directory
+     * is watched before it is listed, so no change is missed.
+     */
+    private class BuildTask extends RecursiveTask<Node> {
+        private final @NonNull Path path;
+        private final int depth;
+        private final @Nullable Set<Object> ancestors;
+        private final @Nullable Node parent;
+
+        private BuildTask(@NonNull Path path, int depth, @Nullable Set<Object> ancestors, @Nullable Node parent) {
+            this.path = path;
+            this.depth = depth;
+            this.ancestors = ancestors;
+            this.parent = parent;
+        }
+
+        @Override
+        protected @NonNull Node compute() {
+            if (!Files.isDirectory(path)) {
+                var node = new Node(path, depth, parent, null);
+                node.digest = fileHasher.hash(path, null);
+                return node;
+            }
+            var node = new Node(path, depth, parent, HashingUtils.enterDirectory(path, ancestors, options));
+            try {
+                build(node);
+            } catch (RuntimeException e) {
+                // the node is left out of the tree, so its directories are not watched anymore
+                unwatch(node);
+                throw e;
+            }
+            return node;
+        }
+
+        private void build(@NonNull Node node) {
+            // read before the directory is watched, so a directory replaced meanwhile is found stale later
+            node.fileKey = HashingUtils.readAttributes(path).fileKey();
+            try {
+                node.watchKey = path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            } catch (IOException e) {
+                throw new DirectoryHashComputingException("Error watching directory", e);
+            }
+            watchedDirectories.put(node.watchKey, node);
+            var tasks = new ArrayList<BuildTask>();
+            for (var entry : HashingUtils.listEntries(path, depth, options)) {
+                var task = new BuildTask(entry, depth + 1, node.ancestors, node);
+                task.fork();
+                tasks.add(task);
+            }
+            node.entries = new TreeMap<>();
+            joinEntries(tasks, node.entries);
+            node.updateDigest();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.test3;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * Fast non-cryptographic 64-bit hash XXH64 with seed 0, as a {@link MessageDigest}.
+ * The digest is the hash in big-endian order, as printed by {@code xxhsum}.
+ */
+class XxHash64 extends MessageDigest {
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE_LENGTH = 32;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private long accumulator1;
+    private long accumulator2;
+    private long accumulator3;
+    private long accumulator4;
+    private long totalLength;
+    /** Bytes of the stripe which is not complete yet */
+    private final byte[] stripe = new byte[STRIPE_LENGTH];
+    private int stripeLength;
+
+    XxHash64() {
+        super("XXH64");
+        engineReset();
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        engineUpdate(new byte[]{input}, 0, 1);
+    }
+
+    @Override
+    protected void engineUpdate(byte @NonNull [] input, int offset, int length) {
+        totalLength += length;
+        if (stripeLength > 0) {
+            int copied = Math.min(length, STRIPE_LENGTH - stripeLength);
+            System.arraycopy(input, offset, stripe, stripeLength, copied);
+            stripeLength += copied;
+            offset += copied;
+            length -= copied;
+            if (stripeLength < STRIPE_LENGTH) {
+                return;
+            }
+            consumeStripe(stripe, 0);
+            stripeLength = 0;
+        }
+        for (; length >= STRIPE_LENGTH; offset += STRIPE_LENGTH, length -= STRIPE_LENGTH) {
+            consumeStripe(input, offset);
+        }
+        System.arraycopy(input, offset, stripe, 0, length);
+        stripeLength = length;
+    }
+
+    private void consumeStripe(byte @NonNull [] input, int offset) {
+        accumulator1 = round(accumulator1, (long) LONGS.get(input, offset));
+        accumulator2 = round(accumulator2, (long) LONGS.get(input, offset + 8));
+        accumulator3 = round(accumulator3, (long) LONGS.get(input, offset + 16));
+        accumulator4 = round(accumulator4, (long) LONGS.get(input, offset + 24));
+    }
+
+    @Override
+    protected byte @NonNull [] engineDigest() {
+        long hash;
+        if (totalLength >= STRIPE_LENGTH) {
+            hash = Long.rotateLeft(accumulator1, 1) + Long.rotateLeft(accumulator2, 7)
+                   + Long.rotateLeft(accumulator3, 12) + Long.rotateLeft(accumulator4, 18);
+            hash = mergeRound(hash, accumulator1);
+            hash = mergeRound(hash, accumulator2);
+            hash = mergeRound(hash, accumulator3);
+            hash = mergeRound(hash, accumulator4);
+        } else {
+            hash = PRIME_5;
+        }
+        hash += totalLength;
+        int offset = 0;
+        for (; offset + 8 <= stripeLength; offset += 8) {
+            hash ^= round(0, (long) LONGS.get(stripe, offset));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (offset + 4 <= stripeLength) {
+            hash ^= ((int) INTS.get(stripe, offset) & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            offset += 4;
+        }
+        for (; offset < stripeLength; ++offset) {
+            hash ^= (stripe[offset] & 0xFF) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        engineReset();
+        var digest = new byte[Long.BYTES];
+        for (int i = 0; i < Long.BYTES; ++i) {
+            digest[i] = (byte) (hash >>> (56 - 8 * i));
+        }
+        return digest;
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return Long.BYTES;
+    }
+
+    @Override
+    protected void engineReset() {
+        accumulator1 = PRIME_1 + PRIME_2;
+        accumulator2 = PRIME_2;
+        accumulator3 = 0;
+        accumulator4 = -PRIME_1;
+        totalLength = 0;
+        stripeLength = 0;
+    }
+
+    private static long round(long accumulator, long input) {
+        return Long.rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long mergeRound(long hash, long accumulator) {
+        return (hash ^ round(0, accumulator)) * PRIME_1 + PRIME_4;
+    }
+}
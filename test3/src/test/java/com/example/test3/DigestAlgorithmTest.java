@@ -0,0 +1,155 @@
+package com.example.test3;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigestAlgorithmTest {
+    @Test
+    void testXxHash64Vectors() {
+        assertEquals("ef46db3751d8e999", hex(DigestAlgorithm.XXH64, ""));
+        assertEquals("44bc2cf5ad770999", hex(DigestAlgorithm.XXH64, "abc"));
+        assertEquals("fbcea83c8a378bf1", hex(DigestAlgorithm.XXH64, "Nobody inspects the spammish repetition"));
+    }
+
+    @Test
+    void testBlake3Vectors() {
+        assertEquals("af1349b9f5f9a1a6a0404dea36dcc9499bcb25c9adc112b7cc9a93cae41f3262",
+                     hex(DigestAlgorithm.BLAKE3, ""));
+        assertEquals("6437b3ac38465133ffb63b75273a8db548c558465d79db03fd359c6cd5bd9d85",
+                     hex(DigestAlgorithm.BLAKE3, "abc"));
+    }
+
+    @Test
+    void testUpdatesInParts() {
+        var input = randomBytes(10000);
+        for (var algorithm : new DigestAlgorithm[]{DigestAlgorithm.XXH64, DigestAlgorithm.BLAKE3}) {
+            var expected = algorithm.newDigest().digest(input);
+            for (int part : new int[]{1, 7, 31, 64, 1023, 1024, 1025}) {
+                var digest = algorithm.newDigest();
+                for (int offset = 0; offset < input.length; offset += part) {
+                    digest.update(input, offset, Math.min(part, input.length - offset));
+                }
+                assertArrayEquals(expected, digest.digest(), algorithm.getName() + " by " + part);
+            }
+        }
+    }
+
+    @Test
+    void testBlake3Tree(@TempDir Path tempDir) throws IOException {
+        var pool = new ForkJoinPool(3);
+        try {
+            // the file is hashed by subtrees, the streaming digest merges chunks one by one
+            for (long size : new long[]{Blake3.PARALLEL_THRESHOLD, Blake3.PARALLEL_THRESHOLD + 1,
+                                        3 * Blake3.PARALLEL_THRESHOLD + 517, 5L * Blake3.LEAF_SUBTREE_LENGTH - 1024}) {
+                var input = randomBytes((int) size);
+                var file = tempDir.resolve("file" + size);
+                Files.write(file, input);
+                var expected = DigestAlgorithm.BLAKE3.newDigest().digest(input);
+                assertArrayEquals(expected, pool.submit(() -> HashingUtils.getFileHash(file, DigestAlgorithm.BLAKE3))
+                                                .join());
+                try (var channel = FileChannel.open(file)) {
+                    assertArrayEquals(expected, DigestAlgorithm.BLAKE3.digest(channel, size));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDirectoryHashing(@TempDir Path tempDir) throws IOException, NoSuchAlgorithmException {
+        var file = tempDir.resolve("file");
+        Files.writeString(file, "aaaa");
+        var options = HashingOptions.DEFAULT.withAlgorithm(DigestAlgorithm.SHA_256);
+        var expected = MessageDigest.getInstance("SHA-256").digest("aaaa".getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(expected, SingleThreadHashing.hash(file, options));
+        assertArrayEquals(expected, ForkJoinHashing.hash(file, options));
+        try (var hasher = new DirectoryHasher(2, options)) {
+            assertArrayEquals(expected, hasher.hash(file));
+        }
+        for (var algorithm : new DigestAlgorithm[]{DigestAlgorithm.XXH64, DigestAlgorithm.BLAKE3}) {
+            var algorithmOptions = HashingOptions.DEFAULT.withAlgorithm(algorithm);
+            assertArrayEquals(SingleThreadHashing.hash(tempDir, algorithmOptions),
+                              ForkJoinHashing.hash(tempDir, algorithmOptions));
+        }
+    }
+
+    @Test
+    void testChunked(@TempDir Path tempDir) throws IOException, NoSuchAlgorithmException {
+        var chunked = DigestAlgorithm.chunked(DigestAlgorithm.MD5, 4096);
+        assertEquals("MD5-CHUNKED-4096", chunked.getName());
+        var pool = new ForkJoinPool(3);
+        try {
+            for (int size : new int[]{0, 100, 4096, 4097, 10 * 4096 + 3}) {
+                var input = randomBytes(size);
+                var expected = MessageDigest.getInstance("MD5");
+                for (int offset = 0; offset == 0 || offset < size; offset += 4096) {
+                    var chunk = MessageDigest.getInstance("MD5");
+                    chunk.update(input, offset, Math.min(4096, size - offset));
+                    expected.update(chunk.digest());
+                }
+                var expectedDigest = expected.digest();
+                assertArrayEquals(expectedDigest, chunked.newDigest().digest(input));
+
+                var file = tempDir.resolve("file" + size);
+                Files.write(file, input);
+                assertArrayEquals(expectedDigest, HashingUtils.getFileHash(file, chunked));
+                assertArrayEquals(expectedDigest, pool.submit(() -> HashingUtils.getFileHash(file, chunked)).join());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> DigestAlgorithm.chunked(DigestAlgorithm.MD5, 0));
+    }
+
+    @Test
+    void testCancelledParallelDigest(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("file");
+        Files.write(file, randomBytes((int) Blake3.PARALLEL_THRESHOLD));
+        var pool = new ForkJoinPool(3);
+        try (var channel = FileChannel.open(file)) {
+            for (var algorithm : new DigestAlgorithm[]{DigestAlgorithm.BLAKE3,
+                                                       DigestAlgorithm.chunked(DigestAlgorithm.MD5, 4096)}) {
+                long size = channel.size();
+                assertThrows(CancellationException.class, () -> algorithm.digest(channel, size, () -> true));
+                var task = pool.submit(() -> algorithm.digest(channel, size, () -> true));
+                assertThrows(CancellationException.class, task::join);
+                assertArrayEquals(algorithm.digest(channel, size), algorithm.digest(channel, size, () -> false));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testForName() {
+        assertSame(DigestAlgorithm.BLAKE3, DigestAlgorithm.forName("blake3"));
+        assertSame(DigestAlgorithm.SHA_256, DigestAlgorithm.forName("SHA-256"));
+        assertEquals("SHA-1", DigestAlgorithm.forName("SHA-1").getName());
+        assertThrows(DirectoryHashComputingException.class, () -> DigestAlgorithm.forName("unknown"));
+    }
+
+    private static String hex(DigestAlgorithm algorithm, String input) {
+        return Hex.encodeHexString(algorithm.newDigest().digest(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] randomBytes(int size) {
+        var bytes = new byte[size];
+        new Random(209).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.test3;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryHasherTest {
+    @Test
+    void testSameHashes(@TempDir Path tempDir) throws IOException {
+        var root = createTree(tempDir);
+        var expected = SingleThreadHashing.hash(root);
+        try (var hasher = new DirectoryHasher(3, HashingOptions.DEFAULT.withMaxInFlightReads(2))) {
+            assertArrayEquals(expected, hasher.hash(root));
+            // the hasher can be reused
+            assertArrayEquals(expected, hasher.hash(root));
+            assertArrayEquals(SingleThreadHashing.hash(root.resolve("large")), hasher.hash(root.resolve("large")));
+        }
+        try (var hasher = new DirectoryHasher(3, HashingOptions.DEFAULT, false)) {
+            assertArrayEquals(expected, hasher.hash(root));
+        }
+    }
+
+    @Test
+    void testCache(@TempDir Path tempDir) throws IOException {
+        var root = createTree(tempDir);
+        var cache = HashCache.load(tempDir.resolve("cache"));
+        try (var hasher = new DirectoryHasher(2, HashingOptions.DEFAULT.withCache(cache))) {
+            assertArrayEquals(SingleThreadHashing.hash(root), hasher.hash(root));
+        }
+    }
+
+    @Test
+    void testMissingFile(@TempDir Path tempDir) {
+        try (var hasher = new DirectoryHasher()) {
+            assertThrows(DirectoryHashComputingException.class, () -> hasher.hash(tempDir.resolve("missing")));
+        }
+    }
+
+    @Test
+    void testClosed(@TempDir Path tempDir) {
+        var hasher = new DirectoryHasher();
+        hasher.close();
+        assertThrows(IllegalStateException.class, () -> hasher.hash(tempDir));
+    }
+
+    @Test
+    void testAsync(@TempDir Path tempDir) throws IOException {
+        var root = createTree(tempDir);
+        var digests = new ConcurrentHashMap<Path, byte[]>();
+        var lastProgress = new AtomicReference<HashingProgress>();
+        HashingListener listener = (file, digest, progress) -> {
+            digests.put(file, digest);
+            lastProgress.accumulateAndGet(progress, (a, b) -> a == null || b.getFilesDone() > a.getFilesDone() ? b : a);
+        };
+        for (boolean separateIo : new boolean[]{true, false}) {
+            digests.clear();
+            lastProgress.set(null);
+            try (var hasher = new DirectoryHasher(3, HashingOptions.DEFAULT, separateIo)) {
+                assertArrayEquals(SingleThreadHashing.hash(root), hasher.hashAsync(root, listener).join());
+            }
+            assertEquals(102, digests.size());
+            for (var entry : digests.entrySet()) {
+                assertArrayEquals(HashingUtils.getFileHash(entry.getKey()), entry.getValue());
+            }
+            assertEquals(102, lastProgress.get().getFilesDone());
+            long totalSize = 0;
+            for (var file : digests.keySet()) {
+                totalSize += Files.size(file);
+            }
+            assertEquals(totalSize, lastProgress.get().getBytesDone());
+        }
+    }
+
+    @Test
+    void testCancel(@TempDir Path tempDir) throws IOException, InterruptedException {
+        var root = createTree(tempDir);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var filesHashed = new AtomicInteger();
+        HashingListener listener = (file, digest, progress) -> {
+            filesHashed.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try (var hasher = new DirectoryHasher(2, HashingOptions.DEFAULT, false)) {
+            var future = hasher.hashAsync(root, listener);
+            started.await();
+            assertTrue(future.cancel(true));
+            release.countDown();
+            assertThrows(CancellationException.class, future::join);
+            // the remaining tasks fail at once, and the hasher is still usable
+            assertArrayEquals(SingleThreadHashing.hash(root), hasher.hash(root));
+        }
+        assertTrue(filesHashed.get() < 10);
+    }
+
+    @Test
+    void testCancelWhileReadingLargeFile(@TempDir Path tempDir) throws IOException {
+        // larger than the mapping threshold, so both the buffered and the mapped reads are checked
+        var file = tempDir.resolve("large");
+        var content = new byte[(int) HashingUtils.MAPPING_THRESHOLD + 123];
+        new Random(209).nextBytes(content);
+        Files.write(file, content);
+        // a mapping is digested by parts between the checks
+        assertArrayEquals(DigestAlgorithm.MD5.newDigest().digest(content),
+                          HashingUtils.getFileHash(file, DigestAlgorithm.MD5));
+        var job = new HashingJob(HashingListener.NONE);
+        job.cancel();
+        try (var hasher = new DirectoryHasher()) {
+            assertThrows(CancellationException.class, () -> hasher.hashFile(file, job));
+        }
+        for (var algorithm : new DigestAlgorithm[]{DigestAlgorithm.MD5, DigestAlgorithm.XXH64, DigestAlgorithm.BLAKE3,
+                                                   DigestAlgorithm.chunked(DigestAlgorithm.MD5, 1 << 20)}) {
+            assertThrows(CancellationException.class, () -> HashingUtils.getFileHash(file, algorithm, job));
+            try (var channel = FileChannel.open(file)) {
+                assertThrows(CancellationException.class, () -> algorithm.digest(channel, 1 << 20, () -> true));
+            }
+        }
+    }
+
+    private static Path createTree(Path tempDir) throws IOException {
+        var root = tempDir.resolve("root");
+        var random = new Random(209);
+        for (int i = 0; i < 5; ++i) {
+            var directory = root.resolve("d" + i);
+            Files.createDirectories(directory);
+            for (int j = 0; j < 20; ++j) {
+                var content = new byte[random.nextInt(10000)];
+                random.nextBytes(content);
+                Files.write(directory.resolve("f" + j), content);
+            }
+        }
+        Files.write(root.resolve("empty"), new byte[0]);
+        // several chunks
+        var content = new byte[(5 << 20) + 123];
+        random.nextBytes(content);
+        Files.write(root.resolve("large"), content);
+        return root;
+    }
+}
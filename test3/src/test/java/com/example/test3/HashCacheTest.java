@@ -0,0 +1,98 @@
+package com.example.test3;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashCacheTest {
+    private static final FileTime OLD_TIME = FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS));
+
+    @Test
+    void testSingleThreadCache(@TempDir Path tempDir) throws IOException {
+        testCache(SingleThreadHashing::hash, SingleThreadHashing::hash, tempDir);
+    }
+
+    @Test
+    void testForkJoinCache(@TempDir Path tempDir) throws IOException {
+        testCache(ForkJoinHashing::hash, ForkJoinHashing::hash, tempDir);
+    }
+
+    @Test
+    void testRecentFilesNotCached(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("file");
+        Files.writeString(file, "aaa");
+        var cache = HashCache.load(tempDir.resolve("cache"));
+        HashingUtils.getFileHash(file, cache);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testUnusedEntriesDropped(@TempDir Path tempDir) throws IOException {
+        var cacheFile = tempDir.resolve("cache");
+        var first = createOldFile(tempDir.resolve("first"), "aaa");
+        var second = createOldFile(tempDir.resolve("second"), "bbb");
+        var cache = HashCache.load(cacheFile);
+        HashingUtils.getFileHash(first, cache);
+        HashingUtils.getFileHash(second, cache);
+        cache.save();
+        assertEquals(2, HashCache.load(cacheFile).size());
+
+        cache = HashCache.load(cacheFile);
+        HashingUtils.getFileHash(first, cache);
+        cache.save();
+        assertEquals(1, HashCache.load(cacheFile).size());
+    }
+
+    @Test
+    void testCorruptCacheFile(@TempDir Path tempDir) throws IOException {
+        var cacheFile = tempDir.resolve("cache");
+        Files.writeString(cacheFile, "not a cache");
+        assertEquals(0, HashCache.load(cacheFile).size());
+        assertEquals(0, HashCache.load(tempDir.resolve("missing")).size());
+    }
+
+    private void testCache(BiFunction<@NonNull Path, @NonNull HashCache, byte[]> hashWithCache,
+                           Function<@NonNull Path, byte[]> hash,
+                           @NonNull Path tempDir) throws IOException {
+        var directory = tempDir.resolve("tree");
+        Files.createDirectories(directory);
+        var changed = createOldFile(directory.resolve("changed"), "aaa");
+        var unchanged = createOldFile(directory.resolve("unchanged"), "bbb");
+        var cacheFile = tempDir.resolve("cache");
+
+        var cache = HashCache.load(cacheFile);
+        var expected = hash.apply(directory);
+        assertArrayEquals(expected, hashWithCache.apply(directory, cache));
+        cache.save();
+
+        // a change with a new modification time is noticed
+        createOldFile(changed, "ccc");
+        Files.setLastModifiedTime(changed, FileTime.from(OLD_TIME.toInstant().plusSeconds(1)));
+        assertArrayEquals(hash.apply(directory), hashWithCache.apply(directory, HashCache.load(cacheFile)));
+        assertFalse(Arrays.equals(expected, hash.apply(directory)));
+
+        // a change keeping the size and the modification time is not, which shows the cached digest is used
+        var unchangedHash = HashingUtils.getFileHash(unchanged);
+        createOldFile(unchanged, "ddd");
+        cache = HashCache.load(cacheFile);
+        assertArrayEquals(unchangedHash, HashingUtils.getFileHash(unchanged, cache));
+    }
+
+    private static Path createOldFile(@NonNull Path path, @NonNull String content) throws IOException {
+        Files.writeString(path, content);
+        Files.setLastModifiedTime(path, OLD_TIME);
+        return path;
+    }
+}
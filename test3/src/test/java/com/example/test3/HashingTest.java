@@ -6,11 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class HashingTest {
     @Test
@@ -33,6 +39,53 @@ class HashingTest {
         testNested(ForkJoinHashing::hash, tempDir);
     }
 
+    @Test
+    void testSingleThreadMaxDepth(@TempDir Path tempDir) {
+        testMaxDepth(SingleThreadHashing::hash, tempDir);
+    }
+
+    @Test
+    void testForkJoinMaxDepth(@TempDir Path tempDir) {
+        testMaxDepth(ForkJoinHashing::hash, tempDir);
+    }
+
+    @Test
+    void testSingleThreadSymbolicLinks(@TempDir Path tempDir) throws IOException {
+        testSymbolicLinks(SingleThreadHashing::hash, tempDir);
+    }
+
+    @Test
+    void testForkJoinSymbolicLinks(@TempDir Path tempDir) throws IOException {
+        testSymbolicLinks(ForkJoinHashing::hash, tempDir);
+    }
+
+    @Test
+    void testForkJoinDeepTree(@TempDir Path tempDir) {
+        testDeepTree(ForkJoinHashing::hash, tempDir);
+    }
+
+    @Test
+    void testLargeFiles(@TempDir Path tempDir) throws IOException, NoSuchAlgorithmException {
+        var random = new Random(209);
+        // smaller and larger than the read buffer, and larger than the mapping threshold
+        for (int size : new int[]{0, 1, 1 << 20, (1 << 20) + 17, (int) HashingUtils.MAPPING_THRESHOLD + 1}) {
+            var content = new byte[size];
+            random.nextBytes(content);
+            var file = tempDir.resolve("file" + size);
+            Files.write(file, content);
+            var expected = MessageDigest.getInstance("MD5").digest(content);
+            assertArrayEquals(expected, HashingUtils.getFileHash(file));
+            assertArrayEquals(expected, ForkJoinHashing.hash(file));
+
+            // several small mappings
+            var digest = MessageDigest.getInstance("MD5");
+            try (var channel = FileChannel.open(file)) {
+                HashingUtils.updateMapped(digest, channel, size, 1000);
+            }
+            assertArrayEquals(expected, digest.digest());
+        }
+    }
+
     void testOneFile(Function<@NonNull Path, byte[]> hash, @NonNull Path tempDir) {
         var testFile = tempDir.resolve("aaa");
         createFile(testFile, "aaaa");
@@ -42,6 +95,52 @@ class HashingTest {
     }
 
     void testNested(Function<@NonNull Path, byte[]> hash, @NonNull Path tempDir) {
+        var result = hash.apply(createNested(tempDir));
+        System.out.println(Arrays.toString(result));
+        assertArrayEquals(new byte[]{48, -38, -86, 51, 93, 87, 57, -2, 69, 13, 113, -64, 7, 3, 2, 54}, result);
+    }
+
+    void testMaxDepth(BiFunction<@NonNull Path, @NonNull HashingOptions, byte[]> hash, @NonNull Path tempDir) {
+        var directory = createNested(tempDir);
+        // only the files directly in the directory, as before subdirectories were supported
+        assertArrayEquals(new byte[]{94, 59, 117, -19, -108, 63, -63, 24, -116, -84, 53, -8, -114, -14, -26, 116},
+                          hash.apply(directory, HashingOptions.DEFAULT.withMaxDepth(1)));
+        assertArrayEquals(hash.apply(directory, HashingOptions.DEFAULT),
+                          hash.apply(directory, HashingOptions.DEFAULT.withMaxDepth(2)));
+    }
+
+    void testSymbolicLinks(BiFunction<@NonNull Path, @NonNull HashingOptions, byte[]> hash, @NonNull Path tempDir)
+            throws IOException {
+        var directory = createNested(tempDir);
+        var withoutLinks = hash.apply(directory, HashingOptions.DEFAULT);
+        var link = directory.resolve("link");
+        try {
+            Files.createSymbolicLink(link, directory.resolve("uuu"));
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        var skip = HashingOptions.DEFAULT.withSymbolicLinks(HashingOptions.SymbolicLinks.SKIP);
+        assertArrayEquals(withoutLinks, hash.apply(directory, skip));
+        assertFalse(Arrays.equals(withoutLinks, hash.apply(directory, HashingOptions.DEFAULT)));
+
+        Files.createSymbolicLink(directory.resolve("uuu").resolve("cycle"), directory);
+        assertThrows(DirectoryHashComputingException.class, () -> hash.apply(directory, HashingOptions.DEFAULT));
+        assertArrayEquals(withoutLinks, hash.apply(directory, skip));
+    }
+
+    void testDeepTree(BiFunction<@NonNull Path, @NonNull HashingOptions, byte[]> hash, @NonNull Path tempDir) {
+        var directory = tempDir;
+        for (int depth = 0; depth < 20; ++depth) {
+            directory = directory.resolve("d" + depth);
+            for (int i = 0; i < 5; ++i) {
+                createFile(directory.resolve("f" + i), "content " + depth + " " + i);
+            }
+        }
+        var options = HashingOptions.DEFAULT.withMaxInFlightReads(1);
+        assertArrayEquals(SingleThreadHashing.hash(tempDir.resolve("d0")), hash.apply(tempDir.resolve("d0"), options));
+    }
+
+    private @NonNull Path createNested(@NonNull Path tempDir) {
         var directory = tempDir.resolve("bbb");
         directory.toFile().mkdirs();
         var testFile2 = directory.resolve("ccc");
@@ -52,9 +151,7 @@ class HashingTest {
         nestedDir.toFile().mkdirs();
         var testFile4 = nestedDir.resolve("qqqq");
         createFile(testFile4, "zzz");
-        var result = hash.apply(directory);
-        System.out.println(Arrays.toString(result));
-        assertArrayEquals(new byte[]{94, 59, 117, -19, -108, 63, -63, 24, -116, -84, 53, -8, -114, -14, -26, 116}, result);
+        return directory;
     }
 
     private void createFile(@NonNull Path path, @NonNull String content) {
@@ -0,0 +1,150 @@
+package com.example.test3;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchingHasherTest {
+    @Test
+    void testUpdates(@TempDir Path tempDir) throws IOException, InterruptedException {
+        var root = tempDir.resolve("root");
+        Files.createDirectories(root.resolve("a/b"));
+        Files.writeString(root.resolve("a/b/file"), "aaaa");
+        Files.writeString(root.resolve("a/file"), "bbbb");
+        Files.writeString(root.resolve("file"), "cccc");
+        try (var hasher = new WatchingHasher(root, HashingOptions.DEFAULT, 2)) {
+            assertArrayEquals(ForkJoinHashing.hash(root), hasher.getRootDigest());
+
+            Files.writeString(root.resolve("a/b/file"), "dddd");
+            assertUpdated(root, hasher);
+
+            Files.writeString(root.resolve("a/b/new"), "eeee");
+            assertUpdated(root, hasher);
+
+            Files.createDirectories(root.resolve("c/d"));
+            Files.writeString(root.resolve("c/d/file"), "ffff");
+            assertUpdated(root, hasher);
+            // the new directories are watched too
+            Files.writeString(root.resolve("c/d/file"), "gggg");
+            assertUpdated(root, hasher);
+
+            Files.move(root.resolve("a/file"), root.resolve("c/moved"));
+            assertUpdated(root, hasher);
+
+            Files.delete(root.resolve("a/b/file"));
+            Files.delete(root.resolve("a/b/new"));
+            Files.delete(root.resolve("a/b"));
+            assertUpdated(root, hasher);
+        }
+    }
+
+    @Test
+    void testRenamedDirectory(@TempDir Path tempDir) throws IOException, InterruptedException {
+        var root = tempDir.resolve("root");
+        Files.createDirectories(root.resolve("a/b/c"));
+        Files.writeString(root.resolve("a/b/file"), "aaaa");
+        Files.writeString(root.resolve("a/b/c/file"), "bbbb");
+        try (var hasher = new WatchingHasher(root, HashingOptions.DEFAULT, 2)) {
+            Files.move(root.resolve("a/b"), root.resolve("a/renamed"));
+            assertUpdated(root, hasher);
+            // the renamed directory and its subdirectory are still watched
+            Files.writeString(root.resolve("a/renamed/file"), "cccc");
+            assertUpdated(root, hasher);
+            Files.writeString(root.resolve("a/renamed/c/file"), "dddd");
+            assertUpdated(root, hasher);
+
+            Files.move(root.resolve("a/renamed"), root.resolve("moved"));
+            assertUpdated(root, hasher);
+            Files.writeString(root.resolve("moved/c/new"), "eeee");
+            assertUpdated(root, hasher);
+        }
+    }
+
+    @Test
+    void testRecreatedDirectory(@TempDir Path tempDir) throws IOException, InterruptedException {
+        var root = tempDir.resolve("root");
+        Files.createDirectories(root.resolve("a"));
+        Files.writeString(root.resolve("a/file"), "aaaa");
+        try (var hasher = new WatchingHasher(root, HashingOptions.DEFAULT, 2)) {
+            Files.delete(root.resolve("a/file"));
+            Files.delete(root.resolve("a"));
+            Files.createDirectory(root.resolve("a"));
+            Files.writeString(root.resolve("a/other"), "bbbb");
+            assertUpdated(root, hasher);
+            // the new directory is watched
+            Files.writeString(root.resolve("a/other"), "cccc");
+            assertUpdated(root, hasher);
+        }
+    }
+
+    @Test
+    void testTreesDeletedWhileBuilt(@TempDir Path tempDir) throws IOException, InterruptedException {
+        var root = tempDir.resolve("root");
+        Files.createDirectories(root);
+        try (var hasher = new WatchingHasher(root, HashingOptions.DEFAULT, 2)) {
+            // the watcher builds the new directories while their files and themselves are being deleted, the files
+            // are large enough for the deletions to overtake the hashing
+            var content = new byte[1 << 14];
+            for (int i = 0; i < 200; ++i) {
+                var directory = Files.createDirectories(root.resolve("tree" + i % 3 + "/sub"));
+                for (int j = 0; j < 50; ++j) {
+                    Files.write(directory.resolve("file" + j), content);
+                }
+                for (int j = 0; j < 50; ++j) {
+                    Files.delete(directory.resolve("file" + j));
+                }
+                Files.delete(directory);
+                Files.delete(directory.getParent());
+            }
+            Files.createDirectories(root.resolve("tree/sub"));
+            Files.writeString(root.resolve("tree/sub/file"), "bbbb");
+            assertUpdated(root, hasher);
+            // still watching
+            Files.writeString(root.resolve("tree/sub/file"), "cccc");
+            assertUpdated(root, hasher);
+        }
+    }
+
+    @Test
+    void testMaxDepth(@TempDir Path tempDir) throws IOException, InterruptedException {
+        var options = HashingOptions.DEFAULT.withMaxDepth(1);
+        Files.createDirectories(tempDir.resolve("a"));
+        Files.writeString(tempDir.resolve("file"), "aaaa");
+        try (var hasher = new WatchingHasher(tempDir, options, 2)) {
+            assertArrayEquals(ForkJoinHashing.hash(tempDir, options), hasher.getRootDigest());
+            Files.writeString(tempDir.resolve("file"), "bbbb");
+            var expected = ForkJoinHashing.hash(tempDir, options);
+            awaitDigest(hasher, expected);
+            assertArrayEquals(expected, hasher.getRootDigest());
+        }
+    }
+
+    @Test
+    void testNotDirectory(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("file");
+        Files.writeString(file, "aaaa");
+        assertThrows(IllegalArgumentException.class, () -> new WatchingHasher(file));
+    }
+
+    private static void assertUpdated(Path root, WatchingHasher hasher) throws InterruptedException {
+        var expected = ForkJoinHashing.hash(root);
+        awaitDigest(hasher, expected);
+        assertArrayEquals(expected, hasher.getRootDigest());
+    }
+
+    /** Waits for the expected digest, the events of one change may come in several batches */
+    private static void awaitDigest(WatchingHasher hasher, byte[] expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        var digest = hasher.getRootDigest();
+        while (!Arrays.equals(expected, digest) && System.nanoTime() < deadline) {
+            digest = hasher.awaitChange(digest, 100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Latency of submitting a trivial task and waiting for its result, compared with java.util.concurrent pools */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+    @Param({"4"})
+    public int threads;
+
+    private FixedThreadPool fixedThreadPool;
+    private ShardedThreadPool shardedThreadPool;
+    private ExecutorService threadPoolExecutor;
+    private ForkJoinPool forkJoinPool;
+
+    @Setup
+    public void setUp() {
+        fixedThreadPool = new FixedThreadPool(threads);
+        shardedThreadPool = new ShardedThreadPool(threads, 1);
+        threadPoolExecutor = Executors.newFixedThreadPool(threads);
+        forkJoinPool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixedThreadPool.shutdown();
+        shardedThreadPool.shutdown();
+        threadPoolExecutor.shutdownNow();
+        forkJoinPool.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer fixedThreadPool() throws InterruptedException {
+        return fixedThreadPool.submit(() -> 1).get();
+    }
+
+    @Benchmark
+    public Integer shardedThreadPool() throws InterruptedException {
+        return shardedThreadPool.submit(() -> 1).get();
+    }
+
+    @Benchmark
+    public Integer threadPoolExecutor() throws InterruptedException, ExecutionException {
+        return threadPoolExecutor.submit(() -> 1).get();
+    }
+
+    @Benchmark
+    public Integer forkJoinPool() throws InterruptedException, ExecutionException {
+        return forkJoinPool.submit(() -> 1).get();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a single-queue {@link FixedThreadPool} with {@link ShardedThreadPool} on tasks that update per-key state.
+ * With key-affinity submission all updates of one key happen on one shard, so its state stays in the caches
+ * of the cores running that shard instead of moving between all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardingBenchmark {
+    private static final int TASKS_PER_KEY = 16;
+
+    @Param({"fixed", "sharded-round-robin", "sharded-key"})
+    public String submission;
+
+    @Param({"2"})
+    public int shards;
+
+    @Param({"64"})
+    public int keys;
+
+    /** Number of longs in the state of one key, 4096 longs is 32 KiB */
+    @Param({"4096"})
+    public int stateSize;
+
+    private ThreadPool pool;
+    private long[][] state;
+
+    @Setup
+    public void setUp() {
+        int threadsPerShard = Math.max(1, Runtime.getRuntime().availableProcessors() / shards);
+        pool = submission.equals("fixed") ? new FixedThreadPool(shards * threadsPerShard)
+                                          : new ShardedThreadPool(shards, threadsPerShard);
+        state = new long[keys][stateSize];
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long updatePerKeyState() throws InterruptedException {
+        var futures = new ArrayList<LightFuture<Long>>(keys * TASKS_PER_KEY);
+        for (int i = 0; i < TASKS_PER_KEY; ++i) {
+            for (int key = 0; key < keys; ++key) {
+                var keyState = state[key];
+                if (submission.equals("sharded-key")) {
+                    futures.add(((ShardedThreadPool) pool).submit(key, () -> update(keyState)));
+                } else {
+                    futures.add(pool.submit(() -> update(keyState)));
+                }
+            }
+        }
+        long result = 0;
+        for (var future: futures) {
+            result += future.get();
+        }
+        return result;
+    }
+
+    /** Touch every element of the state. Tasks of the same key may race here, which is fine for a benchmark. */
+    private static long update(long[] keyState) {
+        long sum = 0;
+        for (int i = 0; i < keyState.length; ++i) {
+            keyState[i] += i;
+            sum += keyState[i];
+        }
+        return sum;
+    }
+}
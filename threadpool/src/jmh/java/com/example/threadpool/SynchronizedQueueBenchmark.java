@@ -0,0 +1,44 @@
+package com.example.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push/pop throughput of {@link SynchronizedQueue} under contention, compared with the queues
+ * from java.util.concurrent. Every operation pushes an element and then pops one, so a pop never waits forever.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SynchronizedQueueBenchmark {
+    private static final Integer ELEMENT = 42;
+    private final SynchronizedQueue<Integer> synchronizedQueue = new SynchronizedQueue<>();
+    private final LinkedBlockingQueue<Integer> linkedBlockingQueue = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<Integer> concurrentLinkedQueue = new ConcurrentLinkedQueue<>();
+
+    @Benchmark
+    public Integer synchronizedQueue() throws InterruptedException {
+        synchronizedQueue.push(ELEMENT);
+        return synchronizedQueue.pop();
+    }
+
+    @Benchmark
+    public Integer linkedBlockingQueue() throws InterruptedException {
+        linkedBlockingQueue.put(ELEMENT);
+        return linkedBlockingQueue.take();
+    }
+
+    /** Non-blocking baseline, the pop can not fail for the same reason the blocking one can not wait forever */
+    @Benchmark
+    public Integer concurrentLinkedQueue() {
+        concurrentLinkedQueue.add(ELEMENT);
+        return concurrentLinkedQueue.poll();
+    }
+}
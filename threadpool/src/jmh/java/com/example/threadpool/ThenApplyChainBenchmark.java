@@ -0,0 +1,73 @@
+package com.example.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to run a task followed by a chain of {@code depth} dependent computations, with
+ * {@link LightFuture#thenApply} compared to {@link CompletableFuture#thenApplyAsync} on java.util.concurrent pools.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThenApplyChainBenchmark {
+    @Param({"4"})
+    public int threads;
+
+    @Param({"1", "10", "100"})
+    public int depth;
+
+    private FixedThreadPool fixedThreadPool;
+    private ExecutorService threadPoolExecutor;
+    private ForkJoinPool forkJoinPool;
+
+    @Setup
+    public void setUp() {
+        fixedThreadPool = new FixedThreadPool(threads);
+        threadPoolExecutor = Executors.newFixedThreadPool(threads);
+        forkJoinPool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixedThreadPool.shutdown();
+        threadPoolExecutor.shutdownNow();
+        forkJoinPool.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer fixedThreadPool() throws InterruptedException {
+        var future = fixedThreadPool.submit(() -> 0);
+        for (int i = 0; i < depth; ++i) {
+            future = future.thenApply(a -> a + 1);
+        }
+        return future.get();
+    }
+
+    @Benchmark
+    public Integer threadPoolExecutor() throws InterruptedException, ExecutionException {
+        return completableFutureChain(threadPoolExecutor);
+    }
+
+    @Benchmark
+    public Integer forkJoinPool() throws InterruptedException, ExecutionException {
+        return completableFutureChain(forkJoinPool);
+    }
+
+    private Integer completableFutureChain(ExecutorService executor) throws InterruptedException, ExecutionException {
+        var future = CompletableFuture.supplyAsync(() -> 0, executor);
+        for (int i = 0; i < depth; ++i) {
+            future = future.thenApplyAsync(a -> a + 1, executor);
+        }
+        return future.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead and accuracy of {@link ThreadPool#schedule} with many timers pending in the pool.
+ * The pending timers are far in the future, so they only make the timer heap large.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark {
+    private static final long DELAY_MICROS = 1000;
+
+    @Param({"0", "1000000"})
+    public int pendingTimers;
+
+    private FixedThreadPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new FixedThreadPool(4);
+        for (int i = 0; i < pendingTimers; ++i) {
+            pool.schedule(() -> null, 1, TimeUnit.HOURS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /** Cost of adding a timer to the heap and removing it */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean scheduleAndCancel() {
+        return pool.schedule(() -> null, 1, TimeUnit.HOURS).cancel();
+    }
+
+    /**
+     * Time from scheduling a task with a 1 ms delay to getting its result,
+     * the part of it above 1 ms is how late the timer and the pool are.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object scheduleAndGet() throws InterruptedException {
+        return pool.schedule(() -> null, DELAY_MICROS, TimeUnit.MICROSECONDS).get();
+    }
+}
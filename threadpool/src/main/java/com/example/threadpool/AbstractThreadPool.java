@@ -0,0 +1,165 @@
+package com.example.threadpool;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/** Common part of thread pools with a fixed set of worker threads taking {@link Task}s from some queues */
+abstract class AbstractThreadPool implements ThreadPool {
+    private Thread[] workerThreads;
+    private volatile boolean shutDown = false;
+    private final TaskTimer timer = new TaskTimer();
+
+    /**
+     * Start the given number of worker threads. Should be called once at the end of the subclass constructor,
+     * since the workers start calling {@link #nextTask} right away.
+     */
+    void startWorkers(int nThreads) {
+        workerThreads = new Thread[nThreads];
+        for (int i = 0; i < nThreads; ++i) {
+            workerThreads[i] = new Thread(new Worker(i));
+            workerThreads[i].setDaemon(true);
+            workerThreads[i].start();
+        }
+    }
+
+    /**
+     * Get the next task for the worker with the given index, blocking until one is available
+     *
+     * @throws InterruptedException if the worker was interrupted while waiting for a task
+     */
+    @NonNull
+    abstract Task<?> nextTask(int workerIndex) throws InterruptedException;
+
+    /** Get the queue for the next submitted task */
+    @NonNull
+    abstract SynchronizedQueue<Task<?>> submitQueue();
+
+    /** Check whether the pool has been shut down */
+    boolean isShutDown() {
+        return shutDown;
+    }
+
+    private class Worker implements Runnable {
+        private final int index;
+
+        private Worker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.interrupted()) {
+                    var task = nextTask(index);
+                    task.compute();
+                    task.submitThenApplyTasks();
+                }
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> LightFuture<T> submit(@NonNull Supplier<? extends T> supplier) {
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(supplier);
+        if (shutDown) {
+            return null;
+        }
+        var task = new Task<T>(supplier, this, submitQueue());
+        task.enqueue();
+        return task;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> ScheduledLightFuture<T> schedule(@NonNull Supplier<? extends T> supplier,
+                                                long delay,
+                                                @NonNull TimeUnit unit) {
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(supplier);
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(unit);
+        if (shutDown) {
+            return null;
+        }
+        var task = new DelayedTask<T>(supplier, this, submitQueue(), timer);
+        task.schedule(deadline(delay, unit));
+        return task;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ScheduledLightFuture<Void> scheduleAtFixedRate(@NonNull Runnable runnable,
+                                                         long initialDelay,
+                                                         long period,
+                                                         @NonNull TimeUnit unit) {
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(runnable);
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(unit);
+        Validate.isTrue(period > 0, "Period should be positive");
+        if (shutDown) {
+            return null;
+        }
+        var task = new PeriodicTask(runnable, unit.toNanos(period), this, submitQueue(), timer);
+        task.schedule(deadline(initialDelay, unit));
+        return task;
+    }
+
+    /** Convert a delay to a {@link System#nanoTime()} deadline, negative delays meaning "now" */
+    private static long deadline(long delay, @NonNull TimeUnit unit) {
+        // limit the delay so the deadline does not overflow (it is still about 146 years)
+        return System.nanoTime() + Math.min(Math.max(unit.toNanos(delay), 0), Long.MAX_VALUE >> 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void shutdown() {
+        // kind of like a singleton, so that multiple threads doing shutdown()
+        // don't wait for each other
+        if (!shutDown) {
+            synchronized (workerThreads) {
+                if (!shutDown) {
+                    shutDown = true;
+                    // pending scheduled tasks are dropped, for the same reasons as the queue is not cleaned up
+                    timer.stop();
+                    // first interrupt them all before waiting for them
+                    for (var workerThread: workerThreads) {
+                        workerThread.interrupt();
+                    }
+                    for (var workerThread: workerThreads) {
+                        // even when we are interrupted we still wait for the workers to finish
+                        while (true) {
+                            try {
+                                workerThread.join();
+                            } catch (InterruptedException ignored) {
+                                continue;
+                            }
+                            break;
+                        }
+                    }
+                    // NB: we do not clean up the queue (and associated tasks in thenApplyLists) for the following
+                    // reasons:
+                    // * it is not explicitly required by the assignment
+                    // * it would considerably complicate logic of submit/shutdown/workers
+                    //   + particularly a worker pops a new tasks, but there is no way for shutdown to find the
+                    //     thenApplyList of this task, except for waiting for workers (which shutdown should not do
+                    //     and the worker could actually be stuck with a task that never ends, which should not prevent
+                    //     the tasks in thenApplyList from being discarded), or maintaining all the tasks in a separate
+                    //     list, which would be under another lock, or the workers saving the tasks they compute
+                    //     somewhere else, but that would need a lock too since the workers need to pop+save atomically
+                    // * it would introduce locks common for workers/submit/shutdown thus prevent them from
+                    //   working concurrently
+                    // * this would make the discarded tasks `ready` with an exception propagated to all get()s waiting
+                    //   for it, but the name LightExecutionException does not imply this use case, and the assignment
+                    //   does not specify any other new exception types and behaviors for get()
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.threadpool;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/** A task that is handed to the queue of a thread pool by the timer after a delay */
+class DelayedTask<T> extends Task<T> implements ScheduledLightFuture<T> {
+    private final TaskTimer timer;
+    private volatile TaskTimer.Entry timerEntry;
+
+    DelayedTask(@NonNull Supplier<? extends T> supplier,
+                @NonNull AbstractThreadPool pool,
+                @NonNull SynchronizedQueue<Task<?>> queue,
+                @NonNull TaskTimer timer) {
+        super(supplier, pool, queue);
+        this.timer = timer;
+    }
+
+    /** Schedule pushing the task to the queue at the given {@link System#nanoTime()} deadline */
+    void schedule(long deadlineNanos) {
+        timerEntry = timer.add(deadlineNanos, this::enqueue);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean cancel() {
+        if (!timer.cancel(timerEntry)) {
+            return false;
+        }
+        complete(null, new CancellationException());
+        submitThenApplyTasks();
+        return true;
+    }
+}
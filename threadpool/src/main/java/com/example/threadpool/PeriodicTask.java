@@ -0,0 +1,75 @@
+package com.example.threadpool;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A future of a task that is run periodically. Each run is a separate task handed to the pool by the timer;
+ * the next run is scheduled when the previous one finishes, so runs never overlap and, if a run takes longer
+ * than the period, the next one starts right after it.
+ * The future itself is never computed, it becomes ready when the task is cancelled or a run throws.
+ */
+class PeriodicTask extends Task<Void> implements ScheduledLightFuture<Void> {
+    private final Runnable runnable;
+    private final long periodNanos;
+    private final AbstractThreadPool pool;
+    private final TaskTimer timer;
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private volatile TaskTimer.Entry timerEntry;
+
+    PeriodicTask(@NonNull Runnable runnable,
+                 long periodNanos,
+                 @NonNull AbstractThreadPool pool,
+                 @NonNull SynchronizedQueue<Task<?>> queue,
+                 @NonNull TaskTimer timer) {
+        super(() -> null, pool, queue);
+        this.runnable = runnable;
+        this.periodNanos = periodNanos;
+        this.pool = pool;
+        this.timer = timer;
+    }
+
+    /** Schedule the next run at the given {@link System#nanoTime()} deadline */
+    void schedule(long deadlineNanos) {
+        timerEntry = timer.add(deadlineNanos, () -> new Task<Void>(() -> {
+            if (finished.get()) {
+                return null;
+            }
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                finish(e);
+                return null;
+            }
+            // it could have been cancelled during the run and the new entry would then not be cancelled
+            if (!finished.get()) {
+                schedule(deadlineNanos + periodNanos);
+            }
+            return null;
+        }, pool, pool.submitQueue()).enqueue());
+        // pick up a cancel() that happened between the check above and the assignment of timerEntry
+        if (finished.get()) {
+            timer.cancel(timerEntry);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean cancel() {
+        if (!finish(null)) {
+            return false;
+        }
+        timer.cancel(timerEntry);
+        return true;
+    }
+
+    private boolean finish(RuntimeException exception) {
+        if (!finished.compareAndSet(false, true)) {
+            return false;
+        }
+        complete(null, exception);
+        submitThenApplyTasks();
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.threadpool;
+
+/**
+ * Interface of a future created by scheduling a task in {@link ThreadPool}
+ *
+ * @param <T> type of the result of the computation represented by the future.
+ */
+public interface ScheduledLightFuture<T> extends LightFuture<T> {
+    /**
+     * Cancel the task. A delayed task is cancelled only if it has not been handed to the pool yet, and then
+     * the future becomes ready and {@link #get()} throws a {@link LightExecutionException} caused by
+     * {@link java.util.concurrent.CancellationException}. A periodic task is not run anymore (a run that is
+     * in progress completes), and the future becomes ready with a null result.
+     *
+     * @return true if the task was cancelled by this call, false if it had already finished or been cancelled
+     */
+    boolean cancel();
+}
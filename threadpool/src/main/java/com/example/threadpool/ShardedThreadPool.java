@@ -0,0 +1,129 @@
+package com.example.threadpool;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A thread pool whose workers are split into shards, each shard with its own task queue.
+ * Tasks are distributed between the shards round-robin, or by key so that all tasks with the same key
+ * go to the same shard and the data they touch stays in the caches of the same group of cores.
+ * A worker takes tasks from other shards only when the queue of its own shard is empty. When all the queues are
+ * empty the worker waits until a task is pushed to any of them.
+ */
+public class ShardedThreadPool extends AbstractThreadPool {
+    private final SynchronizedQueue<Task<?>>[] shardQueues;
+    /** Idle workers wait on it, pushes notify it only if there are idle workers */
+    private final Object idleLock = new Object();
+    private volatile int idleWorkers;
+    private final int threadsPerShard;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * Create a new thread pool with {@code nShards} shards of {@code threadsPerShard} worker threads each
+     *
+     * @throws IllegalArgumentException if any of the parameters is not positive
+     */
+    public ShardedThreadPool(int nShards, int threadsPerShard) {
+        Validate.isTrue(nShards > 0, "Shards count should be positive");
+        Validate.isTrue(threadsPerShard > 0, "Threads per shard count should be positive");
+        shardQueues = newQueueArray(nShards);
+        for (int i = 0; i < nShards; ++i) {
+            shardQueues[i] = new SynchronizedQueue<>(this::taskPushed);
+        }
+        this.threadsPerShard = threadsPerShard;
+        startWorkers(nShards * threadsPerShard);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SynchronizedQueue<Task<?>>[] newQueueArray(int length) {
+        return (SynchronizedQueue<Task<?>>[]) new SynchronizedQueue<?>[length];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @NonNull
+    Task<?> nextTask(int workerIndex) throws InterruptedException {
+        int shard = workerIndex / threadsPerShard;
+        var task = pollAny(shard);
+        if (task != null) {
+            return task;
+        }
+        synchronized (idleLock) {
+            ++idleWorkers;
+            try {
+                while (true) {
+                    // a task pushed before the worker became idle is found here, a later push notifies it
+                    task = pollAny(shard);
+                    if (task != null) {
+                        return task;
+                    }
+                    idleLock.wait();
+                }
+            } finally {
+                --idleWorkers;
+            }
+        }
+    }
+
+    /**
+     * Take a task from the queue of the {@code shard}, or steal one starting from the next shard so different
+     * shards do not all go after the same victim. Return null if all the queues are empty.
+     */
+    @Nullable
+    private Task<?> pollAny(int shard) {
+        for (int i = 0; i < shardQueues.length; ++i) {
+            var task = shardQueues[(shard + i) % shardQueues.length].poll();
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /** Wake up an idle worker, if any, to take the pushed task */
+    private void taskPushed() {
+        if (idleWorkers > 0) {
+            synchronized (idleLock) {
+                idleLock.notify();
+            }
+        }
+    }
+
+    /** {@inheritDoc} Tasks that are not submitted with a key go to the shards in round-robin order. */
+    @Override
+    @NonNull
+    SynchronizedQueue<Task<?>> submitQueue() {
+        return shardQueues[Math.floorMod(nextShard.getAndIncrement(), shardQueues.length)];
+    }
+
+    /**
+     * Submit a task for execution on the shard determined by the {@code key}, so that tasks with equal keys
+     * are executed by the same group of workers (unless stolen by an idle shard).
+     *
+     * @return A LightFuture representing the submitted task, or null if the pool has been shut down
+     * @throws NullPointerException if key or supplier is null
+     */
+    public <T> LightFuture<T> submit(@NonNull Object key, @NonNull Supplier<? extends T> supplier) {
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(key);
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(supplier);
+        if (isShutDown()) {
+            return null;
+        }
+        var task = new Task<T>(supplier, this, shardQueues[shardIndex(key)]);
+        task.enqueue();
+        return task;
+    }
+
+    /** Get the index of the shard for the given key */
+    int shardIndex(@NonNull Object key) {
+        int hash = key.hashCode();
+        // spread the higher bits like HashMap does so keys differing only in them do not collide
+        return Math.floorMod(hash ^ (hash >>> 16), shardQueues.length);
+    }
+}
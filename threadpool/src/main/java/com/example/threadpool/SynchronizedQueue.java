@@ -3,6 +3,7 @@ package com.example.threadpool;
 
 import org.apache.commons.lang3.Validate;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /** A simple implementation of blocking synchronized queue */
 public class SynchronizedQueue<E> {
@@ -10,6 +11,17 @@ public class SynchronizedQueue<E> {
     private Element<E> end = null;
     private final Object pushLock = new Object();
     private final Object popLock = new Object();
+    @Nullable
+    private final Runnable pushListener;
+
+    public SynchronizedQueue() {
+        this(null);
+    }
+
+    /** Create a queue calling the {@code pushListener} after each push, outside of the locks of the queue */
+    SynchronizedQueue(@Nullable Runnable pushListener) {
+        this.pushListener = pushListener;
+    }
 
     /**
      * Push an element
@@ -30,6 +42,9 @@ public class SynchronizedQueue<E> {
                 end = end.next;
             }
         }
+        if (pushListener != null) {
+            pushListener.run();
+        }
     }
 
     /**
@@ -43,22 +58,39 @@ public class SynchronizedQueue<E> {
             while (start == null) {
                 popLock.wait();
             }
-            var result = start.value;
-            if (start.next == null) {
-                synchronized (pushLock) {
-                    if (start.next == null) {
-                        start = end = null;
-                    } else {
-                        start = start.next;
-                    }
+            return removeFirst();
+        }
+    }
+
+    /** Pop an element and return it, or return null if there is none. Does not block. */
+    @Nullable
+    public E poll() {
+        synchronized (popLock) {
+            if (start == null) {
+                return null;
+            }
+            return removeFirst();
+        }
+    }
+
+    /** Remove the first element, popLock should be held and the queue should not be empty */
+    @NonNull
+    private E removeFirst() {
+        var result = start.value;
+        if (start.next == null) {
+            synchronized (pushLock) {
+                if (start.next == null) {
+                    start = end = null;
+                } else {
+                    start = start.next;
                 }
-            } else {
-                // can not read different start.next here since Element.next is volatile
-                // and if we saw a non-null value it will never change
-                start = start.next;
             }
-            return result;
+        } else {
+            // can not read different start.next here since Element.next is volatile
+            // and if we saw a non-null value it will never change
+            start = start.next;
         }
+        return result;
     }
 
     private static class Element<E> {
@@ -0,0 +1,107 @@
+package com.example.threadpool;
+
+import org.apache.commons.lang3.Validate;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A class representing both task in the queue of a thread pool and a LightFuture associated with it.
+ * Tasks created by {@link #thenApply} go to the same queue as this one.
+ */
+class Task<T> implements LightFuture<T> {
+    private final Supplier<? extends T> supplier;
+    private final AbstractThreadPool pool;
+    private final SynchronizedQueue<Task<?>> queue;
+    private final List<Task<?>> thenApplyList = new LinkedList<>();
+    private T result = null;
+    private volatile boolean ready = false;
+    private RuntimeException computationException = null;
+
+    Task(@NonNull Supplier<? extends T> supplier,
+         @NonNull AbstractThreadPool pool,
+         @NonNull SynchronizedQueue<Task<?>> queue) {
+        this.supplier = supplier;
+        this.pool = pool;
+        this.queue = queue;
+    }
+
+    /** Compute the result and notify all waiting for it */
+    void compute() {
+        try {
+            complete(supplier.get(), null);
+        } catch (RuntimeException e) {
+            complete(null, e);
+        }
+    }
+
+    /**
+     * Make the task ready with the given result or exception without computing it and notify all waiting for it.
+     * The caller is responsible for calling {@link #submitThenApplyTasks()} afterwards.
+     */
+    synchronized void complete(T result, RuntimeException computationException) {
+        this.result = result;
+        this.computationException = computationException;
+        ready = true;
+        notifyAll();
+    }
+
+    /** Push this task to its queue for computing */
+    void enqueue() {
+        queue.push(this);
+    }
+
+    /** Push the tasks created by thenApply() before this one was ready to the queue */
+    void submitThenApplyTasks() {
+        synchronized (thenApplyList) {
+            for (var thenTask: thenApplyList) {
+                queue.push(thenTask);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isReady() {
+        // not synchronized and uses the fact that 'ready' is volatile
+        return ready;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T get() throws InterruptedException {
+        if (!ready) {
+            synchronized (this) {
+                while (!ready) {
+                    wait();
+                }
+            }
+        }
+        if (computationException != null) {
+            throw new LightExecutionException(computationException);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <U> LightFuture<U> thenApply(@NonNull Function<? super T, ? extends U> function) {
+        //noinspection ResultOfMethodCallIgnored
+        Validate.notNull(function);
+        if (pool.isShutDown()) {
+            return null;
+        }
+        var newTask = new Task<U>(() -> function.apply(result), pool, queue);
+        synchronized (thenApplyList) {
+            if (ready) {
+                queue.push(newTask);
+            } else {
+                thenApplyList.add(newTask);
+            }
+        }
+        return newTask;
+    }
+}
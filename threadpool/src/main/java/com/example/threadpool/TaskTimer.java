@@ -0,0 +1,154 @@
+package com.example.threadpool;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer thread that runs short actions (like pushing a task to a queue of a thread pool) at their deadlines.
+ * Pending actions are kept in a binary heap ordered by deadline. The thread is started on the first
+ * {@link #add} so pools that never schedule anything do not pay for it.
+ */
+class TaskTimer {
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>();
+    private long nextSequenceNumber = 0;
+    private int cancelledCount = 0;
+    private Thread thread = null;
+    private boolean stopped = false;
+
+    /**
+     * Add an action to be run by the timer thread at the given {@link System#nanoTime()} deadline.
+     * After {@link #stop()} the action is never run.
+     */
+    @NonNull
+    Entry add(long deadlineNanos, @NonNull Runnable action) {
+        synchronized (heap) {
+            var entry = new Entry(deadlineNanos, nextSequenceNumber++, action);
+            if (stopped) {
+                entry.state = State.CANCELLED;
+                return entry;
+            }
+            if (thread == null) {
+                thread = new Thread(this::run);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            heap.add(entry);
+            if (heap.peek() == entry) {
+                // the timer thread may be sleeping until a later deadline
+                heap.notify();
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Cancel the entry so its action is never run
+     *
+     * @return false if the action has already been run (or is running), or the entry has already been cancelled
+     */
+    boolean cancel(@NonNull Entry entry) {
+        synchronized (heap) {
+            if (entry.state != State.PENDING) {
+                return false;
+            }
+            entry.state = State.CANCELLED;
+            // cancelled entries are left in the heap until their deadline, but once they are the majority
+            // it is rebuilt without them, so cancelling is amortized O(log n) and they do not pile up
+            if (++cancelledCount > heap.size() / 2) {
+                heap.removeIf(e -> e.state == State.CANCELLED);
+                cancelledCount = 0;
+            }
+            return true;
+        }
+    }
+
+    /** Stop the timer thread and drop all pending actions. Waits for the thread to finish. */
+    void stop() {
+        Thread timerThread;
+        synchronized (heap) {
+            stopped = true;
+            for (var entry: heap) {
+                entry.state = State.CANCELLED;
+            }
+            heap.clear();
+            timerThread = thread;
+        }
+        if (timerThread == null) {
+            return;
+        }
+        timerThread.interrupt();
+        // even when we are interrupted we still wait for the timer to finish
+        while (true) {
+            try {
+                timerThread.join();
+            } catch (InterruptedException ignored) {
+                continue;
+            }
+            break;
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.interrupted()) {
+                Entry due;
+                synchronized (heap) {
+                    while (true) {
+                        var head = heap.peek();
+                        if (head == null) {
+                            heap.wait();
+                            continue;
+                        }
+                        long remaining = head.deadlineNanos - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(heap, remaining);
+                    }
+                    due = heap.poll();
+                    if (due.state == State.CANCELLED) {
+                        --cancelledCount;
+                        continue;
+                    }
+                    due.state = State.FIRED;
+                }
+                // run outside of the lock so add() and cancel() are not blocked by the action
+                due.action.run();
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private enum State {
+        PENDING, FIRED, CANCELLED
+    }
+
+    /** An action pending in the timer */
+    static class Entry implements Comparable<Entry> {
+        private final long deadlineNanos;
+        private final long sequenceNumber;
+        private final Runnable action;
+        // guarded by the heap of the timer
+        private State state = State.PENDING;
+
+        private Entry(long deadlineNanos, long sequenceNumber, @NonNull Runnable action) {
+            this.deadlineNanos = deadlineNanos;
+            this.sequenceNumber = sequenceNumber;
+            this.action = action;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int compareTo(@NonNull Entry other) {
+            // compare the difference since nanoTime() values can overflow
+            long difference = deadlineNanos - other.deadlineNanos;
+            if (difference != 0) {
+                return difference < 0 ? -1 : 1;
+            }
+            // actions with the same deadline are run in the order they were added
+            return Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.threadpool;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /** Interface of a simple thread pool */
@@ -12,6 +13,25 @@ public interface ThreadPool {
      */
     <T> LightFuture<T> submit(Supplier<? extends T> supplier);
 
+    /**
+     * Submit a task for execution after the given delay. The pool does not spend a worker on waiting.
+     *
+     * @return A ScheduledLightFuture representing the task, or null if the pool has been shut down
+     * @throws NullPointerException if supplier or unit is null
+     */
+    <T> ScheduledLightFuture<T> schedule(Supplier<? extends T> supplier, long delay, TimeUnit unit);
+
+    /**
+     * Run the task periodically, first after {@code initialDelay}, then every {@code period}, until it is cancelled,
+     * throws an exception, or the pool is shut down. Runs never overlap: a run that is late delays the next one.
+     *
+     * @return A ScheduledLightFuture that becomes ready when the task is cancelled or throws,
+     *         or null if the pool has been shut down
+     * @throws NullPointerException if runnable or unit is null
+     * @throws IllegalArgumentException if period is not positive
+     */
+    ScheduledLightFuture<Void> scheduleAtFixedRate(Runnable runnable, long initialDelay, long period, TimeUnit unit);
+
     /** Shut down the pool. Try to stop current tasks by interrupting them and wait for their completion. */
     void shutdown();
 }
@@ -7,9 +7,12 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -335,6 +338,128 @@ class FixedThreadPoolTest {
         assertThrows(NullPointerException.class, () -> future.thenApply(null));
     }
 
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleWaitsForDelay() throws InterruptedException {
+        long start = System.nanoTime();
+        var future = poolWithFourThreads.schedule(System::nanoTime, 50, TimeUnit.MILLISECONDS);
+        assertTrue(future.get() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleOrder() throws InterruptedException {
+        var pool = new FixedThreadPool(1);
+        var order = new ArrayList<Integer>();
+        var futures = new ArrayList<LightFuture<Boolean>>();
+        for (int i = 4; i >= 0; --i) {
+            int finalI = i;
+            futures.add(pool.schedule(() -> order.add(finalI), 10 * i, TimeUnit.MILLISECONDS));
+        }
+        for (var future: futures) {
+            future.get();
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), order);
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleDoesNotOccupyWorker() throws InterruptedException {
+        var pool = new FixedThreadPool(1);
+        var delayed = pool.schedule(() -> 1, 1, TimeUnit.HOURS);
+        assertEquals(2, (int) pool.submit(() -> 2).get());
+        assertFalse(delayed.isReady());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleThenApply() throws InterruptedException {
+        var future = poolWithFourThreads.schedule(() -> 1, 10, TimeUnit.MILLISECONDS).thenApply(a -> a * 2);
+        assertEquals(2, (int) future.get());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleCancel() throws InterruptedException {
+        var future = poolWithFourThreads.schedule(() -> 1, 1, TimeUnit.HOURS);
+        assertTrue(future.cancel());
+        assertFalse(future.cancel());
+        assertTrue(future.isReady());
+        var exception = assertThrows(LightExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof CancellationException);
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleCancelAfterRun() throws InterruptedException {
+        var future = poolWithFourThreads.schedule(() -> 1, 0, TimeUnit.MILLISECONDS);
+        assertEquals(1, (int) future.get());
+        assertFalse(future.cancel());
+        assertEquals(1, (int) future.get());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleAtFixedRate() throws InterruptedException {
+        var latch = new CountDownLatch(5);
+        var future = poolWithFourThreads.scheduleAtFixedRate(latch::countDown, 0, 5, TimeUnit.MILLISECONDS);
+        latch.await();
+        assertFalse(future.isReady());
+        assertTrue(future.cancel());
+        assertFalse(future.cancel());
+        assertNull(future.get());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleAtFixedRateRunsDoNotOverlap() throws InterruptedException {
+        var running = new Semaphore(1);
+        var overlapped = new AtomicBoolean();
+        var latch = new CountDownLatch(5);
+        var future = poolWithFourThreads.scheduleAtFixedRate(() -> {
+            // an assertion failure here would be an Error killing the worker, so the overlap is only recorded
+            boolean acquired = running.tryAcquire();
+            if (!acquired) {
+                overlapped.set(true);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ignored) {
+            }
+            if (acquired) {
+                running.release();
+            }
+            latch.countDown();
+        }, 0, 1, TimeUnit.MILLISECONDS);
+        latch.await();
+        future.cancel();
+        assertNull(future.get());
+        assertFalse(overlapped.get());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testScheduleAtFixedRateException() throws InterruptedException {
+        var runs = new int[1];
+        var future = poolWithFourThreads.scheduleAtFixedRate(() -> {
+            if (++runs[0] == 3) {
+                throw new IllegalStateException();
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+        var exception = assertThrows(LightExecutionException.class, future::get);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertEquals(3, runs[0]);
+        assertFalse(future.cancel());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testCanNotScheduleAfterShutdown() {
+        poolWithFourThreads.shutdown();
+        assertNull(poolWithFourThreads.schedule(() -> 1, 0, TimeUnit.MILLISECONDS));
+        assertNull(poolWithFourThreads.scheduleAtFixedRate(() -> {}, 0, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testScheduleExceptions() {
+        assertThrows(NullPointerException.class, () -> poolWithFourThreads.schedule(null, 1, TimeUnit.SECONDS));
+        assertThrows(NullPointerException.class, () -> poolWithFourThreads.schedule(() -> 1, 1, null));
+        assertThrows(NullPointerException.class,
+                     () -> poolWithFourThreads.scheduleAtFixedRate(null, 1, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class,
+                     () -> poolWithFourThreads.scheduleAtFixedRate(() -> {}, 1, 0, TimeUnit.SECONDS));
+    }
+
     private void startSimultaneouslyAndWait(List<Runnable> runnableList, CyclicBarrier barrier) throws InterruptedException {
         var threads = new ArrayList<Thread>();
 
@@ -0,0 +1,87 @@
+package com.example.threadpool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedThreadPoolTest {
+    private static final int REPEAT_CONCURRENCY_TESTS_COUNT = 10;
+    private ShardedThreadPool poolWithTwoShards;
+
+    @BeforeEach
+    void init() {
+        poolWithTwoShards = new ShardedThreadPool(2, 2);
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testBasicGet() throws InterruptedException {
+        var future = poolWithTwoShards.submit(() -> 1);
+        assertEquals(1, (int) future.get());
+        var keyFuture = poolWithTwoShards.submit("key", () -> 2);
+        assertEquals(2, (int) keyFuture.get());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testThenApply() throws InterruptedException {
+        var future1 = poolWithTwoShards.submit("key", () -> 1);
+        var future2 = future1.thenApply(a -> a * 2);
+        assertEquals(2, (int) future2.get());
+        var future3 = future2.thenApply(a -> a + 1);
+        assertEquals(3, (int) future3.get());
+    }
+
+    @Test
+    void testSameKeySameShard() {
+        var pool = new ShardedThreadPool(7, 1);
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(pool.shardIndex("key" + i), pool.shardIndex("key" + i));
+            assertTrue(pool.shardIndex(i) >= 0 && pool.shardIndex(i) < 7);
+        }
+        assertEquals(pool.shardIndex(-5), pool.shardIndex(-5));
+    }
+
+    // all tasks go to a single shard whose only worker is blocked, so they can only complete by being stolen
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testIdleShardSteals() throws InterruptedException {
+        var pool = new ShardedThreadPool(2, 1);
+        var latch = new CountDownLatch(1);
+        var blocker = pool.submit("key", () -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ignored) {
+            }
+            return 0;
+        });
+        var futures = new ArrayList<LightFuture<Integer>>();
+        for (int i = 0; i < 20; ++i) {
+            int finalI = i;
+            futures.add(pool.submit("key", () -> finalI * finalI));
+        }
+        for (int i = 0; i < 20; ++i) {
+            assertEquals(i * i, (int) futures.get(i).get());
+        }
+        latch.countDown();
+        assertEquals(0, (int) blocker.get());
+    }
+
+    @RepeatedTest(REPEAT_CONCURRENCY_TESTS_COUNT)
+    void testCanNotSubmitAfterShutdown() {
+        poolWithTwoShards.shutdown();
+        assertNull(poolWithTwoShards.submit(() -> 1));
+        assertNull(poolWithTwoShards.submit("key", () -> 1));
+    }
+
+    @Test
+    void testExceptions() {
+        assertThrows(NullPointerException.class, () -> poolWithTwoShards.submit(null));
+        assertThrows(NullPointerException.class, () -> poolWithTwoShards.submit(null, () -> 1));
+        assertThrows(NullPointerException.class, () -> poolWithTwoShards.submit("key", null));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedThreadPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedThreadPool(1, -1));
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Comparator;
 import java.util.concurrent.CyclicBarrier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class SynchronizedQueueTest {
@@ -77,6 +78,20 @@ class SynchronizedQueueTest {
         }
     }
 
+    @Test
+    void testPollEmpty() {
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void testPollSingleThread() {
+        queue.push("1");
+        queue.push("2");
+        assertEquals("1", queue.poll());
+        assertEquals("2", queue.poll());
+        assertNull(queue.poll());
+    }
+
     @Test
     void testPushNullElementException() {
         //noinspection ConstantConditions